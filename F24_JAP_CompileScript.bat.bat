@@ -69,7 +69,8 @@ javac --release 17 -Xlint -d %BINDIR% -sourcepath %SRCDIR% ^
   %SRCDIR%\view\*.java ^
   %SRCDIR%\controller\*.java ^
   %SRCDIR%\model\*.java ^
-  %SRCDIR%\network\*.java 2> %BINERR%
+  %SRCDIR%\network\*.java ^
+  %SRCDIR%\sim\*.java 2> %BINERR%
 
 IF ERRORLEVEL 1 (
     ECHO ❌ Compilation failed. See %BINERR%
@@ -104,7 +105,7 @@ java -jar %BINDIR%\%JARNAME%
 
 ECHO [6] Generating Javadoc ...
 IF EXIST %DOCDIR% rmdir /S /Q %DOCDIR%
-javadoc -d %DOCDIR% -sourcepath %SRCDIR% -subpackages controller:network:model:view 2> %DOCERR%
+javadoc -d %DOCDIR% -sourcepath %SRCDIR% -subpackages controller:network:model:view:sim 2> %DOCERR%
 
 IF ERRORLEVEL 1 (
     ECHO ⚠ Javadoc created with warnings. See %DOCERR%
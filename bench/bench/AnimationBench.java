@@ -0,0 +1,154 @@
+package bench;
+
+import model.Card;
+import model.Deck;
+import model.Game;
+import model.Player;
+import view.Animator;
+import view.CardAtlas;
+import view.GameView;
+
+import javax.swing.SwingUtilities;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures what animation frames cost headless, on the EDT as in the client.
+ * An eight-seat table with every hand dealt is shown, then a number of card
+ * sprites are set flying between random points on it for longer than the
+ * run, so all of them move every frame. A frame is one fixed step of the
+ * Animator (moving the tweens and marking what they cover for repaint) and
+ * one paint of the whole view; each is timed, and the bytes the steps
+ * allocate are counted. The last row plays a real deal of 104 cards from
+ * the first render until the last card lands.
+ *
+ * Run from the project root so Assets/ and the message bundles resolve:
+ * java -Djava.awt.headless=true -cp bin;benchbin;src;. bench.AnimationBench [frames]
+ */
+public class AnimationBench {
+
+    /** Size of the window the view is laid out in. */
+    private static final int WIDTH = 1000, HEIGHT = 700;
+
+    /** Seats and cards dealt to each. */
+    private static final int SEATS = 8, HAND = 13;
+
+    /** Bytes one allocation probe costs itself, taken off each measurement (EDT). */
+    private static long probeBytes;
+
+    /**
+     * Entry point.
+     *
+     * @param args frames per measurement (default 300)
+     * @throws Exception if the benchmark fails on the EDT
+     */
+    public static void main(String[] args) throws Exception {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        SwingUtilities.invokeAndWait(() -> run(frames));
+        System.exit(0); // The animator's timer would keep the EDT alive
+    }
+
+    /**
+     * Runs the measurements (EDT).
+     *
+     * @param frames frames per measurement
+     */
+    private static void run(int frames) {
+        BufferedImage screen = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        for (int i = 0; i < 1000; i++) probeBytes = -(CardBench.allocatedBytes() - CardBench.allocatedBytes());
+        GameView view = view(false);
+        Animator animator = view.getAnimator();
+        view.setAnimated(true);
+        SplittableRandom random = new SplittableRandom(7);
+
+        System.out.printf("%-16s %10s %10s %12s %10s %8s%n", "in flight", "step us", "B/step", "paint us", "frame us", "fps");
+        for (int tweens : new int[] {0, 16, 64, 256, 1024}) {
+            for (int i = 0; i < tweens; i++) {
+                animator.start(CardAtlas.get().getFace(Card.byOrdinal(i % Card.COUNT), false),
+                        random.nextInt(WIDTH - 300), random.nextInt(HEIGHT - 100),
+                        random.nextInt(WIDTH - 300), random.nextInt(HEIGHT - 100), 0, 1_000_000, 0, -1);
+            }
+            for (int i = 0; i < frames / 5 + 2; i++) frame(view, animator, screen, new long[3]); // Warm up
+            long[] totals = new long[3];
+            for (int i = 0; i < frames; i++) frame(view, animator, screen, totals);
+            print(tweens + " tweens", frames, totals);
+            animator.finishAll();
+        }
+
+        // A real deal: every card flies from the draw pile to its seat in turn
+        view = view(true);
+        animator = view.getAnimator();
+        long[] totals = new long[3];
+        int count = 0;
+        while (animator.getActiveCount() > 0) {
+            frame(view, animator, screen, totals);
+            count++;
+        }
+        print("deal " + SEATS * HAND + " cards", count, totals);
+    }
+
+    /**
+     * Creates a view showing a freshly dealt eight-seat table (EDT).
+     *
+     * @param animated true to fly the deal in
+     * @return the view, laid out
+     */
+    private static GameView view(boolean animated) {
+        GameView view = new GameView();
+        view.setAnimated(animated);
+        view.setSize(WIDTH, HEIGHT);
+        view.addNotify(); // A lightweight peer, so validate() works without a window
+
+        Deck deck = new Deck(7);
+        Card top = deck.drawCard();
+        List<Player> players = new ArrayList<>();
+        for (int s = 0; s < SEATS; s++) {
+            Player p = new Player("Player " + (s + 1));
+            if (s == 0) p.addCards(deck.deal(HAND));
+            else p.addHiddenCards(HAND);
+            players.add(p);
+        }
+        view.render(new Game(players, deck, top), "Player 1");
+        view.validate();
+        return view;
+    }
+
+    /**
+     * Steps the animation once and paints the view, adding the step time,
+     * bytes allocated by the step and paint time to the totals (EDT).
+     *
+     * @param view     the view
+     * @param animator its animator
+     * @param screen   image painted into
+     * @param totals   step nanoseconds, step bytes and paint nanoseconds so far
+     */
+    private static void frame(GameView view, Animator animator, BufferedImage screen, long[] totals) {
+        long allocated = CardBench.allocatedBytes();
+        long start = System.nanoTime();
+        animator.advance(1);
+        long stepped = System.nanoTime();
+        totals[1] += Math.max(0, CardBench.allocatedBytes() - allocated - probeBytes); // Probe jitter is not the step's
+
+        Graphics2D g = screen.createGraphics();
+        view.paint(g);
+        g.dispose();
+        totals[0] += stepped - start;
+        totals[2] += System.nanoTime() - stepped;
+    }
+
+    /**
+     * Prints one row of results.
+     *
+     * @param name   what was measured
+     * @param frames frames measured
+     * @param totals step nanoseconds, step bytes and paint nanoseconds
+     */
+    private static void print(String name, int frames, long[] totals) {
+        double step = totals[0] / 1e3 / frames, paint = totals[2] / 1e3 / frames;
+        System.out.printf("%-16s %10.1f %10.1f %12.1f %10.1f %8.0f%n", name, step, (double) totals[1] / frames,
+                paint, step + paint, 1e6 / (step + paint));
+    }
+}
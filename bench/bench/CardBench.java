@@ -0,0 +1,73 @@
+package bench;
+
+import model.Card;
+import model.Game;
+import network.StateCodec;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntSupplier;
+
+/**
+ * Measures the card hot paths used by every state update: parsing card text,
+ * matching a card against the top card, and parsing a whole SYNC snapshot.
+ * Reports operations per second and bytes allocated per operation.
+ *
+ * Usage: java -cp bin;benchbin bench.CardBench
+ */
+public class CardBench {
+
+    /** Card texts cycled through by the parse benchmark. */
+    private static final String[] TEXTS = {"Qh", "8s", "1d", "Ac", "7h", "Kd", "3s", "9c"};
+
+    /**
+     * Entry point.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        Card[] cards = new Card[TEXTS.length];
+        for (int i = 0; i < cards.length; i++) cards[i] = Card.fromString(TEXTS[i]);
+        String snapshot = WireFormatBench.state("", 4, 12);
+        Game game = new Game();
+
+        int[] i = {0};
+        report("Card.fromString", () -> Card.fromString(TEXTS[i[0]++ & 7]).hashCode());
+        report("Card.matches", () -> {
+            int n = i[0]++;
+            return cards[n & 7].matches(cards[(n >> 3) & 7]) ? 1 : 0;
+        });
+        report("parse SYNC 4p x 12", () -> StateCodec.parse(snapshot, game) ? 1 : 0);
+    }
+
+    /**
+     * Prints rate and allocation of one operation.
+     *
+     * @param name label
+     * @param op   the operation (returns a value to keep the JIT honest)
+     */
+    private static void report(String name, IntSupplier op) {
+        double rate = WireFormatBench.rate(op);
+
+        int iterations = 100_000;
+        long before = allocatedBytes();
+        long sink = 0;
+        for (int n = 0; n < iterations; n++) sink += op.getAsInt();
+        double bytes = (double) (allocatedBytes() - before) / iterations;
+
+        if (sink == 42) System.out.print(""); // Consume the result
+        System.out.printf("%-20s %14.0f ops/s %10.1f B/op%n", name, rate, bytes);
+    }
+
+    /**
+     * Returns the bytes allocated so far by the current thread.
+     *
+     * @return allocated bytes, or 0 if the JVM cannot tell
+     */
+    static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,89 @@
+package bench;
+
+import network.Client;
+import network.Server;
+import network.TransportMode;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test for connection capacity of each server transport in one JVM.
+ * Opens up to the target number of connections (all seated at tables of four),
+ * keeps most of them idle and lets a fraction chat continuously, then reports
+ * how many connections were held, live threads, heap in use and the chat
+ * delivery rate. Clients always use the NIO transport so that the client side
+ * does not add a thread per connection to the numbers.
+ *
+ * Run with Java 21+ to measure the virtual mode:
+ * java -cp bin;benchbin bench.ConnectionCapacity [blocking|virtual|nio] [connections] [activePercent] [seconds]
+ */
+public class ConnectionCapacity {
+
+    /**
+     * Entry point.
+     *
+     * @param args mode, target connections, percent of active connections, active phase length
+     * @throws Exception on timing failures
+     */
+    public static void main(String[] args) throws Exception {
+        TransportMode mode = TransportMode.valueOf((args.length > 0 ? args[0] : "virtual").toUpperCase());
+        int target = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int activePercent = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        int port = 20000 + (int) (Math.random() * 10000);
+
+        Server server = new Server(port, null, mode);
+        server.start();
+        Thread.sleep(300);
+
+        AtomicLong received = new AtomicLong();
+        List<Client> clients = new ArrayList<>(target);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < target; i++) {
+                Client client = new Client("localhost", port, TransportMode.NIO);
+                client.connect("P" + i, "T" + (i / 4), message -> {
+                    if (message.startsWith("3#")) received.incrementAndGet();
+                });
+                clients.add(client);
+            }
+        } catch (Throwable t) {
+            System.err.println("Stopped opening connections: " + t);
+        }
+        long connectNanos = System.nanoTime() - start;
+        Thread.sleep(1000);
+
+        int held = clients.size() - clients.size() % 4;
+        long idleHeap = RoomFootprint.usedHeap();
+        int idleThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        // Active phase: a share of the connections chat as fast as they can
+        int active = Math.max(4, held * activePercent / 100);
+        long activeStart = System.nanoTime();
+        long deadline = activeStart + seconds * 1_000_000_000L;
+        long sent = 0;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < active; i++) {
+                clients.get(i).send("3#P" + i + ": ping");
+                sent++;
+            }
+            Thread.sleep(1);
+        }
+        Thread.sleep(500);
+        double activeSeconds = (System.nanoTime() - activeStart) / 1e9;
+        int activeThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        System.out.printf("mode:              %s (Java %s)%n", mode, Runtime.version().feature());
+        System.out.printf("connections held:  %d of %d (opened in %.0f ms)%n", held, target, connectNanos / 1e6);
+        System.out.printf("idle:              %d threads, %.1f MB heap (%.1f KB/connection)%n",
+                idleThreads, idleHeap / 1048576.0, idleHeap / 1024.0 / Math.max(1, held));
+        System.out.printf("active:            %d chatting, %d threads, %.0f msgs/s sent, %.0f msgs/s delivered%n",
+                active, activeThreads, sent / activeSeconds, received.get() / activeSeconds);
+
+        server.stop();
+        System.exit(0);
+    }
+}
@@ -0,0 +1,88 @@
+package bench;
+
+import model.Card;
+import model.Deck;
+import model.Game;
+import model.Hand;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Stack;
+
+/**
+ * Measures shuffle and deal throughput of Deck against the previous
+ * Stack + Collections.shuffle approach, and checks that seeded decks repeat.
+ *
+ * Usage: java -cp bin;benchbin bench.DeckBench
+ */
+public class DeckBench {
+
+    /**
+     * Entry point.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        Deck a = new Deck(42);
+        Deck b = new Deck(42);
+        for (int i = 0; i < Card.COUNT; i++) {
+            if (a.drawCard() != b.drawCard()) throw new IllegalStateException("Seeded decks differ");
+        }
+        System.out.println("seed 42 deals the same deck twice: ok");
+
+        Deck deck = new Deck(1);
+        long[] seed = {0};
+        List<String> names = List.of("Alice", "Bob", "Carol", "Dave");
+
+        System.out.printf("%-26s %12s%n", "operation", "ops/s");
+        print("stack shuffle", WireFormatBench.rate(() -> legacyDeck().size()));
+        print("deck shuffle", WireFormatBench.rate(() -> {
+            deck.shuffle();
+            return deck.size();
+        }));
+        print("stack shuffle + deal 4x12", WireFormatBench.rate(() -> {
+            Stack<Card> cards = legacyDeck();
+            int n = 0;
+            for (int p = 0; p < 4; p++) {
+                for (int i = 0; i < 12; i++) n += cards.pop().getOrdinal();
+            }
+            return n;
+        }));
+        print("deck shuffle + deal 4x12", WireFormatBench.rate(() -> {
+            deck.shuffle();
+            long n = 0;
+            for (int p = 0; p < 4; p++) n ^= deck.deal(12);
+            return (int) n;
+        }));
+        print("new Game(4 players, seed)", WireFormatBench.rate(() -> new Game(names, seed[0]++).getTopCard().getOrdinal()));
+        print("draw card by card x52", WireFormatBench.rate(() -> {
+            deck.shuffle();
+            Hand hand = new Hand();
+            Card c;
+            while ((c = deck.drawCard()) != null) hand.add(c);
+            return hand.size();
+        }));
+    }
+
+    /**
+     * Builds and shuffles a deck the way Deck did before (synchronized Stack, global Random).
+     *
+     * @return shuffled stack of 52 cards
+     */
+    private static Stack<Card> legacyDeck() {
+        Stack<Card> cards = new Stack<>();
+        for (int i = 0; i < Card.COUNT; i++) cards.add(Card.byOrdinal(i));
+        Collections.shuffle(cards);
+        return cards;
+    }
+
+    /**
+     * Prints one result row.
+     *
+     * @param name operation
+     * @param rate operations per second
+     */
+    private static void print(String name, double rate) {
+        System.out.printf("%-26s %12.0f%n", name, rate);
+    }
+}
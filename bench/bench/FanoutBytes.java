@@ -0,0 +1,116 @@
+package bench;
+
+import model.Card;
+import model.Game;
+import model.Player;
+import network.StateCodec;
+import network.StateDelta;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Measures how many bytes one state update costs to fan out to a table,
+ * sending every hand to everyone versus redacted per-recipient snapshots,
+ * and the CPU cost of building the per-seat messages.
+ *
+ * Usage: java -cp bin;benchbin bench.FanoutBytes [cardsPerPlayer]
+ */
+public class FanoutBytes {
+
+    /**
+     * Entry point.
+     *
+     * @param args optional cards per player (default 12)
+     */
+    public static void main(String[] args) {
+        int cards = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+
+        System.out.printf("%-8s %6s %12s %12s %8s %12s %12s %14s %14s%n",
+                "players", "cards", "full B", "redacted B", "ratio",
+                "draw full B", "draw red. B", "naive us/upd", "shared us/upd");
+
+        for (int players = 2; players <= 8; players++) {
+            int dealt = Math.min(cards, Card.COUNT / players); // One deck holds 52 cards
+            Game game = table(players, dealt);
+
+            // Snapshot: every recipient gets the same full message vs its own view
+            long full = (long) players * bytes(StateCodec.format("SYNC#", game));
+            long redacted = 0;
+            for (String message : StateCodec.formatPerSeat("SYNC#", game)) {
+                redacted += bytes(message);
+            }
+
+            // Draw of three cards: one open line, hidden counts for the rest
+            List<Card> drawn = game.getPlayers().get(0).getHand().subList(0, 3);
+            String open = StateDelta.stamp(100, StateDelta.draw(0, drawn));
+            String hidden = StateDelta.stamp(100, StateDelta.hiddenDraw(0, drawn.size()));
+            long drawFull = (long) players * bytes(open);
+            long drawRedacted = bytes(open) + (long) (players - 1) * bytes(hidden);
+
+            double naive = micros(() -> {
+                int n = 0;
+                for (int seat = 0; seat < game.getPlayers().size(); seat++) {
+                    n += StateCodec.format("SYNC#", game, seat).length();
+                }
+                return n;
+            });
+            double shared = micros(() -> StateCodec.formatPerSeat("SYNC#", game).length);
+
+            System.out.printf("%-8d %6d %12d %12d %7.2fx %12d %12d %14.2f %14.2f%n",
+                    players, dealt, full, redacted, (double) full / redacted,
+                    drawFull, drawRedacted, naive, shared);
+        }
+    }
+
+    /**
+     * Builds a table with the given number of players and cards each
+     * (players * cards must not exceed the 52 cards of a deck).
+     *
+     * @param players number of players
+     * @param cards   cards per player
+     * @return the game
+     */
+    static Game table(int players, int cards) {
+        Game game = new Game();
+        int n = 0;
+        for (int p = 0; p < players; p++) {
+            Player player = new Player("Player" + p);
+            for (int c = 0; c < cards; c++, n++) {
+                player.addCard(Card.valueOf(n % 13, (n / 13) % 4));
+            }
+            game.getPlayers().add(player);
+        }
+        return game;
+    }
+
+    /**
+     * Returns the size of a text message on the wire, including its newline.
+     *
+     * @param message the message
+     * @return byte count
+     */
+    private static int bytes(String message) {
+        return message.getBytes(StandardCharsets.UTF_8).length + 1;
+    }
+
+    /**
+     * Measures microseconds per call of a task after a warm-up.
+     *
+     * @param op the operation (returns a value to keep the JIT honest)
+     * @return microseconds per operation
+     */
+    private static double micros(IntSupplier op) {
+        long sink = 0;
+        for (int i = 0; i < 50_000; i++) sink += op.getAsInt();
+
+        int iterations = 200_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) sink += op.getAsInt();
+        long elapsed = System.nanoTime() - start;
+
+        if (sink == 42) System.out.print(""); // Consume the result
+        return elapsed / 1e3 / iterations;
+    }
+}
@@ -0,0 +1,102 @@
+package bench;
+
+import model.Card;
+import model.Hand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the bitset Hand with a list of cards for the queries bots and the
+ * server run on every move: can play, playable set, count by suit, add/remove.
+ *
+ * Usage: java -cp bin;benchbin bench.HandBench
+ */
+public class HandBench {
+
+    /**
+     * Entry point.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        run(false); // Warm-up pass so every call site is compiled before measuring
+        System.out.printf("%-6s %-18s %14s %14s%n", "cards", "operation", "list ops/s", "hand ops/s");
+        run(true);
+    }
+
+    /**
+     * Runs every operation for each hand size.
+     *
+     * @param print true to print the results
+     */
+    private static void run(boolean print) {
+        for (int size : new int[] {5, 12, 26, 52}) {
+            List<Card> list = new ArrayList<>();
+            Hand hand = new Hand();
+            for (int i = 0; i < size; i++) {
+                Card c = Card.byOrdinal((i * 7) % Card.COUNT); // Spread over suits and ranks
+                list.add(c);
+                hand.add(c);
+            }
+            Card[] tops = new Card[Card.COUNT];
+            for (int i = 0; i < tops.length; i++) tops[i] = Card.byOrdinal((i * 11) % Card.COUNT);
+            Card probe = list.get(size / 2);
+
+            int[] n = {0};
+            print(print, size, "can play",
+                    WireFormatBench.rate(() -> {
+                        Card top = tops[n[0]++ % tops.length];
+                        for (Card c : list) {
+                            if (c.matches(top)) return 1;
+                        }
+                        return 0;
+                    }),
+                    WireFormatBench.rate(() -> hand.canPlay(tops[n[0]++ % tops.length]) ? 1 : 0));
+            print(print, size, "playable set",
+                    WireFormatBench.rate(() -> {
+                        Card top = tops[n[0]++ % tops.length];
+                        int count = 0;
+                        for (Card c : list) {
+                            if (c.matches(top)) count++;
+                        }
+                        return count;
+                    }),
+                    WireFormatBench.rate(() -> Long.bitCount(hand.playable(tops[n[0]++ % tops.length]))));
+            print(print, size, "count by suit",
+                    WireFormatBench.rate(() -> {
+                        int suit = n[0]++ & 3;
+                        int count = 0;
+                        for (Card c : list) {
+                            if (c.getSuitCode() == suit) count++;
+                        }
+                        return count;
+                    }),
+                    WireFormatBench.rate(() -> hand.countBySuit(n[0]++ & 3)));
+            print(print, size, "remove + add",
+                    WireFormatBench.rate(() -> {
+                        list.remove(probe);
+                        list.add(probe);
+                        return list.size();
+                    }),
+                    WireFormatBench.rate(() -> {
+                        hand.remove(probe);
+                        hand.add(probe);
+                        return hand.size();
+                    }));
+        }
+    }
+
+    /**
+     * Prints one result row.
+     *
+     * @param print false to discard the row
+     * @param size  hand size
+     * @param name  operation
+     * @param list  list rate
+     * @param hand  bitset rate
+     */
+    private static void print(boolean print, int size, String name, double list, double hand) {
+        if (print) System.out.printf("%-6d %-18s %14.0f %14.0f%n", size, name, list, hand);
+    }
+}
@@ -0,0 +1,94 @@
+package bench;
+
+import java.util.function.IntSupplier;
+
+/**
+ * A small JMH-style measurement harness for the main-based benchmarks.
+ * Each benchmark runs timed warm-up iterations, then timed measurement
+ * iterations; the report gives the mean time per operation with its
+ * standard deviation across iterations, and the bytes the measuring thread
+ * allocated per operation (the same figure as JMH's gc.alloc.rate.norm).
+ */
+final class Harness {
+
+    /** Warm-up iterations per benchmark. */
+    private static final int WARMUP_ITERATIONS = 5;
+
+    /** Measured iterations per benchmark. */
+    private static final int ITERATIONS = 5;
+
+    /** Length of one iteration. */
+    private static final long ITERATION_NANOS = 200_000_000L;
+
+    /** Calls between clock checks. */
+    private static final int BATCH = 256;
+
+    /** Sink for results, so the JIT cannot drop the work. */
+    private static volatile long sink;
+
+    /** Only benchmarks whose name contains this text are run (empty runs all). */
+    private final String filter;
+
+    /**
+     * Creates a harness and prints the report header.
+     *
+     * @param filter substring a benchmark name must contain, or "" for all
+     */
+    Harness(String filter) {
+        this.filter = filter;
+        System.out.printf("%-44s %12s %10s %12s%n", "benchmark", "ns/op", "error", "B/op");
+    }
+
+    /**
+     * Measures one operation and prints its row.
+     *
+     * @param name benchmark name, including its parameters
+     * @param op   the operation (returns a value to keep the JIT honest)
+     */
+    void run(String name, IntSupplier op) {
+        if (!name.contains(filter)) return;
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(op);
+        }
+
+        double[] nanosPerOp = new double[ITERATIONS];
+        long ops = 0;
+        long allocatedBefore = CardBench.allocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            long[] result = iteration(op);
+            nanosPerOp[i] = (double) result[1] / result[0];
+            ops += result[0];
+        }
+        double bytesPerOp = (double) (CardBench.allocatedBytes() - allocatedBefore) / ops;
+
+        double mean = 0;
+        for (double v : nanosPerOp) mean += v;
+        mean /= ITERATIONS;
+        double variance = 0;
+        for (double v : nanosPerOp) variance += (v - mean) * (v - mean);
+        double error = Math.sqrt(variance / (ITERATIONS - 1));
+
+        System.out.printf("%-44s %12.2f %10.2f %12.1f%n", name, mean, error, bytesPerOp);
+    }
+
+    /**
+     * Runs the operation in batches for one iteration.
+     *
+     * @param op the operation
+     * @return {operations, elapsed nanoseconds}
+     */
+    private static long[] iteration(IntSupplier op) {
+        long local = 0;
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < BATCH; i++) local += op.getAsInt();
+            ops += BATCH;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_NANOS);
+        sink += local;
+        return new long[] {ops, elapsed};
+    }
+}
@@ -0,0 +1,96 @@
+package bench;
+
+import model.Card;
+import model.Deck;
+import model.Game;
+import model.Player;
+import network.Protocol;
+import network.StateCodec;
+
+import java.util.TreeSet;
+
+/**
+ * Benchmark suite for the model, protocol and state-parsing hot paths,
+ * run through {@link Harness}. Parameters sweep hand sizes and 2 to 8 players;
+ * one deck limits a hand to 52 cards and a table to 52 cards in total.
+ * <ul>
+ *   <li>card.matches, player.hasPlayableCard</li>
+ *   <li>deck.new, deck.shuffle</li>
+ *   <li>protocol.format, protocol.parse</li>
+ *   <li>state.start: per-seat START messages, as a room sends when dealing</li>
+ *   <li>state.sync: one full SYNC snapshot</li>
+ *   <li>state.parse: parsing a snapshot into a client Game</li>
+ * </ul>
+ *
+ * Usage: java -cp bin;benchbin bench.HotPaths [nameFilter]
+ */
+public class HotPaths {
+
+    /** Hand sizes swept by the hand benchmarks. */
+    private static final int[] HAND_SIZES = {5, 12, 26, 52};
+
+    /** Player counts swept by the state benchmarks. */
+    private static final int[] PLAYERS = {2, 4, 6, 8};
+
+    /**
+     * Entry point.
+     *
+     * @param args optional substring of the benchmark names to run
+     */
+    public static void main(String[] args) {
+        Harness harness = new Harness(args.length > 0 ? args[0] : "");
+        int[] n = {0};
+
+        Card[] cards = new Card[Card.COUNT];
+        for (int i = 0; i < cards.length; i++) cards[i] = Card.byOrdinal((i * 29) % Card.COUNT);
+        harness.run("card.matches", () -> {
+            int i = n[0] = (n[0] + 1) % (Card.COUNT * Card.COUNT);
+            return cards[i % Card.COUNT].matches(cards[i / Card.COUNT]) ? 1 : 0;
+        });
+
+        for (int size : HAND_SIZES) {
+            Player player = FanoutBytes.table(1, size).getPlayers().get(0);
+            harness.run("player.hasPlayableCard hand=" + size,
+                    () -> player.hasPlayableCard(cards[n[0] = (n[0] + 1) % Card.COUNT]) ? 1 : 0);
+        }
+
+        harness.run("deck.new", () -> new Deck().size());
+        Deck deck = new Deck(1);
+        harness.run("deck.shuffle", () -> {
+            deck.shuffle();
+            return deck.size();
+        });
+
+        harness.run("protocol.format", () -> Protocol.format(Protocol.CHAT, "Alice: good game").length());
+        harness.run("protocol.parse", () -> Protocol.parse("9#17#P#2#Qh").length);
+
+        for (int players : PLAYERS) {
+            for (int hand : handSizes(players)) {
+                Game game = FanoutBytes.table(players, hand);
+                String params = " players=" + players + " hand=" + hand;
+                String snapshot = StateCodec.format("", game);
+                Game client = new Game();
+
+                harness.run("state.start" + params, () -> StateCodec.formatPerSeat("START#", game).length);
+                harness.run("state.sync" + params, () -> StateCodec.format("SYNC#", game).length());
+                harness.run("state.parse" + params, () -> StateCodec.parse(snapshot, client) ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * Returns the hand sizes that fit one deck for a player count:
+     * 5, 12 and the largest possible hand.
+     *
+     * @param players number of players
+     * @return ascending hand sizes
+     */
+    private static TreeSet<Integer> handSizes(int players) {
+        int max = Card.COUNT / players;
+        TreeSet<Integer> sizes = new TreeSet<>();
+        sizes.add(Math.min(5, max));
+        sizes.add(Math.min(12, max));
+        sizes.add(max);
+        return sizes;
+    }
+}
@@ -0,0 +1,77 @@
+package bench;
+
+import model.Game;
+import sim.BasicStrategy;
+import sim.InformationSet;
+import sim.IsmctsStrategy;
+import sim.SimResult;
+import sim.Simulator;
+import sim.Strategy;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the ISMCTS AI: rollouts per second from the opening position for
+ * 1, 2, 4 ... cores, next to the bare playout rate of the random and greedy
+ * baselines, then the win rate of seat 0 against three greedy players when
+ * it plays random, greedy, or ISMCTS at two time budgets.
+ *
+ * Usage: java -cp bin;benchbin bench.IsmctsBench [games] [millis] [threads]
+ */
+public class IsmctsBench {
+
+    /** Search time per measurement of the rollout rate. */
+    private static final long RATE_MILLIS = 2000;
+
+    /**
+     * Entry point.
+     *
+     * @param args games per win-rate run (default 200), larger ISMCTS budget in ms (default 50),
+     *             search threads (default all cores)
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 50;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        Game opening = new Game(List.of("A", "B", "C", "D"), 42);
+        InformationSet info = new InformationSet(opening, 0, 0, opening.getDeck().size());
+
+        System.out.printf("%-36s %14s%n", "rollout rate, opening position", "rollouts/s");
+        for (int t = 1; ; t = Math.min(t * 2, threads)) {
+            ForkJoinPool pool = new ForkJoinPool(t);
+            IsmctsStrategy search = new IsmctsStrategy(pool, TimeUnit.MILLISECONDS.toNanos(RATE_MILLIS));
+            search.decide(info).join(); // Warm up
+            IsmctsStrategy timed = new IsmctsStrategy(pool, TimeUnit.MILLISECONDS.toNanos(RATE_MILLIS));
+            timed.decide(info).join();
+            System.out.printf("%-36s %,14.0f%n", "ISMCTS, " + t + " thread" + (t > 1 ? "s" : ""),
+                    timed.getRolloutsPerSecond());
+            pool.shutdown();
+            if (t == threads) break;
+        }
+        for (BasicStrategy s : new BasicStrategy[] {BasicStrategy.RANDOM, BasicStrategy.GREEDY}) {
+            Simulator simulator = new Simulator(12, s, s, s, s);
+            simulator.runOnCallingThread(200_000, 1); // Warm up
+            SimResult result = simulator.runOnCallingThread(500_000, 2);
+            System.out.printf("%-36s %,14.0f%n", "whole " + s + " games, 1 thread", result.getGamesPerSecond());
+        }
+
+        System.out.println();
+        System.out.printf("%-36s %14s%n", "seat 0 vs 3 x GREEDY, " + games + " games", "win rate");
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Strategy[] players = {
+            BasicStrategy.RANDOM,
+            BasicStrategy.GREEDY,
+            new IsmctsStrategy(pool, TimeUnit.MILLISECONDS.toNanos(Math.max(1, millis / 10))),
+            new IsmctsStrategy(pool, TimeUnit.MILLISECONDS.toNanos(millis)),
+        };
+        for (Strategy player : players) {
+            Simulator simulator = new Simulator(12, player, BasicStrategy.GREEDY, BasicStrategy.GREEDY, BasicStrategy.GREEDY);
+            SimResult result = simulator.runOnCallingThread(games, 3);
+            System.out.printf("%-36s %13.1f%%%n", player, 100.0 * result.getWins(0) / result.getGames());
+        }
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,75 @@
+package bench;
+
+import network.Client;
+import network.JoinStats;
+import network.Server;
+import network.TransportMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time-to-first-deal in a single JVM.
+ * Starts a Server, fills N tables of four one seat at a time and reports how
+ * long each table took from its last JOIN being sent to its last START
+ * arriving, next to the server's own last-JOIN-to-START figures.
+ *
+ * Usage: java -cp bin;benchbin bench.JoinLatency [blocking|nio] [tables]
+ */
+public class JoinLatency {
+
+    /**
+     * Entry point.
+     *
+     * @param args mode, table count
+     * @throws Exception on connection or timing failures
+     */
+    public static void main(String[] args) throws Exception {
+        TransportMode mode = TransportMode.valueOf((args.length > 0 ? args[0] : "nio").toUpperCase());
+        int tables = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int port = 20000 + (int) (Math.random() * 10000);
+
+        Server server = new Server(port, null, mode);
+        server.start();
+        Thread.sleep(300);
+
+        List<Client> clients = new ArrayList<>(tables * 4);
+        long[] dealNanos = new long[tables];
+        for (int t = 0; t < tables; t++) {
+            CountDownLatch dealt = new CountDownLatch(4);
+            long lastJoin = 0;
+            for (int seat = 0; seat < 4; seat++) {
+                Client client = new Client("localhost", port, TransportMode.NIO);
+                if (seat == 3) lastJoin = System.nanoTime();
+                client.connect("P" + seat, "T" + t, message -> {
+                    if (message.startsWith("START#")) dealt.countDown();
+                });
+                clients.add(client);
+            }
+            if (!dealt.await(10, TimeUnit.SECONDS)) {
+                System.out.printf("table %d was not dealt within 10 s%n", t);
+                break;
+            }
+            dealNanos[t] = System.nanoTime() - lastJoin;
+        }
+
+        long sum = 0, max = 0;
+        for (long nanos : dealNanos) {
+            sum += nanos;
+            max = Math.max(max, nanos);
+        }
+        JoinStats stats = server.getJoinStats();
+        System.out.printf("mode:            %s%n", mode);
+        System.out.printf("tables dealt:    %d / %d%n", stats.getDeals(), tables);
+        System.out.printf("client side:     %.2f ms mean, %.2f ms max (last seat connecting to last START)%n",
+                sum / 1e6 / tables, max / 1e6);
+        System.out.printf("server side:     %.3f ms mean, %.3f ms max (last JOIN to START queued)%n",
+                stats.getMeanDealMillis(), stats.getMaxDealMillis());
+
+        for (Client client : clients) client.disconnect();
+        server.stop();
+        System.exit(0);
+    }
+}
@@ -0,0 +1,174 @@
+package bench;
+
+import model.Card;
+import model.Game;
+import model.Hand;
+import model.MoveResult;
+import model.Player;
+import network.GameJournal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Measures the game journal: append rate with group commit, and how long a
+ * restarted server takes to rebuild its in-flight games.
+ * Plays the requested number of games part-way through the journal the way
+ * rooms do (snapshot at the deal and every SNAPSHOT_EVERY records), closes it
+ * as if the process died, reopens the directory and checks every game came
+ * back at the same version, top card and hands.
+ *
+ * Usage: java -cp bin;benchbin bench.JournalRecovery [games] [movesPerGame] [commitMillis]
+ */
+public class JournalRecovery {
+
+    /**
+     * Entry point.
+     *
+     * @param args game count, moves per game, group commit interval
+     * @throws IOException if the temporary journal cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int moves = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        long commitMillis = args.length > 2 ? Long.parseLong(args[2]) : 5;
+        List<String> names = List.of("Alice", "Bob", "Carol", "Dave");
+        Path dir = Files.createTempDirectory("journal-bench");
+
+        List<Game> games = new ArrayList<>(count);
+        long start = System.nanoTime();
+        long records;
+        long commits;
+        try (GameJournal journal = new GameJournal(dir, commitMillis, 64L << 20)) {
+            for (int i = 0; i < count; i++) {
+                Game game = new Game(names, i);
+                long id = journal.nextGameId();
+                journal.snapshot(id, "T" + i, game);
+                games.add(game);
+            }
+            // Interleave the tables, as a busy server would
+            int[] sinceSnapshot = new int[count];
+            List<Card> drawn = new ArrayList<>();
+            for (int m = 0; m < moves; m++) {
+                for (int i = 0; i < count; i++) {
+                    Game game = games.get(i);
+                    if (game.getWinner() >= 0) continue;
+                    move(journal, i + 1, "T" + i, game, sinceSnapshot, i, drawn);
+                }
+            }
+            journal.sync();
+            records = journal.getRecords();
+            commits = journal.getCommits();
+        }
+        long writeNanos = System.nanoTime() - start;
+        long bytes = directorySize(dir);
+
+        GameJournal reopened = new GameJournal(dir, commitMillis, 64L << 20);
+        double recoveryMillis = reopened.getRecoveryMillis();
+        int matched = 0;
+        for (GameJournal.Recovered r : reopened.getRecovered()) {
+            if (same(games.get((int) r.getId() - 1), r.getGame())) matched++;
+        }
+        long live = games.stream().filter(g -> g.getWinner() < 0).count();
+        reopened.close();
+        deleteAll(dir);
+
+        System.out.printf("games:           %d (%d still running)%n", count, live);
+        System.out.printf("records:         %d in %.0f ms (%.0f records/s, %d group commits)%n",
+                records, writeNanos / 1e6, records / (writeNanos / 1e9), commits);
+        System.out.printf("journal size:    %.1f MB (%.1f bytes/record)%n", bytes / 1e6, (double) bytes / records);
+        System.out.printf("recovered:       %d / %d identical%n", matched, live);
+        System.out.printf("recovery:        %.1f ms (%.2f ms per 1000 games)%n",
+                recoveryMillis, recoveryMillis * 1000 / count);
+    }
+
+    /**
+     * Makes one legal move and journals it like a room does.
+     *
+     * @param journal       the journal
+     * @param id            game id
+     * @param code          join code
+     * @param game          the game
+     * @param sinceSnapshot records since each game's last snapshot
+     * @param index         index of this game
+     * @param drawn         scratch list for draws
+     */
+    private static void move(GameJournal journal, long id, String code, Game game,
+                             int[] sinceSnapshot, int index, List<Card> drawn) {
+        int seat = game.getCurrentTurnIndex();
+        Player p = game.getPlayers().get(seat);
+        long playable = p.getCards().playable(game.getTopCard());
+        boolean snapshot = ++sinceSnapshot[index] >= GameJournal.SNAPSHOT_EVERY || journal.needsSnapshot(id);
+        if (snapshot) sinceSnapshot[index] = 0;
+
+        if (game.isAwaitingSuit()) {
+            game.chooseSuit(seat, 0);
+            game.setVersion(game.getVersion() + 2);
+            if (snapshot) journal.snapshot(id, code, game);
+            else journal.suit(id, game.getVersion(), seat, 0);
+        } else if (playable != 0) {
+            Card card = Hand.first(playable);
+            game.play(seat, card);
+            game.setVersion(game.getVersion() + 2);
+            if (game.getWinner() >= 0) journal.end(id, game.getVersion());
+            else if (snapshot) journal.snapshot(id, code, game);
+            else journal.play(id, game.getVersion(), seat, card);
+        } else {
+            drawn.clear();
+            if (game.draw(seat, drawn) != MoveResult.OK) return;
+            game.setVersion(game.getVersion() + 2);
+            if (snapshot) journal.snapshot(id, code, game);
+            else journal.draw(id, game.getVersion(), seat);
+        }
+    }
+
+    /**
+     * Compares the state a recovered game was rebuilt to.
+     *
+     * @param a the original game
+     * @param b the recovered game
+     * @return true if version, turn, top card, deck size and hands agree
+     */
+    private static boolean same(Game a, Game b) {
+        if (a.getVersion() != b.getVersion() || a.getCurrentTurnIndex() != b.getCurrentTurnIndex()) return false;
+        if (a.getTopCard() != b.getTopCard() || a.getDeck().size() != b.getDeck().size()) return false;
+        for (int i = 0; i < a.getPlayers().size(); i++) {
+            if (a.getPlayers().get(i).getCards().getMask() != b.getPlayers().get(i).getCards().getMask()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sums the size of the files in a directory.
+     *
+     * @param dir the directory
+     * @return total bytes
+     * @throws IOException if the directory cannot be listed
+     */
+    private static long directorySize(Path dir) throws IOException {
+        long total = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) total += Files.size(file);
+        }
+        return total;
+    }
+
+    /**
+     * Deletes a directory and its files.
+     *
+     * @param dir the directory
+     * @throws IOException if a file cannot be deleted
+     */
+    private static void deleteAll(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
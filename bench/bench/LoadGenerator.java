@@ -0,0 +1,455 @@
+package bench;
+
+import model.Card;
+import model.Game;
+import model.Hand;
+import model.Player;
+import network.Client;
+import network.LatencyHistogram;
+import network.NetworkHandler;
+import network.Protocol;
+import network.Server;
+import network.StateCodec;
+import network.StateDelta;
+import network.TransportMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives a live Server with scripted bot players for capacity planning.
+ * Every bot is a real Client (JOIN with a session, text or binary frames as
+ * configured) that keeps its own view of the game from START/SYNC snapshots
+ * and deltas, exactly like GameController, and plays a legal card from that
+ * view when its turn comes, drawing when it has none and picking its longest
+ * suit after an 8. Bots chat at a fixed rate, one random bot drops its
+ * connection and resumes its session on a schedule, and each finished table
+ * sits down again at a fresh one so the load stays steady.
+ * <p>
+ * Reports move and chat throughput and the time from sending a move to seeing
+ * its result (the first delta or ERROR that follows it), with p50/p99/p999
+ * over the measured window; the first fifth of the run is warm-up.
+ * <p>
+ * Without a target a Server is started in this JVM on a random port, and its
+ * own move latency is printed alongside.
+ *
+ * Usage: java -cp bin;benchbin bench.LoadGenerator [blocking|nio] [tables] [seconds] [thinkMillis]
+ *        [chatsPerMinute] [reconnectEverySeconds] [host:port]
+ */
+public class LoadGenerator {
+
+    /** Players per table. */
+    private static final int SEATS = 4;
+
+    /** Set once the measurement is over; bots stop acting. */
+    private static volatile boolean stopped;
+
+    /** Move-to-result times over the measured window. */
+    private static volatile LatencyHistogram echo = new LatencyHistogram();
+
+    /** Moves and suit choices sent. */
+    private static final LongAdder moves = new LongAdder();
+
+    /** Moves the server rejected. */
+    private static final LongAdder rejected = new LongAdder();
+
+    /** Chat lines sent. */
+    private static final LongAdder chatsSent = new LongAdder();
+
+    /** Chat lines received. */
+    private static final LongAdder chatsReceived = new LongAdder();
+
+    /** Messages received of any kind. */
+    private static final LongAdder received = new LongAdder();
+
+    /** Games played to a winner. */
+    private static final LongAdder games = new LongAdder();
+
+    /** Sessions resumed on a new connection. */
+    private static final LongAdder reconnects = new LongAdder();
+
+    /** Version gaps that needed a snapshot. */
+    private static final LongAdder resyncs = new LongAdder();
+
+    /**
+     * Entry point.
+     *
+     * @param args mode, tables, seconds, think time, chat rate, reconnect interval, target
+     * @throws Exception on connection or timing failures
+     */
+    public static void main(String[] args) throws Exception {
+        TransportMode mode = TransportMode.valueOf((args.length > 0 ? args[0] : "nio").toUpperCase());
+        int tables = args.length > 1 ? Integer.parseInt(args[1]) : 250;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        long thinkMillis = args.length > 3 ? Long.parseLong(args[3]) : 50;
+        int chatsPerMinute = args.length > 4 ? Integer.parseInt(args[4]) : 6;
+        int reconnectEvery = args.length > 5 ? Integer.parseInt(args[5]) : 1;
+        String target = args.length > 6 ? args[6] : null;
+
+        Server server = null;
+        String host = "localhost";
+        int port;
+        if (target == null) {
+            port = 20000 + (int) (Math.random() * 10000);
+            server = new Server(port, null, mode);
+            server.start();
+            Thread.sleep(300);
+        } else {
+            int colon = target.lastIndexOf(':');
+            host = target.substring(0, colon);
+            port = Integer.parseInt(target.substring(colon + 1));
+        }
+
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(threads, r -> {
+            Thread t = new Thread(r, "bots");
+            t.setDaemon(true);
+            return t;
+        });
+
+        List<Bot> bots = new ArrayList<>(tables * SEATS);
+        for (int t = 0; t < tables; t++) {
+            for (int seat = 0; seat < SEATS; seat++) {
+                Bot bot = new Bot("B" + t + "_" + seat, "L" + t, host, port, mode, scheduler, thinkMillis);
+                bots.add(bot);
+                bot.join();
+            }
+        }
+        if (chatsPerMinute > 0) {
+            long period = 60_000L / chatsPerMinute;
+            for (Bot bot : bots) {
+                long delay = ThreadLocalRandom.current().nextLong(period);
+                scheduler.scheduleAtFixedRate(bot::chat, delay, period, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (reconnectEvery > 0) {
+            scheduler.scheduleAtFixedRate(() -> bots.get(ThreadLocalRandom.current().nextInt(bots.size())).reconnect(),
+                    reconnectEvery, reconnectEvery, TimeUnit.SECONDS);
+        }
+
+        // Warm up, then measure from a clean slate
+        long warmupMillis = seconds * 1000L / 5;
+        Thread.sleep(warmupMillis);
+        echo = new LatencyHistogram();
+        long[] before = totals();
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000L - warmupMillis);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long[] after = totals();
+        LatencyHistogram measured = echo;
+        stopped = true;
+
+        long[] p = measured.percentiles(50, 99, 99.9);
+        System.out.printf("mode:            %s, %d tables, %d bots, think %d ms%n",
+                mode, tables, bots.size(), thinkMillis);
+        System.out.printf("moves:           %.0f/s (%d rejected)%n",
+                (after[0] - before[0]) / elapsed, after[1] - before[1]);
+        System.out.printf("chat:            %.0f sent/s, %.0f delivered/s%n",
+                (after[2] - before[2]) / elapsed, (after[3] - before[3]) / elapsed);
+        System.out.printf("received:        %.0f messages/s%n", (after[4] - before[4]) / elapsed);
+        System.out.printf("games finished:  %d, reconnects %d, resyncs %d%n",
+                after[5] - before[5], after[6] - before[6], after[7] - before[7]);
+        System.out.printf("move to result:  p50 %.2f ms, p99 %.2f ms, p999 %.2f ms, max %.2f ms (%d moves)%n",
+                p[0] / 1e6, p[1] / 1e6, p[2] / 1e6, measured.getMax() / 1e6, measured.getCount());
+        if (server != null) {
+            LatencyHistogram inside = server.getMetrics().getMoveLatency();
+            long[] q = inside.percentiles(50, 99, 99.9);
+            System.out.printf("server side:     p50 %.3f ms, p99 %.3f ms, p999 %.3f ms (arrival to result queued, whole run)%n",
+                    q[0] / 1e6, q[1] / 1e6, q[2] / 1e6);
+        }
+
+        for (Bot bot : bots) bot.leave();
+        if (server != null) server.stop();
+        System.exit(0);
+    }
+
+    /**
+     * Reads every counter at once.
+     *
+     * @return moves, rejected, chats sent, chats received, messages, games, reconnects, resyncs
+     */
+    private static long[] totals() {
+        return new long[] {moves.sum(), rejected.sum(), chatsSent.sum(), chatsReceived.sum(),
+                received.sum(), games.sum(), reconnects.sum(), resyncs.sum()};
+    }
+
+    /**
+     * One scripted player. Messages arrive on the client's connection thread and
+     * moves are sent from the scheduler after the think time, so the bot's state
+     * is guarded by its own monitor.
+     */
+    private static final class Bot implements NetworkHandler.MessageListener {
+
+        /** Player name, unique per table. */
+        private final String name;
+
+        /** Join code prefix; each new game appends its round. */
+        private final String table;
+
+        /** Server address. */
+        private final String host;
+
+        /** Server port. */
+        private final int port;
+
+        /** Transport for the bot's connection. */
+        private final TransportMode mode;
+
+        /** Runs think-time delays, chat and reconnects. */
+        private final ScheduledExecutorService scheduler;
+
+        /** Delay before each move. */
+        private final long thinkMillis;
+
+        /** Current connection. */
+        private Client client;
+
+        /** The bot's view of its game. */
+        private Game game = new Game();
+
+        /** Games this bot has sat down to. */
+        private int round;
+
+        /** System.nanoTime() the move in flight was sent, or 0 if none is. */
+        private long pendingSince;
+
+        /** True while a move is waiting out its think time. */
+        private boolean thinking;
+
+        /** True after playing an 8 until its suit has been chosen. */
+        private boolean mustChooseSuit;
+
+        /** True after a version gap until the snapshot arrives. */
+        private boolean awaitingSnapshot;
+
+        /** True between a game ending and the next JOIN. */
+        private boolean over;
+
+        /**
+         * Creates a bot.
+         *
+         * @param name        player name
+         * @param table       join code prefix shared with the other bots at the table
+         * @param host        server address
+         * @param port        server port
+         * @param mode        transport
+         * @param scheduler   shared scheduler
+         * @param thinkMillis delay before each move
+         */
+        Bot(String name, String table, String host, int port, TransportMode mode,
+            ScheduledExecutorService scheduler, long thinkMillis) {
+            this.name = name;
+            this.table = table;
+            this.host = host;
+            this.port = port;
+            this.mode = mode;
+            this.scheduler = scheduler;
+            this.thinkMillis = thinkMillis;
+        }
+
+        /**
+         * Connects and joins the table for the current round.
+         */
+        synchronized void join() {
+            client = new Client(host, port, mode);
+            client.connect(name, table + "r" + round, this);
+        }
+
+        /**
+         * Drops the connection and resumes the session on a new one. A move in
+         * flight is forgotten, since its result may come back only in a snapshot.
+         */
+        synchronized void reconnect() {
+            if (stopped || over) return;
+            pendingSince = 0;
+            if (client.reconnect()) {
+                reconnects.increment();
+                actIfMyTurn();
+            }
+        }
+
+        /**
+         * Sends one chat line to the table.
+         */
+        synchronized void chat() {
+            if (stopped || over) return;
+            client.send(Protocol.CHAT + Protocol.SEP + name + ": load test line " + chatsSent.sum());
+            chatsSent.increment();
+        }
+
+        /**
+         * Leaves the server.
+         */
+        synchronized void leave() {
+            over = true;
+            client.disconnect();
+        }
+
+        @Override
+        public synchronized void onMessageReceived(String message) {
+            received.increment();
+            if (over) return;
+
+            if (message.startsWith("START#") || message.startsWith("SYNC#")) {
+                StateCodec.parse(message.substring(message.indexOf('#') + 1), game);
+                return; // The version marker that follows decides when to act
+            }
+            String[] parts = Protocol.parse(message);
+            switch (parts[0]) {
+                case Protocol.DELTA:
+                    applyDelta(parts);
+                    break;
+                case Protocol.ERROR:
+                    if (pendingSince != 0) {
+                        rejected.increment();
+                        resolved();
+                    }
+                    resync(); // The view was stale; start over from a snapshot
+                    break;
+                case Protocol.CHAT:
+                    chatsReceived.increment();
+                    break;
+                case Protocol.DISCONNECT:
+                    if (message.endsWith(" won!")) nextGame(message.equals(Protocol.DISCONNECT + Protocol.SEP + name + " won!"));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * Applies a versioned delta to the view, completing the move in flight.
+         *
+         * @param parts the split DELTA message ("9#version#op#...")
+         */
+        private void applyDelta(String[] parts) {
+            if (parts.length < 3) return;
+            long version = Long.parseLong(parts[1]);
+            if (parts[2].equals(StateDelta.BASE)) {
+                game.setVersion(version);
+                awaitingSnapshot = false;
+                actIfMyTurn();
+                return;
+            }
+            if (awaitingSnapshot || version <= game.getVersion()) return;
+            if (version > game.getVersion() + 1 || !StateDelta.apply(game, parts, 2)) {
+                resync();
+                return;
+            }
+            game.setVersion(version);
+
+            int seat = game.getPlayerIndex(name);
+            if (parts[2].equals(StateDelta.PLAY) && Integer.parseInt(parts[3]) == seat) {
+                Card played = game.getTopCard();
+                mustChooseSuit = played.getRankCode() == Card.EIGHT && !game.getPlayers().get(seat).getCards().isEmpty();
+            }
+            if (pendingSince != 0) resolved();
+            actIfMyTurn();
+        }
+
+        /**
+         * Asks for a snapshot after a gap or a rejected move.
+         */
+        private void resync() {
+            if (awaitingSnapshot) return;
+            awaitingSnapshot = true;
+            mustChooseSuit = false;
+            resyncs.increment();
+            client.send(Protocol.format(Protocol.RESYNC, name));
+        }
+
+        /**
+         * Records the time since the move in flight was sent.
+         */
+        private void resolved() {
+            echo.record(System.nanoTime() - pendingSince);
+            pendingSince = 0;
+        }
+
+        /**
+         * Schedules a move after the think time if it is this bot's turn and
+         * nothing is already in flight.
+         */
+        private void actIfMyTurn() {
+            if (stopped || over || thinking || pendingSince != 0 || awaitingSnapshot) return;
+            int seat = game.getPlayerIndex(name);
+            if (seat < 0 || game.getCurrentTurnIndex() != seat) return;
+            thinking = true;
+            scheduler.schedule(this::act, thinkMillis, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Sends the move chosen from the current view: a suit after an 8, the
+         * first playable card, or a draw.
+         */
+        private synchronized void act() {
+            thinking = false;
+            if (over || pendingSince != 0 || awaitingSnapshot) return;
+            int seat = game.getPlayerIndex(name);
+            if (seat < 0 || game.getCurrentTurnIndex() != seat) return;
+
+            Player me = game.getPlayers().get(seat);
+            String move;
+            if (mustChooseSuit) {
+                mustChooseSuit = false;
+                move = Protocol.format(Protocol.SUIT, String.valueOf(Card.SUITS.charAt(longestSuit(me.getCards()))));
+            } else {
+                long playable = me.getCards().playable(game.getTopCard());
+                move = playable != 0
+                        ? Protocol.format(Protocol.MOVE, Protocol.PLAY_CARD, Hand.first(playable).toString())
+                        : Protocol.format(Protocol.MOVE, Protocol.DRAW_CARD);
+            }
+            pendingSince = System.nanoTime();
+            moves.increment();
+            client.send(move);
+        }
+
+        /**
+         * Finds the suit the bot holds most cards of.
+         *
+         * @param hand the bot's hand
+         * @return suit code
+         */
+        private static int longestSuit(Hand hand) {
+            int best = 0;
+            int bestCount = -1;
+            for (int suit = 0; suit < Card.SUITS.length(); suit++) {
+                int count = hand.countBySuit(suit);
+                if (count > bestCount) {
+                    best = suit;
+                    bestCount = count;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Leaves the finished table and sits down at the next one with the same bots.
+         *
+         * @param won true if this bot won (so each game is counted once)
+         */
+        private void nextGame(boolean won) {
+            if (won) games.increment();
+            over = true;
+            pendingSince = 0;
+            if (stopped) return;
+            Client old = client;
+            scheduler.execute(() -> {
+                old.disconnect();
+                synchronized (this) {
+                    round++;
+                    game = new Game();
+                    mustChooseSuit = false;
+                    awaitingSnapshot = false;
+                    over = false;
+                    join();
+                }
+            });
+        }
+    }
+}
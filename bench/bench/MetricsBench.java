@@ -0,0 +1,122 @@
+package bench;
+
+import network.LatencyHistogram;
+import network.Server;
+import network.ServerMonitor;
+import network.TransportMode;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures what the server metrics cost on the hot path: a counter
+ * increment, a System.nanoTime() pair, a histogram record, and rendering the
+ * /metrics page. Then records from several threads at once into one striped
+ * LatencyHistogram and into a single unstriped bucket array, to show what the
+ * stripes save when every room mailbox records on its own core.
+ *
+ * Usage: java -cp bin;benchbin bench.MetricsBench [threads] [filter]
+ */
+public class MetricsBench {
+
+    /** Records per thread in the contended runs. */
+    private static final int RECORDS = 5_000_000;
+
+    /** Bucket the unstriped run increments (where 1234 ns lands in the histogram). */
+    private static final int BUCKET = 130;
+
+    /**
+     * Entry point.
+     *
+     * @param args thread count for the contended runs, benchmark name filter
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        Harness harness = new Harness(args.length > 1 ? args[1] : "");
+
+        LongAdder adder = new LongAdder();
+        harness.run("counter increment", () -> {
+            adder.increment();
+            return 1;
+        });
+        harness.run("nanoTime pair", () -> (int) (System.nanoTime() - System.nanoTime()));
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] value = {1};
+        harness.run("histogram record", () -> {
+            value[0] = value[0] * 6364136223846793005L + 1442695040888963407L;
+            histogram.record((value[0] >>> 44) + 1000); // ~1 us .. 1 ms
+            return 1;
+        });
+        harness.run("timed section (nanoTime + record)", () -> {
+            long start = System.nanoTime();
+            histogram.record(System.nanoTime() - start);
+            return 1;
+        });
+        harness.run("histogram p50/p99/p999", () -> (int) histogram.percentiles(50, 99, 99.9)[2]);
+
+        Server server = new Server(0, null, TransportMode.NIO);
+        for (int i = 0; i < 100_000; i++) {
+            server.getMetrics().getMoveLatency().record(20_000 + i);
+            server.getMetrics().getFanout().record(2_000 + i % 1000);
+        }
+        ServerMonitor monitor = new ServerMonitor(server);
+        harness.run("render /metrics", () -> monitor.render().length());
+
+        System.out.println();
+        System.out.printf("%-44s %12s%n", "contended record, " + threads + " threads", "ns/record");
+        LatencyHistogram shared = new LatencyHistogram();
+        System.out.printf("%-44s %12.1f%n", "striped LatencyHistogram",
+                contended(threads, () -> shared.record(1234)));
+        AtomicLongArray single = new AtomicLongArray(976);
+        System.out.printf("%-44s %12.1f%n", "single bucket array",
+                contended(threads, () -> single.incrementAndGet(BUCKET)));
+    }
+
+    /**
+     * Runs the same record operation on several threads at once.
+     *
+     * @param threads number of threads
+     * @param record  one record
+     * @return wall-clock nanoseconds per record, per thread
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static double contended(int threads, Runnable record) throws InterruptedException {
+        round(threads, record); // Warm-up
+        round(threads, record);
+        return round(threads, record);
+    }
+
+    /**
+     * Runs one timed round of the contended records.
+     *
+     * @param threads number of threads
+     * @param record  one record
+     * @return wall-clock nanoseconds per record, per thread
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static double round(int threads, Runnable record) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < RECORDS; i++) record.run();
+            });
+            workers[t].start();
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        for (Thread worker : workers) worker.join();
+        return (double) (System.nanoTime() - start) / RECORDS;
+    }
+}
@@ -0,0 +1,127 @@
+package bench;
+
+import model.Card;
+import model.Deck;
+import model.Game;
+import model.Player;
+import view.GameView;
+
+import javax.swing.SwingUtilities;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures what GameView updates cost headless, on the EDT as in the client.
+ * Each frame is one move: the viewer plays a card onto the pile and the next
+ * player draws, then both are taken back. A frame renders the new state and
+ * validates the view (so only what was invalidated is laid out again); the
+ * paint of the whole table is timed separately. Reports time and bytes
+ * allocated per frame, the frame rate update and paint together would
+ * allow, and heap in use afterwards, for four seats at the opening deal and
+ * with hands grown by drawing, and for eight seats with over a hundred
+ * cards on the table (the viewer's own cards face up, the others face down).
+ *
+ * Run from the project root so Assets/ and the message bundles resolve:
+ * java -Djava.awt.headless=true -cp bin;benchbin;src;. bench.RenderBench [frames]
+ */
+public class RenderBench {
+
+    /** Size of the window the view is laid out in. */
+    private static final int WIDTH = 1000, HEIGHT = 700;
+
+    /** Players seated, in turn order. */
+    private static final List<String> NAMES = List.of("Alice", "Bob", "Carol", "Dave", "Erin", "Frank", "Grace", "Heidi");
+
+    /** Top card before the last card played (EDT). */
+    private static Card underneath;
+
+    /**
+     * Entry point.
+     *
+     * @param args frames per measurement (default 500)
+     * @throws Exception if the benchmark fails on the EDT
+     */
+    public static void main(String[] args) throws Exception {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        SwingUtilities.invokeAndWait(() -> run(frames));
+    }
+
+    /**
+     * Runs the measurements (EDT).
+     *
+     * @param frames frames per measurement
+     */
+    private static void run(int frames) {
+        GameView view = new GameView();
+        view.setAnimated(false); // Table updates alone; AnimationBench times cards in flight
+        view.setSize(WIDTH, HEIGHT);
+        view.addNotify(); // A lightweight peer, so validate() works without a window
+        BufferedImage screen = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+
+        System.out.printf("%-22s %12s %12s %12s %8s %10s%n", "table", "update us", "KB/update", "paint us", "fps", "heap MB");
+        for (int[] table : new int[][] {{4, 12}, {4, 25}, {4, 50}, {8, 13}, {8, 25}}) {
+            int seats = table[0], handSize = table[1];
+            Deck deck = new Deck(7);
+            Card top = deck.drawCard();
+            List<Player> players = new ArrayList<>();
+            for (String name : NAMES.subList(0, seats)) {
+                Player p = new Player(name);
+                if (players.isEmpty()) p.addCards(deck.deal(handSize));
+                else p.addHiddenCards(handSize);
+                players.add(p);
+            }
+            Game game = new Game(players, deck, top);
+
+            for (int i = 0; i < frames / 5 + 2; i++) update(view, game, i); // Warm up
+            long allocated = CardBench.allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < frames; i++) update(view, game, i);
+            long nanos = System.nanoTime() - start;
+            allocated = CardBench.allocatedBytes() - allocated;
+
+            long paintStart = System.nanoTime();
+            for (int i = 0; i < frames; i++) {
+                Graphics2D g = screen.createGraphics();
+                view.paint(g);
+                g.dispose();
+            }
+            long paintNanos = System.nanoTime() - paintStart;
+
+            System.gc();
+            long heap = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+            System.out.printf("%-22s %12.1f %12.1f %12.1f %8.0f %10.1f%n", seats + " seats, " + seats * handSize + " cards",
+                    nanos / 1e3 / frames, allocated / 1024.0 / frames, paintNanos / 1e3 / frames,
+                    1e9 * frames / (nanos + paintNanos), heap / 1048576.0);
+        }
+    }
+
+    /**
+     * Applies one move (or takes it back) and updates the view (EDT).
+     *
+     * @param view  the view
+     * @param game  the game to show
+     * @param frame frame number; even frames play, odd frames take back
+     */
+    private static void update(GameView view, Game game, int frame) {
+        Player you = game.getPlayers().get(0);
+        Player next = game.getPlayers().get(1);
+        int count = next.getCardCount();
+        if (frame % 2 == 0) {
+            Card played = you.getHand().get(you.getCardCount() - 1);
+            you.removeCard(played);
+            underneath = game.getTopCard();
+            game.setTopCard(played);
+            next.clearHand();
+            next.addHiddenCards(count + 1);
+        } else {
+            you.addCard(game.getTopCard());
+            game.setTopCard(underneath);
+            next.clearHand();
+            next.addHiddenCards(count - 1);
+        }
+        view.render(game, "Alice");
+        view.validate();
+    }
+}
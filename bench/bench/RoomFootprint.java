@@ -0,0 +1,75 @@
+package bench;
+
+import network.Lobby;
+import network.Room;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the memory and CPU cost of hosting many rooms in one server process.
+ * Creates the requested number of tables through the Lobby, deals a game in each,
+ * and reports retained heap and setup time per room.
+ *
+ * Usage: java -cp bin;benchbin bench.RoomFootprint [rooms]
+ */
+public class RoomFootprint {
+
+    /**
+     * Entry point.
+     *
+     * @param args optional room count (default 20000)
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        List<String> names = List.of("Alice", "Bob", "Carol", "Dave");
+
+        // Warm up the allocation and dealing paths before measuring
+        Lobby warmup = new Lobby();
+        for (int i = 0; i < 2_000; i++) {
+            warmup.createRoom().startGame(names).join();
+        }
+        warmup = null;
+
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+
+        Lobby lobby = new Lobby();
+        List<Room> rooms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Room room = lobby.createRoom();
+            room.startGame(names).join();
+            rooms.add(room);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long heapAfter = usedHeap();
+
+        System.out.printf("rooms:          %d%n", lobby.getRoomCount());
+        System.out.printf("setup time:     %.1f ms (%.2f us/room)%n",
+                elapsed / 1e6, elapsed / 1e3 / count);
+        System.out.printf("retained heap:  %.1f MB (%d bytes/room)%n",
+                (heapAfter - heapBefore) / 1048576.0, (heapAfter - heapBefore) / count);
+
+        // Keep the rooms reachable until after the heap was measured
+        if (rooms.size() != count) throw new IllegalStateException();
+    }
+
+    /**
+     * Returns used heap after requesting a full collection.
+     *
+     * @return used heap in bytes
+     */
+    static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,56 @@
+package bench;
+
+import sim.BasicStrategy;
+import sim.SimResult;
+import sim.Simulator;
+import sim.Strategy;
+
+/**
+ * Runs the headless simulator and reports games per second per core,
+ * bytes allocated per game, and win rates of the built-in strategies.
+ *
+ * Usage: java -cp bin;benchbin bench.SimBench [games] [threads]
+ */
+public class SimBench {
+
+    /**
+     * Entry point.
+     *
+     * @param args optional game count (default 2,000,000) and thread count (default all cores)
+     */
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 2_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        Strategy[][] tables = {
+            {BasicStrategy.RANDOM, BasicStrategy.RANDOM, BasicStrategy.RANDOM, BasicStrategy.RANDOM},
+            {BasicStrategy.GREEDY, BasicStrategy.RANDOM, BasicStrategy.FIRST, BasicStrategy.RANDOM},
+            {BasicStrategy.GREEDY, BasicStrategy.RANDOM},
+        };
+
+        for (Strategy[] seats : tables) {
+            Simulator simulator = new Simulator(12, seats);
+            simulator.runOnCallingThread(games / 10, 1); // Warm up
+
+            long before = CardBench.allocatedBytes();
+            SimResult single = simulator.runOnCallingThread(games / 4, 2);
+            double bytesPerGame = (double) (CardBench.allocatedBytes() - before) / single.getGames();
+
+            SimResult parallel = simulator.run(games, 3, threads);
+
+            StringBuilder names = new StringBuilder();
+            for (Strategy s : seats) names.append(names.length() > 0 ? " vs " : "").append(s);
+            System.out.println(names);
+            System.out.printf("  1 thread:   %,12.0f games/s, %.1f B/game allocated%n",
+                    single.getGamesPerSecond(), bytesPerGame);
+            System.out.printf("  %d threads: %,12.0f games/s (%,.0f games/s/core), %.1f cards/game, %.2f%% blocked%n",
+                    parallel.getThreads(), parallel.getGamesPerSecond(), parallel.getGamesPerSecondPerCore(),
+                    parallel.getTurnsPerGame(), 100.0 * parallel.getBlocked() / parallel.getGames());
+            System.out.print("  win rate:  ");
+            for (int seat = 0; seat < seats.length; seat++) {
+                System.out.printf(" %s %.1f%%", seats[seat], 100.0 * parallel.getWins(seat) / parallel.getGames());
+            }
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package bench;
+
+import network.Client;
+import network.OutboundStats;
+import network.Server;
+import network.TransportMode;
+
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seats three live clients and one that joins and then never reads, and
+ * streams chat to the table with a bounded number of lines in flight.
+ * Reports how quickly the live seats receive every line, and what the stalled
+ * seat's outbound queue gave up under the configured slow consumer policy
+ * (-Dcrazyeights.slow.policy). Before per-connection queues the stalled
+ * seat blocked the room once its socket buffer filled.
+ *
+ * Usage: java -cp bin;benchbin bench.SlowConsumer [blocking|nio] [messages] [lineBytes]
+ */
+public class SlowConsumer {
+
+    /** Chat lines allowed in flight before the sender waits for the live seats. */
+    private static final int WINDOW = 64;
+
+    /**
+     * Entry point.
+     *
+     * @param args mode, chat lines to send, bytes per line
+     * @throws Exception on connection or timing failures
+     */
+    public static void main(String[] args) throws Exception {
+        TransportMode mode = TransportMode.valueOf((args.length > 0 ? args[0] : "blocking").toUpperCase());
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int lineBytes = args.length > 2 ? Integer.parseInt(args[2]) : 1024;
+        int port = 20000 + (int) (Math.random() * 10000);
+
+        Server server = new Server(port, null, mode);
+        server.start();
+        Thread.sleep(300);
+
+        long expected = 3L * messages; // Every line reaches the three live seats
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicLong received = new AtomicLong();
+
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Client client = new Client("localhost", port, mode);
+            client.connect("P" + i, "SLOW", message -> {
+                if (message.startsWith("3#") && received.incrementAndGet() == expected) {
+                    done.countDown();
+                }
+            });
+            clients.add(client);
+        }
+
+        // The fourth seat joins in text mode and never reads again
+        Socket stalled = new Socket("localhost", port);
+        stalled.setReceiveBufferSize(4096);
+        OutputStream out = stalled.getOutputStream();
+        out.write("JOIN#Stalled#SLOW\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        Thread.sleep(500);
+
+        String padding = "x".repeat(Math.max(0, lineBytes - 16));
+        long start = System.nanoTime();
+        for (int m = 0; m < messages; m++) {
+            while (m - received.get() / 3 > WINDOW) {
+                Thread.onSpinWait(); // Live seats read at their own pace
+            }
+            clients.get(m % 3).send("3#P" + (m % 3) + ": " + m + " " + padding);
+        }
+        boolean finished = done.await(30, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+
+        OutboundStats stats = server.getOutboundStats();
+        System.out.printf("mode:            %s%n", mode);
+        System.out.printf("delivered:       %d / %d%s%n", received.get(), expected, finished ? "" : " (timed out)");
+        System.out.printf("elapsed:         %.0f ms (%.0f msgs/s to live seats)%n", elapsed / 1e6, received.get() / (elapsed / 1e9));
+        System.out.printf("queued now:      %d%n", server.getQueuedMessages());
+        System.out.printf("chat dropped:    %d%n", stats.getDroppedChat());
+        System.out.printf("state collapsed: %d%n", stats.getCollapsedState());
+        System.out.printf("disconnected:    %d%n", stats.getDisconnects());
+
+        stalled.close();
+        server.stop();
+        System.exit(0);
+    }
+}
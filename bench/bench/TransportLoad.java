@@ -0,0 +1,79 @@
+package bench;
+
+import network.Client;
+import network.Server;
+import network.TransportMode;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares server transports under load in a single JVM.
+ * Starts a Server in the chosen mode, connects N NIO clients in rooms of four,
+ * has every client send chat messages and reports delivered messages per second
+ * together with the number of live threads.
+ *
+ * Usage: java -cp bin;benchbin bench.TransportLoad [blocking|nio] [connections] [messagesPerClient]
+ */
+public class TransportLoad {
+
+    /**
+     * Entry point.
+     *
+     * @param args mode, connection count, messages per client
+     * @throws Exception on connection or timing failures
+     */
+    public static void main(String[] args) throws Exception {
+        TransportMode mode = TransportMode.valueOf((args.length > 0 ? args[0] : "nio").toUpperCase());
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int messages = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        connections -= connections % 4; // Whole tables only
+        int port = 20000 + (int) (Math.random() * 10000);
+
+        int baseThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+        Server server = new Server(port, null, mode);
+        server.start();
+        Thread.sleep(300);
+
+        long expected = (long) connections * messages * 4; // Every chat reaches four seats
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicLong received = new AtomicLong();
+
+        List<Client> clients = new ArrayList<>(connections);
+        long connectStart = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            Client client = new Client("localhost", port, TransportMode.NIO);
+            client.connect("P" + i, "T" + (i / 4), message -> {
+                if (message.startsWith("3#") && received.incrementAndGet() == expected) {
+                    done.countDown();
+                }
+            });
+            clients.add(client);
+        }
+        long connectNanos = System.nanoTime() - connectStart;
+        Thread.sleep(500); // Let every table deal before the chat storm
+
+        int loadedThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+        long start = System.nanoTime();
+        for (int m = 0; m < messages; m++) {
+            for (int i = 0; i < connections; i++) {
+                clients.get(i).send("3#P" + i + ": message " + m);
+            }
+        }
+        boolean finished = done.await(120, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("mode:            %s%n", mode);
+        System.out.printf("connections:     %d (connected in %.0f ms)%n", connections, connectNanos / 1e6);
+        System.out.printf("threads:         %d (baseline %d)%n", loadedThreads, baseThreads);
+        System.out.printf("delivered:       %d / %d%s%n", received.get(), expected, finished ? "" : " (timed out)");
+        System.out.printf("throughput:      %.0f msgs/s%n", received.get() / (elapsed / 1e9));
+
+        server.stop();
+        System.exit(0);
+    }
+}
@@ -0,0 +1,142 @@
+package bench;
+
+import model.Game;
+import network.Protocol;
+import network.StateCodec;
+import network.StateDelta;
+import view.FrameScheduler;
+import view.GameView;
+
+import javax.swing.SwingUtilities;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Measures what bursts of game messages cost the EDT, headless. A feeder
+ * thread plays the network thread: it applies each DELTA of a burst to its
+ * own game and hands a snapshot to the view, either with one invokeLater
+ * render per message (as GameController did) or through a FrameScheduler
+ * that renders the newest snapshot at most once per frame. Reports renders
+ * and EDT time per burst, and the time from the start of a burst until its
+ * last state is on screen.
+ *
+ * Run from the project root so Assets/ and the message bundles resolve:
+ * java -Djava.awt.headless=true -cp bin;benchbin;src;. bench.UpdateBurstBench [bursts]
+ */
+public class UpdateBurstBench {
+
+    /** Pause between bursts, long enough for the view to settle. */
+    private static final int GAP_MILLIS = 40;
+
+    /** Viewer's name. */
+    private static final String YOU = "Alice";
+
+    /** View rendered into (EDT). */
+    private static GameView view;
+
+    /** Renders so far and EDT nanoseconds spent rendering. */
+    private static volatile long renders, renderNanos;
+
+    /** Version of the last snapshot rendered, and when its render ended. */
+    private static volatile long shownVersion, shownAt;
+
+    /**
+     * Entry point.
+     *
+     * @param args bursts per measurement (default 50)
+     * @throws Exception if the EDT fails
+     */
+    public static void main(String[] args) throws Exception {
+        int bursts = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        SwingUtilities.invokeAndWait(() -> {
+            view = new GameView();
+            view.setSize(1000, 700);
+            view.addNotify(); // A lightweight peer, so validate() works without a window
+        });
+
+        Game server = new Game(List.of(YOU, "Bob", "Carol", "Dave"), 7);
+        String start = StateCodec.format("START#", server, 0).substring("START#".length());
+        FrameScheduler<Game> frames = new FrameScheduler<>(UpdateBurstBench::render);
+
+        System.out.printf("%-10s %-14s %12s %12s %14s%n", "burst", "delivery", "renders", "EDT ms", "last shown ms");
+        for (int burst : new int[] {1, 4, 16, 64}) {
+            run(burst, bursts / 5 + 1, start, UpdateBurstBench::renderLater); // Warm up
+            run(burst, bursts / 5 + 1, start, frames::post);
+            print(burst, "invokeLater", bursts, run(burst, bursts, start, UpdateBurstBench::renderLater));
+            print(burst, "FrameScheduler", bursts, run(burst, bursts, start, frames::post));
+        }
+    }
+
+    /**
+     * Feeds bursts of deltas, each starting from the dealt game.
+     *
+     * @param burst    messages per burst
+     * @param bursts   number of bursts
+     * @param start    START snapshot data for the viewer
+     * @param delivery hands a snapshot to the view
+     * @return renders, EDT nanoseconds and summed nanoseconds until each burst was shown
+     * @throws InterruptedException if interrupted while waiting for the view
+     */
+    private static long[] run(int burst, int bursts, String start, Consumer<Game> delivery)
+            throws InterruptedException {
+        Game game = new Game();
+        long rendersBefore = renders, nanosBefore = renderNanos, latency = 0;
+        for (int b = 0; b < bursts; b++) {
+            StateCodec.parse(start, game);
+            game.setVersion(0);
+
+            long begin = System.nanoTime();
+            for (int k = 0; k < burst; k++) {
+                int seat = 1 + k % 3;
+                String op = k % 2 == 0 ? StateDelta.hiddenDraw(seat, 1) : StateDelta.turn(seat);
+                String[] parts = Protocol.parse(StateDelta.stamp(game.getVersion() + 1, op));
+                StateDelta.apply(game, parts, 2);
+                game.setVersion(game.getVersion() + 1);
+                delivery.accept(game.copy());
+            }
+            while (shownVersion != burst) Thread.sleep(0, 100_000);
+            latency += shownAt - begin;
+            shownVersion = -1;
+            Thread.sleep(GAP_MILLIS);
+        }
+        return new long[] {renders - rendersBefore, renderNanos - nanosBefore, latency};
+    }
+
+    /**
+     * Renders a snapshot later on the EDT, one render per call.
+     *
+     * @param snapshot the snapshot
+     */
+    private static void renderLater(Game snapshot) {
+        SwingUtilities.invokeLater(() -> render(snapshot));
+    }
+
+    /**
+     * Renders a snapshot and lays out what changed (EDT).
+     *
+     * @param snapshot the snapshot
+     */
+    private static void render(Game snapshot) {
+        long begin = System.nanoTime();
+        view.render(snapshot, YOU);
+        view.validate();
+        long end = System.nanoTime();
+        renderNanos += end - begin;
+        renders++;
+        shownAt = end;
+        shownVersion = snapshot.getVersion();
+    }
+
+    /**
+     * Prints one row of results.
+     *
+     * @param burst    messages per burst
+     * @param delivery name of the delivery
+     * @param bursts   number of bursts
+     * @param result   renders, EDT nanoseconds and latency nanoseconds
+     */
+    private static void print(int burst, String delivery, int bursts, long[] result) {
+        System.out.printf("%-10d %-14s %12.1f %12.3f %14.2f%n", burst, delivery, (double) result[0] / bursts,
+                result[1] / 1e6 / bursts, result[2] / 1e6 / bursts);
+    }
+}
@@ -0,0 +1,119 @@
+package bench;
+
+import network.BinaryProtocol;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntSupplier;
+
+/**
+ * Compares the text protocol with BinaryProtocol frames.
+ * Reports bytes per message and encode/decode throughput for typical
+ * START/SYNC state messages and a chat line.
+ *
+ * Usage: java -cp bin;benchbin bench.WireFormatBench
+ */
+public class WireFormatBench {
+
+    /** Rank characters used to build sample hands. */
+    private static final String RANKS = "A23456789" + "1JQK";
+
+    /** Suit characters used to build sample hands. */
+    private static final String SUITS = "hdcs";
+
+    /**
+     * Entry point.
+     *
+     * @param args unused
+     * @throws ProtocolException if a frame fails to decode
+     */
+    public static void main(String[] args) throws ProtocolException {
+        String[][] samples = {
+            {"chat", "3#Alice: good game everyone"},
+            {"START 4p x 12", state("START#", 4, 12)},
+            {"SYNC 4p x 30", state("SYNC#", 4, 30)},
+            {"SYNC 8p x 50", state("SYNC#", 8, 50)},
+        };
+
+        System.out.printf("%-15s %10s %10s %8s %14s %14s %14s %14s%n",
+                "message", "text B", "binary B", "ratio",
+                "text enc/s", "bin enc/s", "text dec/s", "bin dec/s");
+
+        for (String[] sample : samples) {
+            String message = sample[1];
+            byte[] text = (message + "\n").getBytes(StandardCharsets.UTF_8);
+
+            ByteBuffer frame = ByteBuffer.allocate(BinaryProtocol.maxEncodedSize(message));
+            BinaryProtocol.encode(message, frame);
+            frame.flip();
+            int frameBytes = frame.limit();
+            if (!message.equals(BinaryProtocol.decode(frame.duplicate()))) {
+                throw new IllegalStateException("Round trip failed for " + sample[0]);
+            }
+
+            double textEncode = rate(() -> (message + "\n").getBytes(StandardCharsets.UTF_8).length);
+            double binEncode = rate(() -> {
+                frame.clear();
+                BinaryProtocol.encode(message, frame);
+                return frame.position();
+            });
+            double textDecode = rate(() -> new String(text, 0, text.length - 1, StandardCharsets.UTF_8).length());
+            frame.clear();
+            BinaryProtocol.encode(message, frame);
+            frame.flip();
+            double binDecode = rate(() -> {
+                frame.rewind();
+                try {
+                    return BinaryProtocol.decode(frame).length();
+                } catch (ProtocolException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            System.out.printf("%-15s %10d %10d %7.2fx %14.0f %14.0f %14.0f %14.0f%n",
+                    sample[0], text.length, frameBytes, (double) text.length / frameBytes,
+                    textEncode, binEncode, textDecode, binDecode);
+        }
+    }
+
+    /**
+     * Builds a state message with the given number of players and cards each.
+     *
+     * @param prefix  "START#" or "SYNC#"
+     * @param players number of players
+     * @param cards   cards per player
+     * @return text state message
+     */
+    static String state(String prefix, int players, int cards) {
+        StringBuilder sb = new StringBuilder(prefix).append("8s|TURN:1|");
+        int n = 0;
+        for (int p = 0; p < players; p++) {
+            sb.append("Player").append(p).append(':');
+            for (int c = 0; c < cards; c++, n++) {
+                sb.append(RANKS.charAt(n % 13)).append(SUITS.charAt((n / 13) % 4)).append(',');
+            }
+            sb.append(';');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Measures operations per second of a task after a warm-up.
+     *
+     * @param op the operation (returns a value to keep the JIT honest)
+     * @return operations per second
+     */
+    static double rate(IntSupplier op) {
+        long sink = 0;
+        for (int i = 0; i < 200_000; i++) sink += op.getAsInt();
+
+        int iterations = 1_000_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) sink += op.getAsInt();
+        long elapsed = System.nanoTime() - start;
+
+        if (sink == 42) System.out.print(""); // Consume the result
+        return iterations / (elapsed / 1e9);
+    }
+}
@@ -3,6 +3,9 @@ package controller;
 import model.*;
 import network.Client;
 import network.Protocol;
+import network.StateCodec;
+import network.StateDelta;
+import view.FrameScheduler;
 import view.GameView;
 
 import javax.swing.*;
@@ -13,14 +16,27 @@ import javax.swing.*;
  * <p>
  * It listens for UI actions, processes player moves, manages synchronization
  * between clients, and updates the view accordingly.
+ * <p>
+ * The game model belongs to the network thread, which parses every START,
+ * SYNC and DELTA message into it. After each change it posts a copy of the
+ * game to a FrameScheduler, and the view renders the newest copy at most
+ * once per frame, so a burst of messages costs one render and the EDT never
+ * reads a game that is being changed. UI actions check moves against the
+ * copy on screen.
  *
  * @author YourName
  */
 public class GameController {
 
-    /** The local game state model */
+    /** The local game state model (network thread) */
     private final Game game;
 
+    /** Renders the newest game snapshot once per frame */
+    private final FrameScheduler<Game> frames = new FrameScheduler<>(this::show);
+
+    /** Snapshot of the game on screen, or null before the first one (EDT) */
+    private Game shown;
+
     /** The UI component that displays the game */
     private final GameView view;
 
@@ -30,6 +46,9 @@ public class GameController {
     /** The name of the current local player */
     private final String playerName;
 
+    /** Set after a version gap or a resumed connection until the requested snapshot arrives */
+    private boolean awaitingSnapshot;
+
     /**
      * Constructs the GameController and initializes UI event listeners.
      *
@@ -45,6 +64,19 @@ public class GameController {
         this.playerName = playerName;
 
         initListeners(); // Setup UI callbacks
+        client.setReconnectListener(new Client.ReconnectListener() {
+            @Override
+            public void resumed() {
+                // The catch-up may have been a replay; a snapshot makes sure nothing was missed
+                awaitingSnapshot = true;
+                client.send(Protocol.format(Protocol.RESYNC, playerName));
+            }
+
+            @Override
+            public void lost() {
+                SwingUtilities.invokeLater(() -> view.updateStatus("Connection lost"));
+            }
+        });
     }
 
     /**
@@ -53,61 +85,24 @@ public class GameController {
     private void initListeners() {
         // Card click listener
         view.setCardClickListener(card -> {
+            if (shown == null) return;
             if (!isYourTurn()) {
                 JOptionPane.showMessageDialog(view, "Not your turn!");
                 return;
             }
 
-            if (!card.matches(game.getTopCard()) && !card.getRank().equals("8")) {
+            if (!card.matches(shown.getTopCard()) && !card.getRank().equals("8")) {
                 JOptionPane.showMessageDialog(view, "Invalid card.");
                 return;
             }
 
-            game.getPlayer(playerName).removeCard(card);
-            game.setTopCard(card);
-
-            // Handle wild card (8)
-            if (card.getRank().equals("8")) {
-                String[] suits = {"h", "d", "c", "s"};
-                String chosenSuit = (String) JOptionPane.showInputDialog(
-                        view,
-                        MenuSystem.getMessages().getString("label.change_suit"),
-                        "Wild Card",
-                        JOptionPane.PLAIN_MESSAGE,
-                        null,
-                        suits,
-                        "h"
-                );
-                if (chosenSuit != null) {
-                    game.setTopCard(new Card("8", chosenSuit));
-                    client.send(Protocol.TURN + Protocol.SEP + "SUIT:" + chosenSuit);
-                }
-            }
-
-            if (game.getPlayer(playerName).getHand().isEmpty()) {
-                client.send(Protocol.DISCONNECT + Protocol.SEP + playerName + " won!");
-                JOptionPane.showMessageDialog(view, "You won!");
-            }
-
-            game.nextTurn();
-            syncGameState();
+            sendPlay(card);
         });
 
         // Draw card listener
         view.setDrawListener(() -> {
-            if (!isYourTurn()) return;
-
-            Card drawn;
-            do {
-                drawn = game.getDeck().drawCard();
-                if (drawn == null) {
-                    JOptionPane.showMessageDialog(view, "Deck is empty.");
-                    return;
-                }
-                game.getPlayer(playerName).addCard(drawn);
-            } while (!drawn.matches(game.getTopCard()));
-
-            syncGameState();
+            if (shown == null || !isYourTurn()) return;
+            client.send(Protocol.format(Protocol.MOVE, Protocol.DRAW_CARD));
         });
 
         // Chat message listener
@@ -116,12 +111,48 @@ public class GameController {
     }
 
     /**
-     * Checks if it is currently this player's turn.
+     * Asks the player which suit a played 8 should take.
+     *
+     * @return chosen suit letter, or null if the dialog was cancelled
+     */
+    private String chooseSuit() {
+        String[] suits = {"h", "d", "c", "s"};
+        return (String) JOptionPane.showInputDialog(
+                view,
+                MenuSystem.getMessages().getString("label.change_suit"),
+                "Wild Card",
+                JOptionPane.PLAIN_MESSAGE,
+                null,
+                suits,
+                "h"
+        );
+    }
+
+    /**
+     * Asks the server to play a card, followed by the suit choice for an 8.
+     * The local game changes only when the server sends back the resulting deltas;
+     * a rejected move comes back as an ERROR message.
+     *
+     * @param card the card played
+     */
+    private void sendPlay(Card card) {
+        boolean lastCard = shown.getPlayer(playerName).getHand().size() == 1;
+
+        client.send(Protocol.format(Protocol.MOVE, Protocol.PLAY_CARD, card.toString()));
+
+        if (card.getRank().equals("8") && !lastCard) {
+            String chosenSuit = chooseSuit();
+            client.send(Protocol.format(Protocol.SUIT, chosenSuit != null ? chosenSuit : card.getSuit()));
+        }
+    }
+
+    /**
+     * Checks if it is this player's turn in the game on screen.
      *
      * @return true if it's this player's turn
      */
     private boolean isYourTurn() {
-        return game.getCurrentPlayer().getName().equals(playerName);
+        return shown.getCurrentPlayer().getName().equals(playerName);
     }
 
     /**
@@ -140,12 +171,8 @@ public class GameController {
                 SwingUtilities.invokeLater(() -> view.appendChat(parts[1]));
                 break;
 
-            case Protocol.TURN:
-                if (parts[1].startsWith("SUIT:")) {
-                    String suit = parts[1].substring(5);
-                    game.setTopCard(new Card("8", suit));
-                    updateUI();
-                }
+            case Protocol.ERROR:
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(view, parts[1]));
                 break;
 
             case Protocol.DISCONNECT:
@@ -159,30 +186,15 @@ public class GameController {
                 updateUI();
                 break;
 
+            case Protocol.DELTA:
+                applyDelta(Protocol.parse(message));
+                break;
+
             default:
                 System.err.println("Unhandled protocol: " + parts[0]);
         }
     }
 
-    /**
-     * Builds and sends the full game state to the server for synchronization.
-     */
-    private void syncGameState() {
-        StringBuilder sync = new StringBuilder("SYNC#");
-        sync.append(game.getTopCard().toString());
-        sync.append("|TURN:").append(game.getCurrentTurnIndex()).append("|");
-
-        for (Player p : game.getPlayers()) {
-            sync.append(p.getName()).append(":");
-            for (Card c : p.getHand()) {
-                sync.append(c.toString()).append(",");
-            }
-            sync.append(";");
-        }
-
-        client.send(sync.toString());
-    }
-
     /**
      * Parses the incoming game state from the server.
      *
@@ -191,76 +203,78 @@ public class GameController {
     private void parseGameState(String data) {
         System.out.println("Parsing state: " + data);
 
-        if (!data.contains("|TURN:")) {
+        if (!StateCodec.parse(data, game)) {
             System.err.println("Invalid sync format: " + data);
-            return;
         }
+    }
 
+    /**
+     * Applies a versioned delta operation relayed by the server.
+     * Operations must arrive in version order; on a gap the client asks for a snapshot.
+     *
+     * @param parts the split DELTA message ("9#version#op#...")
+     */
+    private void applyDelta(String[] parts) {
+        if (parts.length < 3) return;
+
+        long version;
         try {
-            String[] split = data.split("\\|", 3);
-            String topCardStr = split[0];
-            int turnIndex = Integer.parseInt(split[1].replace("TURN:", ""));
-            String playersBlock = split[2];
-
-            game.setTopCard(new Card(
-                    topCardStr.substring(0, topCardStr.length() - 1),
-                    topCardStr.substring(topCardStr.length() - 1)
-            ));
-            game.setCurrentTurnIndex(turnIndex);
-
-            String[] playersData = playersBlock.split(";");
-            for (String pdata : playersData) {
-                if (pdata.trim().isEmpty()) continue;
-
-                String[] parts = pdata.split(":");
-                if (parts.length < 1) continue;
-
-                String pname = parts[0].trim();
-                Player player = game.getPlayer(pname);
-                if (player == null) {
-                    player = new Player(pname);
-                    game.getPlayers().add(player);
-                }
-
-                player.clearHand();
-
-                if (parts.length > 1 && !parts[1].trim().isEmpty()) {
-                    String[] cards = parts[1].split(",");
-                    for (String cStr : cards) {
-                        if (!cStr.trim().isEmpty()) {
-                            Card card = new Card(
-                                    cStr.substring(0, cStr.length() - 1),
-                                    cStr.substring(cStr.length() - 1)
-                            );
-                            player.addCard(card);
-                        }
-                    }
-                }
-            }
+            version = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            return;
+        }
+
+        if (parts[2].equals(StateDelta.BASE)) {
+            game.setVersion(version); // Snapshot just received is at this version
+            awaitingSnapshot = false;
+            return;
+        }
+        if (awaitingSnapshot || version <= game.getVersion()) return;
 
-        } catch (Exception e) {
-            System.err.println("Failed to parse game state: " + e.getMessage());
+        if (version > game.getVersion() + 1 || !StateDelta.apply(game, parts, 2)) {
+            awaitingSnapshot = true;
+            client.send(Protocol.format(Protocol.RESYNC, playerName));
+            return;
         }
+        game.setVersion(version);
+        updateUI();
     }
 
     /**
-     * Updates the game view and status messages.
-     * Ensures rendering is done on the Event Dispatch Thread.
+     * Posts a snapshot of the game for the next frame (network thread).
+     * Only the newest snapshot is rendered, on the Event Dispatch Thread.
      */
     private void updateUI() {
-        SwingUtilities.invokeLater(() -> {
-            view.render(game, playerName);
-
-            String currentTurnName = game.getCurrentPlayer().getName();
-            int playerCount = game.getPlayers().size();
-
-            if (game.getPlayer(playerName).getHand().isEmpty()) {
-                view.updateStatus("You won!");
-            } else if (currentTurnName.equals(playerName)) {
-                view.updateStatus("It's YOUR turn! (" + playerCount + "/4 players)");
-            } else {
-                view.updateStatus("Waiting for " + currentTurnName + " (" + playerCount + "/4 players)");
-            }
-        });
+        frames.post(game.copy());
+    }
+
+    /**
+     * Updates the game view and status messages from a snapshot (EDT).
+     *
+     * @param snapshot copy of the game, never changed after it was posted
+     */
+    private void show(Game snapshot) {
+        shown = snapshot;
+        view.render(snapshot, playerName);
+
+        String currentTurnName = snapshot.getCurrentPlayer().getName();
+        int playerCount = snapshot.getPlayers().size();
+
+        if (snapshot.getPlayer(playerName).getHand().isEmpty()) {
+            view.updateStatus("You won!");
+        } else if (currentTurnName.equals(playerName)) {
+            view.updateStatus("It's YOUR turn! (" + playerCount + "/4 players)");
+        } else {
+            view.updateStatus("Waiting for " + currentTurnName + " (" + playerCount + "/4 players)");
+        }
+    }
+
+    /**
+     * Gets the scheduler rendering the game, e.g. to count the frames it coalesced.
+     *
+     * @return the frame scheduler
+     */
+    public FrameScheduler<Game> getFrameScheduler() {
+        return frames;
     }
 }
@@ -1,32 +1,151 @@
 package model;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 /**
  * Represents a single playing card in the Crazy Eights game.
- * Cards consist of a rank (e.g., "8", "K", "10") and a suit (e.g., "h", "d", "c", "s").
+ * Cards consist of a rank (e.g., "8", "K", "1" for ten) and a suit (e.g., "h", "d", "c", "s").
+ *
+ * There are exactly 52 Card instances, created once and shared by every deck,
+ * hand and message, so cards compare by identity and parsing allocates nothing.
+ * Each card carries its ordinal and integer rank/suit codes for fast matching.
  *
  * This class is serializable and used across the network to represent game state.
  */
-public class Card implements Serializable {
+public final class Card implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /** Rank characters in rank-code order. "1" represents "10" due to the image file names. */
+    public static final String RANKS = "A23456789" + "1JQK";
+
+    /** Suit characters in suit-code order: hearts, diamonds, clubs, spades. */
+    public static final String SUITS = "hdcs";
+
+    /** Number of distinct cards. */
+    public static final int COUNT = 52;
+
+    /** Rank code of the wild card. */
+    public static final int EIGHT = 7;
+
+    /** Rank code by character, -1 if not a rank. */
+    private static final byte[] RANK_CODES = codes(RANKS);
+
+    /** Suit code by character, -1 if not a suit. */
+    private static final byte[] SUIT_CODES = codes(SUITS);
+
+    /** All cards, indexed by ordinal (suit * 13 + rank). */
+    private static final Card[] CARDS = new Card[COUNT];
+
+    static {
+        for (int suit = 0; suit < SUITS.length(); suit++) {
+            for (int rank = 0; rank < RANKS.length(); rank++) {
+                Card card = new Card(rank, suit);
+                CARDS[card.ordinal] = card;
+            }
+        }
+    }
+
     /** Suit of the card: "h" (hearts), "d" (diamonds), "c" (clubs), "s" (spades) */
     private final String suit;
 
-    /** Rank of the card: A, 2–10, J, Q, K. "8" is a wild card. */
+    /** Rank of the card: A, 2–9, 1 (ten), J, Q, K. "8" is a wild card. */
     private final String rank;
 
+    /** Index of the rank in {@link #RANKS}. */
+    private final int rankCode;
+
+    /** Index of the suit in {@link #SUITS}. */
+    private final int suitCode;
+
+    /** Position of this card in the canonical table. */
+    private final int ordinal;
+
+    /** Protocol form, e.g. "Qh". */
+    private final transient String name;
+
     /**
-     * Constructs a card with the given rank and suit.
+     * Constructs one of the canonical cards.
      *
-     * @param rank the rank of the card (e.g., "8", "K")
+     * @param rankCode rank index
+     * @param suitCode suit index
+     */
+    private Card(int rankCode, int suitCode) {
+        this.rankCode = rankCode;
+        this.suitCode = suitCode;
+        this.ordinal = suitCode * RANKS.length() + rankCode;
+        this.rank = String.valueOf(RANKS.charAt(rankCode));
+        this.suit = String.valueOf(SUITS.charAt(suitCode));
+        this.name = rank + suit;
+    }
+
+    /**
+     * Returns the card with the given rank and suit codes.
+     *
+     * @param rankCode rank index (0-12)
+     * @param suitCode suit index (0-3)
+     * @return the canonical card
+     * @throws IndexOutOfBoundsException if a code is out of range
+     */
+    public static Card valueOf(int rankCode, int suitCode) {
+        if (rankCode < 0 || rankCode >= RANKS.length() || suitCode < 0 || suitCode >= SUITS.length()) {
+            throw new IndexOutOfBoundsException("Bad card code " + rankCode + "/" + suitCode);
+        }
+        return CARDS[suitCode * RANKS.length() + rankCode];
+    }
+
+    /**
+     * Returns the card with the given rank and suit.
+     *
+     * @param rank the rank of the card (e.g., "8", "K", "10" or "1")
      * @param suit the suit of the card (e.g., "h" for hearts)
+     * @return the canonical card, or null if rank or suit is unknown
      */
-    public Card(String rank, String suit) {
-        this.suit = suit;
-        this.rank = rank;
+    public static Card valueOf(String rank, String suit) {
+        if (rank == null || suit == null || suit.length() != 1) return null;
+        if (rank.length() == 1) return lookup(rank.charAt(0), suit.charAt(0));
+        if (rank.equals("10")) return lookup('1', suit.charAt(0));
+        return null;
+    }
+
+    /**
+     * Returns the card at a position in the canonical table.
+     *
+     * @param ordinal card ordinal (0-51)
+     * @return the canonical card
+     */
+    public static Card byOrdinal(int ordinal) {
+        return CARDS[ordinal];
+    }
+
+    /**
+     * Parses a string like "8s", "1d" or "10d" into a Card object.
+     * Used in network sync messages to transfer card state; a table lookup, no allocation.
+     *
+     * @param str card string (e.g., "7d")
+     * @return the canonical card or null if input is invalid
+     */
+    public static Card fromString(String str) {
+        if (str == null) return null;
+        int length = str.length();
+        if (length == 2) return lookup(str.charAt(0), str.charAt(1));
+        if (length == 3 && str.charAt(0) == '1' && str.charAt(1) == '0') return lookup('1', str.charAt(2));
+        return null;
+    }
+
+    /**
+     * Looks up a card by its rank and suit characters.
+     *
+     * @param rank rank character
+     * @param suit suit character
+     * @return the canonical card, or null if either character is unknown
+     */
+    public static Card lookup(char rank, char suit) {
+        if (rank >= 128 || suit >= 128) return null;
+        int r = RANK_CODES[rank];
+        int s = SUIT_CODES[suit];
+        return r < 0 || s < 0 ? null : CARDS[s * RANKS.length() + r];
     }
 
     /**
@@ -48,37 +167,50 @@ public class Card implements Serializable {
     }
 
     /**
-     * Returns the image file path used to render this card in the UI.
+     * Gets the rank code of the card.
      *
-     * @return path string to the image asset
+     * @return index into {@link #RANKS}
      */
-    public String getImagePath() {
-        return "Assets/cards/" + rank + suit + ".png";
+    public int getRankCode() {
+        return rankCode;
     }
 
     /**
-     * Parses a string like "8s" or "10d" into a Card object.
-     * Used in network sync messages to transfer card state.
+     * Gets the suit code of the card.
      *
-     * @param str card string (e.g., "7d")
-     * @return parsed Card object or null if input is invalid
+     * @return index into {@link #SUITS}
      */
-    public static Card fromString(String str) {
-        if (str == null || str.length() < 2) return null;
-        String rank = str.substring(0, str.length() - 1);
-        String suit = str.substring(str.length() - 1);
-        return new Card(rank, suit);
+    public int getSuitCode() {
+        return suitCode;
+    }
+
+    /**
+     * Gets the position of this card in the canonical table.
+     *
+     * @return ordinal (0-51)
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Returns the image file path used to render this card in the UI.
+     *
+     * @return path string to the image asset
+     */
+    public String getImagePath() {
+        return "Assets/cards/" + name + ".png";
     }
 
     /**
      * Converts this card to string format used in protocol messages.
-     * Example: "8s", "Qh", "10d"
+     * Example: "8s", "Qh", "1d"
      *
      * @return card string in rank+suit format
      */
     @Override
     public String toString() {
-        return rank + suit;
+        return name;
     }
 
     /**
@@ -89,8 +221,32 @@ public class Card implements Serializable {
      * @return true if this card is a valid move on top of the other
      */
     public boolean matches(Card other) {
-        return this.rank.equals(other.rank)
-            || this.suit.equals(other.suit)
-            || this.rank.equals("8");
+        return rankCode == other.rankCode
+            || suitCode == other.suitCode
+            || rankCode == EIGHT;
+    }
+
+    /**
+     * Replaces a deserialized card with the canonical instance.
+     *
+     * @return the shared card with the same ordinal
+     */
+    private Object readResolve() {
+        return CARDS[ordinal];
+    }
+
+    /**
+     * Builds a character-to-code table for a symbol string.
+     *
+     * @param symbols characters in code order
+     * @return table of 128 entries, -1 where a character has no code
+     */
+    private static byte[] codes(String symbols) {
+        byte[] table = new byte[128];
+        Arrays.fill(table, (byte) -1);
+        for (int i = 0; i < symbols.length(); i++) {
+            table[symbols.charAt(i)] = (byte) i;
+        }
+        return table;
     }
 }
@@ -1,36 +1,82 @@
 package model;
 
-import java.util.*;
+import java.util.SplittableRandom;
 
 /**
  * Represents the deck of cards used in the Crazy Eights game.
  * Initializes a full 52-card deck and provides draw functionality.
+ *
+ * The draw pile is a byte array of card ordinals with a cursor, shuffled by
+ * Fisher-Yates from a SplittableRandom. Passing a seed makes a game's deal
+ * reproducible; the deck is not thread-safe and belongs to one game.
  */
 public class Deck {
 
-    /** Stack of cards representing the draw pile */
-    private final Stack<Card> cards;
+    /** Card ordinals in draw order; cards before the cursor have been drawn */
+    private final byte[] cards = new byte[Card.COUNT];
+
+    /** Index of the next card to draw */
+    private int cursor;
+
+    /** Random source for shuffling */
+    private final SplittableRandom random;
 
     /**
      * Constructs a full, shuffled 52-card deck.
      * Includes all 13 ranks (A, 2–10, J, Q, K) for each of the 4 suits.
      */
     public Deck() {
-        cards = new Stack<>();
+        this(new SplittableRandom());
+    }
 
-        String[] suits = {"h", "d", "c", "s"}; // Hearts, Diamonds, Clubs, Spades
-        String[] ranks = {"A", "2", "3", "4", "5", "6", "7", "8", "9", "1", "J", "Q", "K"}; 
-        // Note: "1" represents "10" due to display filename convention
+    /**
+     * Constructs a full deck shuffled reproducibly from a seed.
+     *
+     * @param seed shuffle seed; equal seeds give equal decks
+     */
+    public Deck(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    /**
+     * Constructs a full deck shuffled with the given random source.
+     *
+     * @param random random source, owned by this deck from now on
+     */
+    public Deck(SplittableRandom random) {
+        this.random = random;
+        shuffle();
+    }
 
-        // Create one card for each rank and suit (52 total)
-        for (String suit : suits) {
-            for (String rank : ranks) {
-                cards.add(new Card(rank, suit));
-            }
+    /**
+     * Rebuilds a deck part-way through a game, e.g. from a journal snapshot.
+     *
+     * @param order  card ordinals in draw order (all 52)
+     * @param cursor index of the next card to draw
+     */
+    public Deck(byte[] order, int cursor) {
+        if (order.length != Card.COUNT || cursor < 0 || cursor > Card.COUNT) {
+            throw new IllegalArgumentException("Not a saved deck");
         }
+        this.random = new SplittableRandom();
+        System.arraycopy(order, 0, cards, 0, Card.COUNT);
+        this.cursor = cursor;
+    }
 
-        // Shuffle the deck to randomize card order
-        Collections.shuffle(cards);
+    /**
+     * Puts all 52 cards back and shuffles them (Fisher-Yates).
+     */
+    public void shuffle() {
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = (byte) i;
+        }
+        for (int i = cards.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
+        cursor = 0;
     }
 
     /**
@@ -39,8 +85,63 @@ public class Deck {
      * @return the top Card, or null if the deck is empty
      */
     public Card drawCard() {
-        if (cards.isEmpty()) return null;
-        return cards.pop(); // Removes and returns the top card
+        if (cursor == cards.length) return null;
+        return Card.byOrdinal(cards[cursor++]); // Removes and returns the top card
+    }
+
+    /**
+     * Draws several cards at once as a Hand bitset.
+     *
+     * @param count number of cards wanted
+     * @return mask of the cards drawn (fewer if the deck runs out)
+     */
+    public long deal(int count) {
+        int end = Math.min(cursor + count, cards.length);
+        long mask = 0;
+        for (int i = cursor; i < end; i++) {
+            mask |= 1L << cards[i];
+        }
+        cursor = end;
+        return mask;
+    }
+
+    /**
+     * Copies the draw order, drawn cards included, e.g. for a journal snapshot.
+     *
+     * @param order receives the 52 card ordinals in draw order
+     * @return index of the next card to draw
+     */
+    public int copyOrder(byte[] order) {
+        System.arraycopy(cards, 0, order, 0, Card.COUNT);
+        return cursor;
+    }
+
+    /**
+     * Replaces the draw pile with the given cards in random order, e.g. to
+     * sample one possible deck in a search that cannot see the real one.
+     *
+     * @param mask Hand bitset of the cards left to draw
+     */
+    public void restack(long mask) {
+        cursor = cards.length - Long.bitCount(mask);
+        for (int i = cursor; mask != 0; i++, mask &= mask - 1) {
+            cards[i] = (byte) Long.numberOfTrailingZeros(mask);
+        }
+        for (int i = cards.length - 1; i > cursor; i--) {
+            int j = cursor + random.nextInt(i - cursor + 1);
+            byte tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
+    }
+
+    /**
+     * Returns the number of cards left to draw.
+     *
+     * @return remaining cards
+     */
+    public int size() {
+        return cards.length - cursor;
     }
 
     /**
@@ -49,6 +150,6 @@ public class Deck {
      * @return true if no cards remain in the deck
      */
     public boolean isEmpty() {
-        return cards.isEmpty();
+        return cursor == cards.length;
     }
 }
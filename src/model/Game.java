@@ -10,6 +10,9 @@ import java.util.List;
  */
 public class Game {
 
+    /** Cards dealt to each player at the start of a game */
+    public static final int HAND_SIZE = 12;
+
     /** The draw deck used in the game */
     private Deck deck;
 
@@ -22,6 +25,15 @@ public class Game {
     /** Index of the current player's turn (0-3) */
     private int currentTurn;
 
+    /** State version, bumped by the server for every applied change (delta sync) */
+    private long version;
+
+    /** True after an 8 was played until its player chooses a suit */
+    private boolean awaitingSuit;
+
+    /** Index of the player who emptied their hand, or -1 while the game is running */
+    private int winner = -1;
+
     /**
      * No-args constructor (used by clients during SYNC/START).
      * Initializes an empty player list and fallback top card.
@@ -29,7 +41,7 @@ public class Game {
     public Game() {
         this.players = new ArrayList<>();
         this.deck = new Deck();
-        this.topCard = new Card("8", "s"); // fallback default
+        this.topCard = Card.valueOf("8", "s"); // fallback default
         this.currentTurn = 0;
     }
 
@@ -40,19 +52,105 @@ public class Game {
      * @param playerNames list of player names in joining order
      */
     public Game(List<String> playerNames) {
-        this(); // call no-arg constructor
+        this(playerNames, new Deck());
+    }
+
+    /**
+     * Creates a game whose deal is reproducible from a seed.
+     *
+     * @param playerNames list of player names in joining order
+     * @param seed        shuffle seed
+     */
+    public Game(List<String> playerNames, long seed) {
+        this(playerNames, new Deck(seed));
+    }
+
+    /**
+     * Deals a new game from the given deck.
+     *
+     * @param playerNames list of player names in joining order
+     * @param deck        a freshly shuffled deck
+     */
+    public Game(List<String> playerNames, Deck deck) {
+        this.players = new ArrayList<>(playerNames.size());
+        this.deck = deck;
+        this.currentTurn = 0;
 
         for (String name : playerNames) {
             Player p = new Player(name);
-            for (int i = 0; i < 12; i++) {
-                p.addCard(deck.drawCard()); // deal 12 cards to each player
-            }
+            p.addCards(deck.deal(HAND_SIZE)); // deal 12 cards to each player
             players.add(p);
         }
 
         topCard = deck.drawCard(); // set the starting discard pile
     }
 
+    /**
+     * Rebuilds a game in progress from saved state (used by journal recovery).
+     * Turn, version, suit choice and winner are restored through their setters.
+     *
+     * @param players players with their hands, in seating order
+     * @param deck    the draw deck at the saved point
+     * @param topCard the top card of the discard pile
+     */
+    public Game(List<Player> players, Deck deck, Card topCard) {
+        this.players = new ArrayList<>(players);
+        this.deck = deck;
+        this.topCard = topCard;
+        this.currentTurn = 0;
+    }
+
+    /**
+     * Copies the game: players with their hands and scores, the deck, the top
+     * card, the turn, the version, a pending suit choice and the winner. The
+     * copy shares nothing that changes with this game, so another thread can
+     * read it as a snapshot while this one carries on being updated.
+     *
+     * @return the copy
+     */
+    public Game copy() {
+        List<Player> copies = new ArrayList<>(players.size());
+        for (Player p : players) {
+            Player c = new Player(p.getName());
+            c.addCards(p.getCards().getMask());
+            c.addHiddenCards(p.getCardCount() - p.getCards().size());
+            c.setScore(p.getScore());
+            copies.add(c);
+        }
+        byte[] order = new byte[Card.COUNT];
+        int cursor = deck.copyOrder(order);
+
+        Game copy = new Game(copies, new Deck(order, cursor), topCard);
+        copy.currentTurn = currentTurn;
+        copy.version = version;
+        copy.awaitingSuit = awaitingSuit;
+        copy.winner = winner;
+        return copy;
+    }
+
+    /**
+     * Starts a new game with the same players: reshuffles the deck and deals again.
+     * Lets simulations reuse one Game for many rounds without allocating.
+     *
+     * @param handSize cards dealt to each player
+     */
+    public void redeal(int handSize) {
+        if (handSize * players.size() >= Card.COUNT) {
+            throw new IllegalArgumentException(players.size() + " hands of " + handSize + " do not fit in one deck");
+        }
+        deck.shuffle();
+        for (int i = 0; i < players.size(); i++) {
+            Player p = players.get(i);
+            p.clearHand();
+            p.addCards(deck.deal(handSize));
+        }
+        topCard = deck.drawCard();
+        currentTurn = 0;
+        version = 0;
+        awaitingSuit = false;
+        winner = -1;
+    }
+
     /**
      * Gets a player by name.
      * Used when syncing or applying a move.
@@ -156,6 +254,219 @@ public class Game {
         return deck;
     }
 
+    /**
+     * Returns the seat index of a player by name.
+     *
+     * @param name player name
+     * @return index in the player list, or -1 if not found
+     */
+    public int getPlayerIndex(String name) {
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i).getName().equals(name)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the state version of this game.
+     *
+     * @return version number (0 right after dealing)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the state version, e.g. after receiving a full snapshot.
+     *
+     * @param version version number
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Applies a played card: removes it from the player's hand and puts it on the pile.
+     *
+     * @param seat index of the player
+     * @param card the card played
+     */
+    public void applyPlay(int seat, Card card) {
+        players.get(seat).removeCard(card);
+        topCard = card;
+    }
+
+    /**
+     * Applies drawn cards by adding them to the player's hand.
+     *
+     * @param seat  index of the player
+     * @param cards the cards drawn, in order
+     */
+    public void applyDraw(int seat, List<Card> cards) {
+        Player p = players.get(seat);
+        for (Card c : cards) {
+            p.addCard(c);
+        }
+    }
+
+    /**
+     * Applies a draw whose cards the local copy may not see (another player's draw).
+     *
+     * @param seat  index of the player
+     * @param count number of cards drawn
+     */
+    public void applyHiddenDraw(int seat, int count) {
+        players.get(seat).addHiddenCards(count);
+    }
+
+    /**
+     * Applies a wild card suit choice by making the top card an 8 of that suit.
+     *
+     * @param suit chosen suit letter
+     */
+    public void applySuit(String suit) {
+        topCard = Card.valueOf("8", suit);
+    }
+
+    /**
+     * Plays a card for the player at the given seat, enforcing the rules.
+     * An 8 leaves the turn with the player until they choose a suit;
+     * any other card passes the turn. Emptying the hand wins the game.
+     *
+     * @param seat index of the player making the move
+     * @param card the card to play
+     * @return OK if applied, otherwise why the move was rejected
+     */
+    public MoveResult play(int seat, Card card) {
+        MoveResult check = checkTurn(seat);
+        if (check != MoveResult.OK) return check;
+        if (awaitingSuit) return MoveResult.SUIT_REQUIRED;
+
+        Player p = players.get(seat);
+        if (!p.getCards().contains(card)) return MoveResult.CARD_NOT_IN_HAND;
+        if (!card.matches(topCard)) return MoveResult.INVALID_CARD;
+
+        applyPlay(seat, card);
+        if (p.getCards().isEmpty()) {
+            winner = seat;
+        } else if (card.getRankCode() == Card.EIGHT) {
+            awaitingSuit = true;
+        } else {
+            nextTurn();
+        }
+        return MoveResult.OK;
+    }
+
+    /**
+     * Sets the suit for an 8 just played by the player at the given seat and passes the turn.
+     *
+     * @param seat index of the player choosing
+     * @param suit suit letter ("h", "d", "c" or "s")
+     * @return OK if applied, otherwise why the choice was rejected
+     */
+    public MoveResult chooseSuit(int seat, String suit) {
+        int suitCode = suit != null && suit.length() == 1 ? Card.SUITS.indexOf(suit.charAt(0)) : -1;
+        return chooseSuit(seat, suitCode);
+    }
+
+    /**
+     * Sets the suit for an 8 just played, by suit code, and passes the turn.
+     *
+     * @param seat     index of the player choosing
+     * @param suitCode suit index into {@link Card#SUITS}
+     * @return OK if applied, otherwise why the choice was rejected
+     */
+    public MoveResult chooseSuit(int seat, int suitCode) {
+        MoveResult check = checkTurn(seat);
+        if (check != MoveResult.OK) return check;
+        if (!awaitingSuit) return MoveResult.NO_SUIT_PENDING;
+        if (suitCode < 0 || suitCode >= Card.SUITS.length()) return MoveResult.INVALID_CARD;
+
+        topCard = Card.valueOf(Card.EIGHT, suitCode);
+        awaitingSuit = false;
+        nextTurn();
+        return MoveResult.OK;
+    }
+
+    /**
+     * Draws for the player at the given seat until a playable card comes up.
+     * If the deck runs out without one, the turn passes to the next player.
+     * Drawing from an empty deck is rejected while the player still has a card to play.
+     *
+     * @param seat  index of the player drawing
+     * @param drawn receives the cards drawn, in order
+     * @return OK if applied, otherwise why the draw was rejected
+     */
+    public MoveResult draw(int seat, List<Card> drawn) {
+        MoveResult check = checkTurn(seat);
+        if (check != MoveResult.OK) return check;
+        if (awaitingSuit) return MoveResult.SUIT_REQUIRED;
+
+        Player p = players.get(seat);
+        if (deck.isEmpty() && p.hasPlayableCard(topCard)) return MoveResult.DECK_EMPTY;
+
+        Card card;
+        do {
+            card = deck.drawCard();
+            if (card == null) break;
+            p.addCard(card);
+            drawn.add(card);
+        } while (!card.matches(topCard));
+
+        if (card == null && !p.hasPlayableCard(topCard)) {
+            nextTurn(); // Nothing to play and nothing left to draw
+        }
+        return MoveResult.OK;
+    }
+
+    /**
+     * Checks that the game is running and it is the given seat's turn.
+     *
+     * @param seat index of the player trying to move
+     * @return OK, GAME_OVER or NOT_YOUR_TURN
+     */
+    private MoveResult checkTurn(int seat) {
+        if (winner >= 0) return MoveResult.GAME_OVER;
+        if (seat != currentTurn) return MoveResult.NOT_YOUR_TURN;
+        return MoveResult.OK;
+    }
+
+    /**
+     * Returns true after an 8 was played and its suit has not been chosen yet.
+     *
+     * @return true if a suit choice is pending
+     */
+    public boolean isAwaitingSuit() {
+        return awaitingSuit;
+    }
+
+    /**
+     * Sets whether a suit choice is pending (used by journal recovery).
+     *
+     * @param awaitingSuit true if an 8 was played and its suit not chosen yet
+     */
+    public void setAwaitingSuit(boolean awaitingSuit) {
+        this.awaitingSuit = awaitingSuit;
+    }
+
+    /**
+     * Sets the winner's seat (used by journal recovery).
+     *
+     * @param winner winner index, or -1 while the game is running
+     */
+    public void setWinner(int winner) {
+        this.winner = winner;
+    }
+
+    /**
+     * Gets the seat of the player who won.
+     *
+     * @return winner index, or -1 while the game is running
+     */
+    public int getWinner() {
+        return winner;
+    }
+
     /**
      * Adds a new player only if they aren't already present.
      * Used for dynamic joining or syncing.
@@ -0,0 +1,275 @@
+package model;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of cards stored as one 64-bit mask over the 52 card ordinals.
+ * Adding, removing, membership, "can play on the top card", the playable
+ * subset and per-suit or per-rank counts are each a few bitwise operations,
+ * which keeps rule checks cheap for the server, simulations and bots.
+ *
+ * Cards are listed in ordinal order (by suit, then rank).
+ */
+public final class Hand implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Cards of each rank, indexed by rank code. */
+    private static final long[] RANK_MASKS = new long[Card.RANKS.length()];
+
+    /** Cards of each suit, indexed by suit code. */
+    private static final long[] SUIT_MASKS = new long[Card.SUITS.length()];
+
+    /** Cards playable on each top card (same rank, same suit or an 8), by ordinal. */
+    private static final long[] PLAYABLE = new long[Card.COUNT];
+
+    static {
+        for (int i = 0; i < Card.COUNT; i++) {
+            Card c = Card.byOrdinal(i);
+            RANK_MASKS[c.getRankCode()] |= 1L << i;
+            SUIT_MASKS[c.getSuitCode()] |= 1L << i;
+        }
+        for (int i = 0; i < Card.COUNT; i++) {
+            Card top = Card.byOrdinal(i);
+            PLAYABLE[i] = RANK_MASKS[top.getRankCode()] | SUIT_MASKS[top.getSuitCode()] | RANK_MASKS[Card.EIGHT];
+        }
+    }
+
+    /** One bit per card held, at the card's ordinal. */
+    private long mask;
+
+    /** Read-only list view handed to the UI and the protocol code. */
+    private transient List<Card> view;
+
+    /**
+     * Returns the bit for a card.
+     *
+     * @param c the card
+     * @return mask with only that card's bit set
+     */
+    public static long bit(Card c) {
+        return 1L << c.getOrdinal();
+    }
+
+    /**
+     * Returns the mask of all four cards of a rank.
+     *
+     * @param rankCode rank index
+     * @return rank mask
+     */
+    public static long rankMask(int rankCode) {
+        return RANK_MASKS[rankCode];
+    }
+
+    /**
+     * Returns the mask of all thirteen cards of a suit.
+     *
+     * @param suitCode suit index
+     * @return suit mask
+     */
+    public static long suitMask(int suitCode) {
+        return SUIT_MASKS[suitCode];
+    }
+
+    /**
+     * Returns the mask of every card that may be played on a top card.
+     *
+     * @param top the top card of the discard pile
+     * @return playable mask
+     */
+    public static long playableMask(Card top) {
+        return PLAYABLE[top.getOrdinal()];
+    }
+
+    /**
+     * Adds a card.
+     *
+     * @param c the card
+     * @return true if the card was not already held
+     */
+    public boolean add(Card c) {
+        long before = mask;
+        mask |= bit(c);
+        return mask != before;
+    }
+
+    /**
+     * Adds every card in a mask.
+     *
+     * @param bits card mask
+     */
+    public void addAll(long bits) {
+        mask |= bits;
+    }
+
+    /**
+     * Removes a card.
+     *
+     * @param c the card
+     * @return true if the card was held
+     */
+    public boolean remove(Card c) {
+        long before = mask;
+        mask &= ~bit(c);
+        return mask != before;
+    }
+
+    /**
+     * Returns true if the card is held.
+     *
+     * @param c the card
+     * @return true if held
+     */
+    public boolean contains(Card c) {
+        return (mask & bit(c)) != 0;
+    }
+
+    /**
+     * Removes all cards.
+     */
+    public void clear() {
+        mask = 0;
+    }
+
+    /**
+     * Returns the number of cards held.
+     *
+     * @return card count
+     */
+    public int size() {
+        return Long.bitCount(mask);
+    }
+
+    /**
+     * Returns true if no cards are held.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    /**
+     * Returns the raw card mask.
+     *
+     * @return one bit per held card ordinal
+     */
+    public long getMask() {
+        return mask;
+    }
+
+    /**
+     * Returns the held cards that may be played on a top card.
+     *
+     * @param top the top card of the discard pile
+     * @return mask of playable held cards
+     */
+    public long playable(Card top) {
+        return mask & PLAYABLE[top.getOrdinal()];
+    }
+
+    /**
+     * Returns true if at least one held card may be played on a top card.
+     *
+     * @param top the top card of the discard pile
+     * @return true if a move is possible
+     */
+    public boolean canPlay(Card top) {
+        return (mask & PLAYABLE[top.getOrdinal()]) != 0;
+    }
+
+    /**
+     * Counts the held cards of a suit.
+     *
+     * @param suitCode suit index
+     * @return number of cards of that suit
+     */
+    public int countBySuit(int suitCode) {
+        return Long.bitCount(mask & SUIT_MASKS[suitCode]);
+    }
+
+    /**
+     * Counts the held cards of a rank.
+     *
+     * @param rankCode rank index
+     * @return number of cards of that rank
+     */
+    public int countByRank(int rankCode) {
+        return Long.bitCount(mask & RANK_MASKS[rankCode]);
+    }
+
+    /**
+     * Returns the lowest-ordinal card in a mask.
+     *
+     * @param bits a non-empty card mask
+     * @return the card
+     */
+    public static Card first(long bits) {
+        return Card.byOrdinal(Long.numberOfTrailingZeros(bits));
+    }
+
+    /**
+     * Returns a read-only list view of the held cards that follows later changes.
+     *
+     * @return list of cards in ordinal order
+     */
+    public List<Card> asList() {
+        if (view == null) view = new View();
+        return view;
+    }
+
+    /**
+     * List view over the mask. Iteration walks set bits; get(i) skips i bits.
+     */
+    private final class View extends AbstractList<Card> {
+
+        @Override
+        public Card get(int index) {
+            if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index: " + index);
+            long bits = mask;
+            for (int i = 0; i < index; i++) {
+                bits &= bits - 1; // Clear lowest set bit
+            }
+            return first(bits);
+        }
+
+        @Override
+        public int size() {
+            return Hand.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return mask == 0;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Card && Hand.this.contains((Card) o);
+        }
+
+        @Override
+        public Iterator<Card> iterator() {
+            return new Iterator<Card>() {
+                private long remaining = mask;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining != 0;
+                }
+
+                @Override
+                public Card next() {
+                    if (remaining == 0) throw new NoSuchElementException();
+                    Card c = first(remaining);
+                    remaining &= remaining - 1;
+                    return c;
+                }
+            };
+        }
+    }
+}
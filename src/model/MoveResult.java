@@ -0,0 +1,47 @@
+package model;
+
+/**
+ * Outcome of asking the Game to apply a player's move.
+ * Anything other than OK means the move was rejected and the game is unchanged.
+ */
+public enum MoveResult {
+    /** The move was applied. */
+    OK("OK"),
+
+    /** Another seat is to move. */
+    NOT_YOUR_TURN("Not your turn!"),
+
+    /** The card played is not in the player's hand. */
+    CARD_NOT_IN_HAND("You don't have that card."),
+
+    /** The card does not go on the top card, or the suit named is not a suit. */
+    INVALID_CARD("Invalid card."),
+
+    /** An 8 was played and its suit must be chosen before anything else. */
+    SUIT_REQUIRED("Choose a suit for your 8 first."),
+
+    /** A suit was chosen without an 8 waiting for one. */
+    NO_SUIT_PENDING("No wild card to choose a suit for."),
+
+    /** A draw was asked for with the deck empty while a card could be played. */
+    DECK_EMPTY("Deck is empty."),
+
+    /** The game already has a winner. */
+    GAME_OVER("The game is over.");
+
+    /** Text shown to the player when the move is rejected. */
+    private final String message;
+
+    MoveResult(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Gets the player-facing description of this result.
+     *
+     * @return message text
+     */
+    public String getMessage() {
+        return message;
+    }
+}
@@ -1,7 +1,6 @@
 package model;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -16,8 +15,11 @@ public class Player implements Serializable {
     /** The player's display name */
     private final String name;
 
-    /** The player's current hand of cards */
-    private final List<Card> hand;
+    /** The player's current hand of cards, as a bitset over card ordinals */
+    private final Hand hand = new Hand();
+
+    /** Cards this player holds that the local copy cannot see (opponents on a client) */
+    private int hiddenCards;
 
     /** The player's current score */
     private int score = 0;
@@ -29,7 +31,6 @@ public class Player implements Serializable {
      */
     public Player(String name) {
         this.name = name;
-        this.hand = new ArrayList<>();
     }
 
     /**
@@ -41,21 +42,61 @@ public class Player implements Serializable {
         hand.add(c);
     }
 
+    /**
+     * Adds several cards at once, e.g. a dealt hand.
+     *
+     * @param mask Hand bitset of the cards to add
+     */
+    public void addCards(long mask) {
+        hand.addAll(mask);
+    }
+
     /**
      * Removes a card from the player's hand.
+     * If the card is not visible here, one hidden card is removed instead.
      *
      * @param c the card to remove
      */
     public void removeCard(Card c) {
-        hand.remove(c);
+        if (!hand.remove(c) && hiddenCards > 0) {
+            hiddenCards--;
+        }
+    }
+
+    /**
+     * Adds cards the local copy is not allowed to see.
+     *
+     * @param count number of face-down cards
+     */
+    public void addHiddenCards(int count) {
+        hiddenCards += count;
+    }
+
+    /**
+     * Gets the total number of cards held, visible or not.
+     *
+     * @return card count
+     */
+    public int getCardCount() {
+        return hand.size() + hiddenCards;
     }
 
     /**
      * Returns the list of cards currently in the player's hand.
+     * The list is a read-only view; change the hand through addCard/removeCard.
      *
      * @return list of Card objects
      */
     public List<Card> getHand() {
+        return hand.asList();
+    }
+
+    /**
+     * Returns the hand as a bitset for rule checks and bots.
+     *
+     * @return the player's hand
+     */
+    public Hand getCards() {
         return hand;
     }
 
@@ -65,6 +106,7 @@ public class Player implements Serializable {
      */
     public void clearHand() {
         hand.clear();
+        hiddenCards = 0;
     }
 
     /**
@@ -83,10 +125,7 @@ public class Player implements Serializable {
      * @return true if the player can play any card
      */
     public boolean hasPlayableCard(Card top) {
-        for (Card c : hand) {
-            if (c.matches(top)) return true;
-        }
-        return false;
+        return hand.canPlay(top);
     }
 
     /**
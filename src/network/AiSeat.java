@@ -0,0 +1,266 @@
+package network;
+
+import model.Card;
+import model.Game;
+import model.Hand;
+import model.MoveResult;
+import model.Player;
+import sim.InformationSet;
+import sim.IsmctsStrategy;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An AiSeat is a computer player seated in a room like any other connection.
+ * It follows the table through the same START/SYNC snapshots and deltas a
+ * client gets, so it only ever knows its own hand, the cards played and how
+ * many cards the others hold. On its turn it asks a shared IsmctsStrategy for
+ * a move and sends the intent back through the room's mailbox.
+ * <p>
+ * Messages arrive on the room's mailbox and decisions on the search pool, so
+ * both hold the seat's lock.
+ */
+final class AiSeat implements Connection {
+
+    /** Prefix of AI player names; human players may not use it. */
+    static final String NAME_PREFIX = "CPU ";
+
+    /** System property: AI seats in each new room (0 to 3). */
+    public static final String SEATS_PROPERTY = "crazyeights.ai.seats";
+
+    /** System property: thinking time per move in milliseconds. */
+    public static final String MILLIS_PROPERTY = "crazyeights.ai.millis";
+
+    /** System property: search threads shared by all AI seats (default: all cores). */
+    public static final String THREADS_PROPERTY = "crazyeights.ai.threads";
+
+    /** AI seats added to each new room. */
+    static final int SEATS = Math.max(0, Math.min(Room.CAPACITY - 1, Integer.getInteger(SEATS_PROPERTY, 0)));
+
+    /** Search shared by every AI seat in this process. */
+    private static final IsmctsStrategy STRATEGY = new IsmctsStrategy(
+            new ForkJoinPool(Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors())),
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong(MILLIS_PROPERTY, 250)));
+
+    /** The seat's view of the game, built from what the room sends. */
+    private final Game view = new Game();
+
+    /** Player name. */
+    private volatile String name;
+
+    /** Room this seat sits in. */
+    private volatile Room room;
+
+    /** Hand bitset of cards played before the real top card. */
+    private long played;
+
+    /** The card actually played last (an 8, not the suit named for it), or null if unknown. */
+    private Card realTop;
+
+    /** True from asking for a move until the table has seen it. */
+    private boolean moving;
+
+    /** True while waiting for a snapshot after a gap or a rejected move. */
+    private boolean awaitingSnapshot = true;
+
+    /** True once the game is over or the seat is closed. */
+    private boolean done;
+
+    /**
+     * Creates an AI player.
+     *
+     * @param name player name, starting with {@link #NAME_PREFIX}
+     */
+    AiSeat(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns true if a player name belongs to an AI seat.
+     *
+     * @param name the player name
+     * @return true for AI names
+     */
+    static boolean isAiName(String name) {
+        return name != null && name.startsWith(NAME_PREFIX);
+    }
+
+    @Override
+    public synchronized void send(String message) {
+        if (done) return;
+        String[] parts = message.split(Protocol.SEP, 2);
+        if (parts.length < 2) return;
+
+        switch (parts[0]) {
+            case "START":
+            case "SYNC":
+                if (!StateCodec.parse(parts[1], view)) return;
+                played = 0;
+                realTop = view.getTopCard().getRankCode() == Card.EIGHT ? null : view.getTopCard();
+                moving = false;
+                break;
+            case Protocol.DELTA:
+                applyDelta(Protocol.parse(message));
+                break;
+            case Protocol.ERROR:
+                if (parts[1].equals(MoveResult.SUIT_REQUIRED.getMessage())) {
+                    view.setAwaitingSuit(true); // E.g. a recovered game stopped between an 8 and its suit
+                    moving = false;
+                } else if (moving) {
+                    resync();
+                }
+                break;
+            case Protocol.DISCONNECT:
+                if (parts[1].endsWith(" won!")) done = true;
+                return;
+            default:
+                return;
+        }
+        think();
+    }
+
+    /**
+     * Applies a versioned delta to the view, asking for a snapshot on a gap.
+     *
+     * @param parts the split DELTA message
+     */
+    private void applyDelta(String[] parts) {
+        if (parts.length < 3) return;
+        long version;
+        try {
+            version = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            return;
+        }
+
+        if (parts[2].equals(StateDelta.BASE)) {
+            view.setVersion(version);
+            awaitingSnapshot = false;
+            return;
+        }
+        if (awaitingSnapshot || version <= view.getVersion()) return;
+        if (version > view.getVersion() + 1 || !StateDelta.apply(view, parts, 2)) {
+            resync();
+            return;
+        }
+        view.setVersion(version);
+
+        switch (parts[2]) {
+            case StateDelta.PLAY:
+                if (realTop != null) played |= Hand.bit(realTop);
+                realTop = view.getTopCard();
+                break;
+            case StateDelta.SUIT:
+                view.setAwaitingSuit(false);
+                break;
+            case StateDelta.TURN:
+                moving = false;
+                break;
+            case StateDelta.DRAW:
+                if (Integer.parseInt(parts[3]) == seat()) moving = false; // May still have to play what was drawn
+                break;
+            default:
+        }
+    }
+
+    /**
+     * Asks the room for a snapshot and waits for it.
+     */
+    private void resync() {
+        awaitingSnapshot = true;
+        moving = false;
+        Room r = room;
+        if (r != null) r.handleMessage(this, Protocol.format(Protocol.RESYNC, name));
+    }
+
+    /**
+     * Starts a search if it is this seat's turn and no move is on its way.
+     */
+    private void think() {
+        int seat = seat();
+        if (done || moving || awaitingSnapshot || seat < 0 || view.getCurrentTurnIndex() != seat) return;
+
+        long known = realTop != null ? played | Hand.bit(realTop) : played;
+        int deckSize = Card.COUNT - Long.bitCount(known);
+        for (Player p : view.getPlayers()) deckSize -= p.getCardCount();
+        if (realTop == null) deckSize--; // The top card is not in known
+
+        long version = view.getVersion();
+        moving = true;
+        STRATEGY.decide(new InformationSet(view, seat, known, deckSize))
+                .thenAccept(decision -> move(version, decision));
+    }
+
+    /**
+     * Sends the chosen move, unless the table has moved on while searching.
+     *
+     * @param version  view version the search started from
+     * @param decision the chosen move
+     */
+    private synchronized void move(long version, IsmctsStrategy.Decision decision) {
+        Room r = room;
+        if (done || r == null || !moving || view.getVersion() != version) return;
+
+        if (view.isAwaitingSuit()) {
+            int suit = decision.getSuit() >= 0 ? decision.getSuit() : view.getTopCard().getSuitCode();
+            r.handleMessage(this, Protocol.format(Protocol.SUIT, String.valueOf(Card.SUITS.charAt(suit))));
+        } else if (decision.getCard() == null) {
+            r.handleMessage(this, Protocol.format(Protocol.MOVE, Protocol.DRAW_CARD));
+        } else {
+            r.handleMessage(this, Protocol.format(Protocol.MOVE, Protocol.PLAY_CARD, decision.getCard().toString()));
+            if (decision.getSuit() >= 0) {
+                r.handleMessage(this, Protocol.format(Protocol.SUIT, String.valueOf(Card.SUITS.charAt(decision.getSuit()))));
+            }
+        }
+    }
+
+    /**
+     * Finds this seat in the view.
+     *
+     * @return seat index, or -1 before the game starts
+     */
+    private int seat() {
+        return view.getPlayerIndex(name);
+    }
+
+    @Override
+    public void setBinary(boolean binary) {
+        // Messages are handed over as strings; there is no wire
+    }
+
+    @Override
+    public synchronized void close() {
+        done = true;
+    }
+
+    @Override
+    public void setPlayerName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getPlayerName() {
+        return name;
+    }
+
+    @Override
+    public void setRoom(Room room) {
+        this.room = room;
+    }
+
+    @Override
+    public Room getRoom() {
+        return room;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return 0;
+    }
+
+    @Override
+    public long getDroppedMessages() {
+        return 0;
+    }
+}
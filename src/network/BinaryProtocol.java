@@ -0,0 +1,432 @@
+package network;
+
+import model.Card;
+import java.net.ProtocolException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * BinaryProtocol is the compact, versioned alternative to the text lines of Protocol.
+ * It carries the same messages, so the rest of the game keeps working with strings,
+ * but START/SYNC game state is packed into one byte per card.
+ *
+ * Frame layout: [marker][varint length][type][payload]
+ * <ul>
+ *   <li>marker: 0xB0 | VERSION. Bytes 0x80-0xBF never start a UTF-8 line,
+ *       so text lines and binary frames can share one stream.</li>
+ *   <li>length: varint byte count of type + payload</li>
+ *   <li>TEXT payload: the UTF-8 message as-is (chat, turn, errors, ...)</li>
+ *   <li>START/SYNC payload: top card, varint turn, varint player count, then per
+ *       player a varint-prefixed UTF-8 name, a varint (card count &lt;&lt; 1) and one byte
+ *       per card; a set low bit marks a hidden hand ("name:*count") with no card bytes</li>
+ *   <li>SEQ payload: varint sequence number, then the stamped message's own type
+ *       and payload ("12#seq#message", sent only to clients that joined with SEQ1)</li>
+ * </ul>
+ * A card byte holds the rank index (0-12) in the low 4 bits and the suit index (0-3) above it.
+ *
+ * The format is negotiated at JOIN: a client that appends {@link #TOKEN} to its JOIN
+ * gets {@link #ACK} back as a text line, after which both sides may send frames.
+ * Clients that never ask keep receiving plain text.
+ */
+public final class BinaryProtocol {
+
+    /** Version of the frame layout. */
+    public static final int VERSION = 1;
+
+    /** Token a client appends to JOIN to ask for binary frames. */
+    public static final String TOKEN = "BIN" + VERSION;
+
+    /** Text line the server sends to accept binary frames. */
+    public static final String ACK = "FORMAT" + Protocol.SEP + TOKEN;
+
+    /** System property selecting the client wire format ("binary" or "text"). */
+    public static final String PROPERTY = "crazyeights.wire";
+
+    /** First byte of every frame of this version. */
+    static final byte MARKER = (byte) (0xB0 | VERSION);
+
+    /** Frame type: any message carried as UTF-8 text. */
+    static final byte TYPE_TEXT = 0;
+
+    /** Frame type: START game state. */
+    static final byte TYPE_START = 1;
+
+    /** Frame type: SYNC game state. */
+    static final byte TYPE_SYNC = 2;
+
+    /** Frame type: a sequence-stamped message wrapping one of the types above. */
+    static final byte TYPE_SEQ = 3;
+
+    /** Largest frame accepted by the decoder. */
+    static final int MAX_FRAME = 1 << 20;
+
+    private BinaryProtocol() {
+    }
+
+    /**
+     * Returns true unless the client has been configured to stay on text lines.
+     *
+     * @return true if clients should ask for binary frames
+     */
+    public static boolean requestedBySystemProperty() {
+        return !"text".equalsIgnoreCase(System.getProperty(PROPERTY, "binary").trim());
+    }
+
+    /**
+     * Returns true if the byte starts a binary frame rather than a text line.
+     *
+     * @param b first byte of a message
+     * @return true for a frame marker
+     */
+    static boolean isFrameStart(byte b) {
+        return (b & 0xF0) == 0xB0;
+    }
+
+    /**
+     * Returns an upper bound on the encoded size of a message.
+     *
+     * @param message the message to encode
+     * @return maximum bytes {@link #encode} can write
+     */
+    public static int maxEncodedSize(String message) {
+        return message.length() * 3 + 16;
+    }
+
+    /**
+     * Encodes a protocol message as one frame at the buffer's position.
+     * START and SYNC state is packed; everything else is sent as a TEXT frame.
+     *
+     * @param message the text protocol message
+     * @param out     destination buffer with at least {@link #maxEncodedSize} bytes free
+     */
+    public static void encode(String message, ByteBuffer out) {
+        out.put(MARKER);
+        int lengthAt = out.position();
+        out.position(lengthAt + 3); // Room for a 3-byte varint, fixed up below
+
+        int bodyStart = out.position();
+        int from = Protocol.stampedOffset(message);
+        if (from > 0) {
+            out.put(TYPE_SEQ);
+            writeVarint(out, Integer.parseInt(message, Protocol.SEQ.length() + 1, from - 1, 10));
+        }
+        encodeBody(message, from, out);
+        int bodyLength = out.position() - bodyStart;
+        if (bodyLength > MAX_FRAME) {
+            throw new IllegalArgumentException("Message too large for a frame: " + bodyLength + " bytes");
+        }
+
+        // Write the length as a minimal varint and slide the body up against it
+        int end = out.position();
+        out.position(lengthAt);
+        writeVarint(out, bodyLength);
+        int gap = bodyStart - out.position();
+        if (gap > 0) {
+            if (out.hasArray()) {
+                byte[] a = out.array();
+                System.arraycopy(a, out.arrayOffset() + bodyStart, a, out.arrayOffset() + bodyStart - gap, bodyLength);
+            } else {
+                for (int i = bodyStart; i < end; i++) {
+                    out.put(i - gap, out.get(i));
+                }
+            }
+        }
+        out.position(end - gap);
+    }
+
+    /**
+     * Writes the type byte and payload of a message that starts at the given offset.
+     * START and SYNC state is packed; everything else is sent as TEXT.
+     *
+     * @param message the text protocol message
+     * @param from    index where the (unstamped) message begins
+     * @param out     destination buffer
+     */
+    private static void encodeBody(String message, int from, ByteBuffer out) {
+        int bodyStart = out.position();
+        if (message.startsWith("START#", from) || message.startsWith("SYNC#", from)) {
+            try {
+                out.put(message.charAt(from + 1) == 'T' ? TYPE_START : TYPE_SYNC);
+                encodeState(message, message.indexOf('#', from) + 1, out);
+                return;
+            } catch (RuntimeException e) {
+                out.position(bodyStart); // Not well-formed state, send it as text
+            }
+        }
+        out.put(TYPE_TEXT);
+        out.put((from == 0 ? message : message.substring(from)).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes one frame at the buffer's position back into its text message.
+     * If the frame is not complete yet, the position is left unchanged.
+     *
+     * @param in buffer positioned at a frame marker
+     * @return the decoded message, or null if more bytes are needed
+     * @throws ProtocolException if the frame is malformed or of another version
+     */
+    public static String decode(ByteBuffer in) throws ProtocolException {
+        int start = in.position();
+        if (!in.hasRemaining()) return null;
+
+        byte marker = in.get();
+        if (marker != MARKER) {
+            throw new ProtocolException("Unsupported frame version " + (marker & 0x0F));
+        }
+
+        int length = readVarint(in);
+        if (length < 0 || in.remaining() < length) {
+            in.position(start); // Incomplete frame
+            return null;
+        }
+        if (length == 0 || length > MAX_FRAME) {
+            throw new ProtocolException("Bad frame length " + length);
+        }
+
+        int end = in.position() + length;
+        int limit = in.limit();
+        in.limit(end); // Never read past this frame
+        try {
+            byte type = in.get();
+            String message;
+            if (type == TYPE_SEQ) {
+                int seq = readVarint(in);
+                if (seq < 0) throw new BufferUnderflowException();
+                message = Protocol.stamp(seq, decodeBody(in.get(), in, end));
+            } else {
+                message = decodeBody(type, in, end);
+            }
+            if (in.position() != end) {
+                throw new ProtocolException("Frame length mismatch");
+            }
+            return message;
+        } catch (BufferUnderflowException e) {
+            throw new ProtocolException("Truncated frame");
+        } finally {
+            in.limit(limit);
+        }
+    }
+
+    /**
+     * Decodes the payload of a TEXT, START or SYNC frame body.
+     *
+     * @param type the body's type byte
+     * @param in   buffer positioned after the type byte
+     * @param end  end of the frame
+     * @return the text message
+     * @throws ProtocolException if the type is unknown or a card byte is invalid
+     */
+    private static String decodeBody(byte type, ByteBuffer in, int end) throws ProtocolException {
+        switch (type) {
+            case TYPE_TEXT:
+                return readUtf8(in, end - in.position());
+            case TYPE_START:
+                return decodeState("START#", in);
+            case TYPE_SYNC:
+                return decodeState("SYNC#", in);
+            default:
+                throw new ProtocolException("Unknown frame type " + type);
+        }
+    }
+
+    /**
+     * Packs "top|TURN:n|name:c,c,;name:...;" starting at the given offset.
+     *
+     * @param msg   the full text message
+     * @param from  index where the state data begins
+     * @param out   destination buffer
+     */
+    private static void encodeState(String msg, int from, ByteBuffer out) {
+        int bar = msg.indexOf('|', from);
+        out.put(cardByte(msg, from, bar));
+
+        int turnStart = msg.indexOf(':', bar) + 1;
+        int turnEnd = msg.indexOf('|', turnStart);
+        writeVarint(out, Integer.parseInt(msg, turnStart, turnEnd, 10));
+
+        // Count players first so the count can precede them
+        int players = 0;
+        for (int i = turnEnd + 1; i < msg.length(); i++) {
+            if (msg.charAt(i) == ';') players++;
+        }
+        writeVarint(out, players);
+
+        int pos = turnEnd + 1;
+        for (int p = 0; p < players; p++) {
+            int colon = msg.indexOf(':', pos);
+            int semi = msg.indexOf(';', pos);
+            byte[] name = msg.substring(pos, colon).getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, name.length);
+            out.put(name);
+
+            if (msg.charAt(colon + 1) == StateCodec.HIDDEN) {
+                writeVarint(out, Integer.parseInt(msg, colon + 2, semi, 10) << 1 | 1);
+                pos = semi + 1;
+                continue;
+            }
+
+            // Reserve the card count, then write cards
+            int countAt = out.position();
+            out.put((byte) 0);
+            int count = 0;
+            int c = colon + 1;
+            while (c < semi) {
+                int comma = msg.indexOf(',', c);
+                if (comma < 0 || comma > semi) comma = semi;
+                if (comma > c) {
+                    out.put(cardByte(msg, c, comma));
+                    count++;
+                }
+                c = comma + 1;
+            }
+            int value = count << 1;
+            if (value < 0x80) {
+                out.put(countAt, (byte) value);
+            } else {
+                // Rare: more than 63 cards, widen the count in place
+                int end = out.position();
+                int extra = varintSize(value) - 1;
+                for (int i = end - 1; i > countAt; i--) {
+                    out.put(i + extra, out.get(i));
+                }
+                out.position(countAt);
+                writeVarint(out, value);
+                out.position(end + extra);
+            }
+            pos = semi + 1;
+        }
+    }
+
+    /**
+     * Unpacks a state payload into the text form parsed by GameController.
+     *
+     * @param prefix "START#" or "SYNC#"
+     * @param in     buffer positioned after the type byte
+     * @return the text message
+     * @throws ProtocolException if a card byte is invalid
+     */
+    private static String decodeState(String prefix, ByteBuffer in) throws ProtocolException {
+        StringBuilder sb = new StringBuilder(128);
+        sb.append(prefix);
+        appendCard(sb, in.get());
+        sb.append("|TURN:").append(readVarint(in)).append('|');
+
+        int players = readVarint(in);
+        for (int p = 0; p < players; p++) {
+            int nameLength = readVarint(in);
+            if (nameLength < 0 || nameLength > in.remaining()) throw new BufferUnderflowException();
+            sb.append(readUtf8(in, nameLength)).append(':');
+            int value = readVarint(in);
+            if (value < 0) throw new BufferUnderflowException();
+            if ((value & 1) != 0) {
+                sb.append(StateCodec.HIDDEN).append(value >>> 1).append(';');
+                continue;
+            }
+            int count = value >>> 1;
+            for (int i = 0; i < count; i++) {
+                appendCard(sb, in.get());
+                sb.append(',');
+            }
+            sb.append(';');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Packs a card written as text (e.g. "Qh", "1d", "10d") into one byte.
+     *
+     * @param s     source text
+     * @param start first character of the card
+     * @param end   index after the suit character
+     * @return packed card byte
+     */
+    static byte cardByte(CharSequence s, int start, int end) {
+        Card card = Card.lookup(s.charAt(start), s.charAt(end - 1));
+        if (card == null) {
+            throw new IllegalArgumentException("Bad card: " + s.subSequence(start, end));
+        }
+        return (byte) (card.getSuitCode() << 4 | card.getRankCode());
+    }
+
+    /**
+     * Appends the text form of a packed card.
+     *
+     * @param sb   destination
+     * @param card packed card byte
+     * @throws ProtocolException if the byte is not a valid card
+     */
+    private static void appendCard(StringBuilder sb, byte card) throws ProtocolException {
+        int rank = card & 0x0F;
+        int suit = (card >> 4) & 0x03;
+        if (rank >= Card.RANKS.length() || (card & 0xC0) != 0) {
+            throw new ProtocolException("Bad card byte " + card);
+        }
+        sb.append(Card.valueOf(rank, suit));
+    }
+
+    /**
+     * Writes an unsigned varint (7 bits per byte, low bits first).
+     *
+     * @param out   destination
+     * @param value non-negative value
+     */
+    static void writeVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint.
+     *
+     * @param in source positioned at the varint
+     * @return the value, or -1 if the buffer ends inside the varint
+     * @throws ProtocolException if the varint is longer than 5 bytes
+     */
+    static int readVarint(ByteBuffer in) throws ProtocolException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!in.hasRemaining()) return -1;
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new ProtocolException("Varint too long");
+    }
+
+    /**
+     * Returns the number of bytes a varint takes.
+     *
+     * @param value non-negative value
+     * @return encoded size in bytes
+     */
+    static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Reads a UTF-8 string of the given byte length.
+     *
+     * @param in     source
+     * @param length number of bytes
+     * @return decoded string
+     */
+    private static String readUtf8(ByteBuffer in, int length) {
+        if (in.hasArray()) {
+            String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return s;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,75 @@
+package network;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread-safe pool of fixed-size direct ByteBuffers.
+ * Direct buffers are expensive to allocate and free, so the NIO transport
+ * borrows them from here for outbound messages and hands them back once written.
+ */
+class BufferPool {
+
+    /** Capacity of every pooled buffer. */
+    private final int bufferSize;
+
+    /** Upper bound on idle buffers kept around. */
+    private final int maxPooled;
+
+    /** Idle buffers ready for reuse. */
+    private final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+
+    /** Number of idle buffers currently in the pool. */
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    /**
+     * Constructs a pool.
+     *
+     * @param bufferSize capacity of each buffer in bytes
+     * @param maxPooled  maximum number of idle buffers to retain
+     */
+    BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * Borrows a cleared buffer, allocating a new one if the pool is empty.
+     *
+     * @return a buffer ready for writing
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        pooled.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. Buffers not created by this pool are ignored.
+     *
+     * @param buffer the buffer to give back
+     */
+    void release(ByteBuffer buffer) {
+        if (!buffer.isDirect() || buffer.capacity() != bufferSize) return;
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            return;
+        }
+        buffer.clear();
+        free.offer(buffer);
+    }
+
+    /**
+     * Returns the capacity of pooled buffers.
+     *
+     * @return buffer size in bytes
+     */
+    int getBufferSize() {
+        return bufferSize;
+    }
+}
@@ -6,17 +6,77 @@ import javax.swing.JOptionPane;
 
 /**
  * The Client class handles the network connection from the player's side.
- * It connects to the server, sends and receives messages using the NetworkHandler.
+ * It connects to the server, sends and receives messages over a Connection
+ * (a NetworkHandler thread or a NIO channel, depending on the transport mode).
+ * <p>
+ * Once a ReconnectListener is set, a connection that drops while the client
+ * holds a session is resumed on a new one, retrying for a while before the
+ * listener is told the connection is lost.
  */
 public class Client {
+    /** System property: "false" to join without a resumable session */
+    public static final String SESSION_PROPERTY = "crazyeights.session";
+
+    /** Attempts to resume a dropped session before giving up */
+    private static final int RECONNECT_ATTEMPTS = 10;
+
+    /** Wait before the first attempt; each further attempt waits this much longer */
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+
+    /**
+     * Told when a dropped connection has been resumed or given up on.
+     */
+    public interface ReconnectListener {
+
+        /**
+         * The server took the client back on a new connection (connection thread).
+         */
+        void resumed();
+
+        /**
+         * The connection dropped and could not be resumed (reconnect thread).
+         */
+        void lost();
+    }
+
     /** The server IP or hostname to connect to */
     private final String host;
 
     /** The port number to connect to on the server */
     private final int port;
 
-    /** The NetworkHandler used to send/receive messages */
-    private NetworkHandler handler;
+    /** Transport used for the connection */
+    private final TransportMode mode;
+
+    /** True to ask the server for BinaryProtocol frames at JOIN */
+    private final boolean requestBinary = BinaryProtocol.requestedBySystemProperty();
+
+    /** True to ask the server for a session token and sequence-numbered messages at JOIN */
+    private final boolean requestSession = !"false".equalsIgnoreCase(System.getProperty(SESSION_PROPERTY, "true").trim());
+
+    /** The connection used to send/receive messages */
+    private volatile Connection handler;
+
+    /** The game's listener, fed by every connection of this client (set by connect) */
+    private volatile NetworkHandler.MessageListener gameListener;
+
+    /** Told about resumed and lost connections; null leaves drops alone */
+    private volatile ReconnectListener reconnectListener;
+
+    /** Number of the current connection; drops of earlier ones are ignored */
+    private volatile int connection;
+
+    /** Resume attempts since the session was last confirmed by the server */
+    private volatile int attempts;
+
+    /** Set by disconnect(), so the drop that follows is not resumed */
+    private volatile boolean leaving;
+
+    /** Session token from the server, used to resume after a drop */
+    private volatile String sessionToken;
+
+    /** Sequence number of the last room message received (connection thread) */
+    private volatile int lastSequence;
 
     /**
      * Constructs a client with a specified server address and port.
@@ -25,24 +85,53 @@ public class Client {
      * @param port the port number to connect to
      */
     public Client(String host, int port) {
+        this(host, port, TransportMode.fromSystemProperty());
+    }
+
+    /**
+     * Constructs a client that uses the given transport.
+     *
+     * @param host the server IP or hostname
+     * @param port the port number to connect to
+     * @param mode transport carrying the connection
+     */
+    public Client(String host, int port, TransportMode mode) {
         this.host = host;
         this.port = port;
+        this.mode = mode;
     }
 
     /**
-     * Connects to the server and starts a NetworkHandler thread.
+     * Connects to the server and starts receiving messages.
      *
      * @param playerName the name of the player joining
      * @param listener the listener to handle incoming messages
      */
     public void connect(String playerName, NetworkHandler.MessageListener listener) {
+        connect(playerName, null, listener);
+    }
+
+    /**
+     * Connects to the server and joins the room with the given join code.
+     *
+     * @param playerName the name of the player joining
+     * @param roomCode the join code of the room, or null for the server's default room
+     * @param listener the listener to handle incoming messages
+     */
+    public void connect(String playerName, String roomCode, NetworkHandler.MessageListener listener) {
+        // Format acknowledgements and session bookkeeping are handled here, not by the game
+        gameListener = listener;
+
         try {
-            Socket socket = new Socket(host, port); // Establish socket connection
-            handler = new NetworkHandler(socket, null);
-            handler.setListener(listener);
-            new Thread(handler).start(); // Run the handler on a new thread
+            open();
 
-            send("JOIN#" + playerName); // Send initial join message to server
+            // Send initial join message to server, asking for binary frames and a session if enabled
+            String code = roomCode == null ? "" : roomCode.trim();
+            StringBuilder join = new StringBuilder("JOIN#").append(playerName);
+            if (!code.isEmpty() || requestBinary || requestSession) join.append('#').append(code);
+            if (requestBinary) join.append('#').append(BinaryProtocol.TOKEN);
+            if (requestSession) join.append('#').append(Protocol.SEQUENCED);
+            send(join.toString());
         } catch (IOException e) {
             // Show error dialog if connection fails
             JOptionPane.showMessageDialog(
@@ -54,6 +143,156 @@ public class Client {
         }
     }
 
+    /**
+     * Opens a new connection after the old one dropped and resumes the session:
+     * the server sends only the messages after the last sequence number seen,
+     * or a full snapshot if it no longer holds them.
+     *
+     * @return false if there is no session to resume or the server cannot be reached
+     */
+    public boolean reconnect() {
+        String token = sessionToken;
+        if (token == null || gameListener == null) return false;
+
+        connection++; // The old connection's drop is expected
+        Connection old = handler;
+        if (old != null) old.close();
+        try {
+            open();
+        } catch (IOException e) {
+            return false;
+        }
+        String resume = Protocol.format(Protocol.SESSION, token, String.valueOf(lastSequence));
+        send(requestBinary ? resume + Protocol.SEP + BinaryProtocol.TOKEN : resume);
+        return true;
+    }
+
+    /**
+     * Sets the listener told about dropped connections, and starts resuming
+     * the session automatically whenever the connection drops.
+     *
+     * @param listener the listener, or null to leave drops to the caller
+     */
+    public void setReconnectListener(ReconnectListener listener) {
+        this.reconnectListener = listener;
+    }
+
+    /**
+     * Opens the transport connection, delivering messages through receive()
+     * and reporting its drop.
+     *
+     * @throws IOException if the server cannot be reached
+     */
+    private void open() throws IOException {
+        int number = connection;
+        NetworkHandler.MessageListener wireListener = new NetworkHandler.MessageListener() {
+            @Override
+            public void onMessageReceived(String message) {
+                receive(message, gameListener);
+            }
+
+            @Override
+            public void onDisconnected() {
+                dropped(number);
+            }
+        };
+        if (mode == TransportMode.NIO) {
+            handler = NioTransport.clientTransport().connect(host, port, wireListener);
+        } else {
+            Socket socket = new Socket(host, port); // Establish socket connection
+            NetworkHandler networkHandler = new NetworkHandler(socket, null);
+            networkHandler.setListener(wireListener);
+            networkHandler.start(mode == TransportMode.VIRTUAL); // Run the handler on a new thread
+            handler = networkHandler;
+        }
+    }
+
+    /**
+     * Starts resuming the session after a connection dropped, unless the
+     * player left, an older connection dropped, or nobody listens for it.
+     *
+     * @param number number of the connection that dropped
+     */
+    private void dropped(int number) {
+        if (leaving || number != connection || sessionToken == null || reconnectListener == null) return;
+        ConnectionThreads.start(this::resume, "reconnect", false);
+    }
+
+    /**
+     * Tries to reconnect, waiting longer before each attempt; tells the
+     * listener once the attempts run out (reconnect thread). A new connection
+     * the server turns away drops again and comes back here.
+     */
+    private void resume() {
+        while (attempts < RECONNECT_ATTEMPTS) {
+            int attempt = ++attempts;
+            try {
+                Thread.sleep(RECONNECT_DELAY_MILLIS * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (leaving) return;
+            if (reconnect()) return; // The server answers with SESSION, or closes it
+        }
+        ReconnectListener listener = reconnectListener;
+        if (listener != null) listener.lost();
+    }
+
+    /**
+     * Handles one incoming message before the game sees it: switches to binary
+     * frames on the server's ACK, records the session token and sequence number,
+     * strips sequence stamps and drops messages already seen before a reconnect.
+     *
+     * @param message  the message received
+     * @param listener the game's listener
+     */
+    private void receive(String message, NetworkHandler.MessageListener listener) {
+        if (message.equals(BinaryProtocol.ACK)) {
+            handler.setBinary(true);
+            return;
+        }
+        if (message.startsWith(Protocol.SESSION + Protocol.SEP)) {
+            String[] parts = Protocol.parse(message);
+            if (parts.length > 2) {
+                sessionToken = parts[1];
+                lastSequence = Integer.parseInt(parts[2]);
+            }
+            if (attempts > 0) {
+                attempts = 0; // The server has taken the session back
+                ReconnectListener reconnected = reconnectListener;
+                if (reconnected != null) reconnected.resumed();
+            }
+            return;
+        }
+        int from = Protocol.stampedOffset(message);
+        if (from > 0) {
+            int seq = Integer.parseInt(message, Protocol.SEQ.length() + 1, from - 1, 10);
+            if (seq <= lastSequence) return; // Replayed twice around a reconnect
+            lastSequence = seq;
+            message = message.substring(from);
+        }
+        listener.onMessageReceived(message);
+    }
+
+    /**
+     * Gets the session token issued by the server at JOIN.
+     *
+     * @return the token, or null if the server issued none
+     */
+    public String getSessionToken() {
+        return sessionToken;
+    }
+
+    /**
+     * Gets the sequence number of the last room message received.
+     *
+     * @return last sequence number
+     */
+    public int getLastSequence() {
+        return lastSequence;
+    }
+
     /**
      * Sends a message to the server via the handler.
      *
@@ -69,6 +308,7 @@ public class Client {
      * Disconnects from the server and closes the connection.
      */
     public void disconnect() {
+        leaving = true;
         if (handler != null) {
             handler.send(Protocol.DISCONNECT + Protocol.SEP + "bye"); // Notify disconnection
             handler.close(); // Close socket
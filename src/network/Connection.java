@@ -0,0 +1,74 @@
+package network;
+
+/**
+ * A Connection is one player's link to the server, independent of the transport
+ * that carries it. The Server and its rooms only talk to players through this
+ * interface, so the thread-per-connection NetworkHandler and the selector-based
+ * NioConnection can be swapped by configuration.
+ */
+public interface Connection {
+
+    /**
+     * Queues a message for delivery to the other end.
+     *
+     * @param message the message string (without line terminator)
+     */
+    void send(String message);
+
+    /**
+     * Switches outgoing messages between text lines and BinaryProtocol frames.
+     * The switch takes effect after the messages already queued.
+     * Incoming messages are always accepted in either form.
+     *
+     * @param binary true to send binary frames (after negotiation at JOIN)
+     */
+    void setBinary(boolean binary);
+
+    /**
+     * Closes the connection. Messages already sent are flushed first where possible.
+     */
+    void close();
+
+    /**
+     * Sets the player's name (usually from JOIN# message).
+     *
+     * @param name the player's name
+     */
+    void setPlayerName(String name);
+
+    /**
+     * Returns the player's name associated with this connection.
+     *
+     * @return the player name, or null before JOIN
+     */
+    String getPlayerName();
+
+    /**
+     * Sets the room this connection has been seated in.
+     *
+     * @param room the joined room
+     */
+    void setRoom(Room room);
+
+    /**
+     * Returns the room this connection is seated in.
+     *
+     * @return the room, or null if not yet joined
+     */
+    Room getRoom();
+
+    /**
+     * Returns the number of messages queued and not yet written.
+     *
+     * @return outbound queue depth
+     */
+    int getQueueDepth();
+
+    /**
+     * Returns the number of outgoing messages the slow consumer policy has
+     * dropped or collapsed on this connection.
+     *
+     * @return drop count
+     */
+    long getDroppedMessages();
+}
@@ -0,0 +1,56 @@
+package network;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Starts the threads that run connection read loops.
+ * Read loops can run on platform threads or, on Java 21 and newer, on virtual threads.
+ * The project is compiled for Java 17, so the virtual-thread executor is looked up
+ * reflectively and platform threads are used when it is not available.
+ */
+final class ConnectionThreads {
+
+    /** Virtual-thread-per-task executor, or null on runtimes without virtual threads. */
+    private static final ExecutorService VIRTUAL = createVirtualExecutor();
+
+    private ConnectionThreads() {
+    }
+
+    /**
+     * Returns true if this runtime can run read loops on virtual threads.
+     *
+     * @return true if virtual threads are available
+     */
+    static boolean virtualThreadsAvailable() {
+        return VIRTUAL != null;
+    }
+
+    /**
+     * Runs a task on a new thread.
+     *
+     * @param task    the task to run (usually a read loop)
+     * @param name    name for platform threads
+     * @param virtual true to prefer a virtual thread
+     */
+    static void start(Runnable task, String name, boolean virtual) {
+        if (virtual && VIRTUAL != null) {
+            VIRTUAL.execute(task);
+        } else {
+            new Thread(task, name).start();
+        }
+    }
+
+    /**
+     * Looks up Executors.newVirtualThreadPerTaskExecutor() reflectively.
+     *
+     * @return the executor, or null if virtual threads are unavailable
+     */
+    private static ExecutorService createVirtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
@@ -28,6 +28,9 @@ public class CustomDialog extends JDialog {
     /** Client-side address input field */
     private JTextField addressFieldClient;
 
+    /** Client-side room code input field (blank joins the host's table) */
+    private JTextField roomFieldClient;
+
     /** Label used to display connection status messages */
     private JLabel statusLabel;
 
@@ -44,7 +47,7 @@ public class CustomDialog extends JDialog {
      */
     public CustomDialog(Frame parent) {
         super(parent, "Connect to Game", true);
-        setSize(350, 250);
+        setSize(350, 280);
         setLocationRelativeTo(parent);
         setLayout(new BorderLayout());
 
@@ -99,6 +102,7 @@ public class CustomDialog extends JDialog {
         nameFieldClient = new JTextField("Player");
         addressFieldClient = new JTextField("localhost");
         portFieldClient = new JTextField("10000");
+        roomFieldClient = new JTextField("");
 
         panel.add(new JLabel("Name:"));
         panel.add(nameFieldClient);
@@ -109,6 +113,9 @@ public class CustomDialog extends JDialog {
         panel.add(new JLabel("Port (10000-65535):"));
         panel.add(portFieldClient);
 
+        panel.add(new JLabel("Room code (optional):"));
+        panel.add(roomFieldClient);
+
         JButton connectButton = new JButton("Connect");
         connectButton.addActionListener(this::onConnect);
         getRootPane().setDefaultButton(connectButton);
@@ -154,6 +161,15 @@ public class CustomDialog extends JDialog {
         return addressFieldClient != null ? addressFieldClient.getText() : "localhost";
     }
 
+    /**
+     * Gets the room code entered by the user (Client only).
+     * Returns null when hosting or when left blank, meaning the host's own table.
+     */
+    public String getRoomCode() {
+        if (isHost || roomFieldClient == null || roomFieldClient.getText().isBlank()) return null;
+        return roomFieldClient.getText().trim();
+    }
+
     /**
      * Gets the selected port number.
      * Defaults to 5000 if invalid.
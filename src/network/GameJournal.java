@@ -0,0 +1,877 @@
+package network;
+
+import model.Card;
+import model.Deck;
+import model.Game;
+import model.MoveResult;
+import model.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * GameJournal is an append-only log of every game a server is running, so
+ * in-flight games survive a crash of the host process.
+ * <p>
+ * Rooms append compact binary records (snapshot, play, draw, suit, chat, end)
+ * from their mailboxes into a shared buffer; one writer thread swaps the
+ * buffer out every few milliseconds, writes it to the current segment file
+ * with a FileChannel and forces it to disk once for the whole batch (group
+ * commit). Moves are sent to the table before their batch is on disk, so a
+ * crash loses at most the last commit interval.
+ * <p>
+ * Each record is {@code [int length][int crc32][byte type][long game][long version][payload]};
+ * a torn or corrupt record ends the replay of its segment. Segments roll over
+ * at a size limit; rooms then write a fresh snapshot into the new segment on
+ * their next change, and a segment is deleted once no live game needs it.
+ * <p>
+ * Opening a journal recovers it: segments are memory-mapped and replayed from
+ * each game's latest snapshot, the surviving games are snapshotted into a new
+ * segment, and the old segments are dropped.
+ */
+public class GameJournal implements AutoCloseable {
+
+    /** System property: directory for journal segments (unset disables the journal). */
+    public static final String DIR_PROPERTY = "crazyeights.journal.dir";
+
+    /** System property: group commit interval in milliseconds. */
+    public static final String COMMIT_PROPERTY = "crazyeights.journal.commit.millis";
+
+    /** System property: segment size in megabytes before the journal rolls over. */
+    public static final String SEGMENT_PROPERTY = "crazyeights.journal.segment.mb";
+
+    /** Records a room writes between snapshots, bounding replay work per game. */
+    public static final int SNAPSHOT_EVERY = 256;
+
+    // Record types
+    private static final byte SNAPSHOT = 1;
+    private static final byte PLAY = 2;
+    private static final byte DRAW = 3;
+    private static final byte SUIT = 4;
+    private static final byte CHAT = 5;
+    private static final byte END = 6;
+
+    /** Length and CRC in front of every record. */
+    private static final int PREFIX = 8;
+
+    /** Type, game id and version at the start of every record body. */
+    private static final int HEADER = 1 + 8 + 8;
+
+    /** Bytes of chat text kept per record; longer lines are cut. */
+    private static final int MAX_TEXT = 1024;
+
+    /** Size of each of the two commit buffers. */
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    /** Directory holding the segments. */
+    private final Path dir;
+
+    /** Segment size that triggers a rollover. */
+    private final long segmentBytes;
+
+    /** Group commit interval. */
+    private final long commitNanos;
+
+    /** Guards the pending buffer. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Signalled when records are waiting. */
+    private final Condition ready = lock.newCondition();
+
+    /** Signalled when the writer has taken the pending records or made a batch durable. */
+    private final Condition progress = lock.newCondition();
+
+    /** Records waiting for the next commit (guarded by lock). */
+    private ByteBuffer pending = ByteBuffer.allocate(BUFFER_BYTES);
+
+    /** Buffer being written by the writer thread; swapped with pending. */
+    private ByteBuffer writing = ByteBuffer.allocate(BUFFER_BYTES);
+
+    /** Checksum of the record being appended (guarded by lock). */
+    private final CRC32 crc = new CRC32();
+
+    /** Offset of the record being appended in the pending buffer (guarded by lock). */
+    private int recordStart;
+
+    /** Records appended so far (guarded by lock). */
+    private long appended;
+
+    /** Records written and forced to disk so far (guarded by lock). */
+    private long durable;
+
+    /** Set when a caller needs the pending records written without waiting out the commit interval (guarded by lock). */
+    private boolean urgent;
+
+    /** Current segment file (writer thread only after construction). */
+    private FileChannel channel;
+
+    /** Bytes written to the current segment (writer thread only). */
+    private long segmentSize;
+
+    /** Number of the current segment. */
+    private volatile long segment;
+
+    /** Number of the oldest segment still on disk (writer thread only). */
+    private long oldestSegment;
+
+    /** Segment holding the latest snapshot of each live game. */
+    private final ConcurrentMap<Long, Long> snapshotSegments = new ConcurrentHashMap<>();
+
+    /** Next game id to hand out. */
+    private final AtomicLong nextGameId = new AtomicLong(1);
+
+    /** Games rebuilt when the journal was opened. */
+    private final List<Recovered> recovered;
+
+    /** Time spent replaying the segments. */
+    private final long recoveryNanos;
+
+    /** Group commits (forces) done since the journal was opened. */
+    private final AtomicLong commits = new AtomicLong();
+
+    /** Set once close() has been called (guarded by lock). */
+    private boolean closed;
+
+    /** Thread writing and forcing batches. */
+    private final Thread writer;
+
+    /**
+     * A game rebuilt from the journal, waiting for its players to come back.
+     */
+    public static final class Recovered {
+
+        /** Journal id of the game. */
+        private final long id;
+
+        /** Join code of the room the game was played in. */
+        private final String code;
+
+        /** The rebuilt game. */
+        private final Game game;
+
+        /** Session token of each seat, null where the player had none. */
+        private final String[] tokens;
+
+        /**
+         * Creates a recovered game.
+         *
+         * @param id     journal id of the game
+         * @param code   join code of its room
+         * @param game   the rebuilt game
+         * @param tokens session token of each seat
+         */
+        Recovered(long id, String code, Game game, String[] tokens) {
+            this.id = id;
+            this.code = code;
+            this.game = game;
+            this.tokens = tokens;
+        }
+
+        /**
+         * Gets the journal id of the game.
+         *
+         * @return game id
+         */
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * Gets the join code of the room the game was played in.
+         *
+         * @return join code
+         */
+        public String getCode() {
+            return code;
+        }
+
+        /**
+         * Gets the rebuilt game.
+         *
+         * @return game at its last journaled version
+         */
+        public Game getGame() {
+            return game;
+        }
+
+        /**
+         * Gets the session token a seat held when the game was journaled.
+         *
+         * @param seat the seat
+         * @return the token, or null if the player had no session
+         */
+        public String getSessionToken(int seat) {
+            return tokens[seat];
+        }
+    }
+
+    /**
+     * Opens the journal configured by system properties.
+     *
+     * @return the journal, or null if {@link #DIR_PROPERTY} is not set
+     * @throws IOException if the directory cannot be read or written
+     */
+    public static GameJournal fromSystemProperties() throws IOException {
+        String dir = System.getProperty(DIR_PROPERTY);
+        if (dir == null || dir.isBlank()) return null;
+        return new GameJournal(Paths.get(dir),
+                Long.getLong(COMMIT_PROPERTY, 5),
+                Long.getLong(SEGMENT_PROPERTY, 64) << 20);
+    }
+
+    /**
+     * Opens a journal directory, recovering any games left in it.
+     *
+     * @param dir          directory for the segments (created if missing)
+     * @param commitMillis group commit interval in milliseconds
+     * @param segmentBytes segment size that triggers a rollover
+     * @throws IOException if the directory cannot be read or written
+     */
+    public GameJournal(Path dir, long commitMillis, long segmentBytes) throws IOException {
+        this.dir = dir;
+        this.commitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, commitMillis));
+        this.segmentBytes = Math.max(segmentBytes, BUFFER_BYTES);
+        Files.createDirectories(dir);
+
+        long start = System.nanoTime();
+        TreeMap<Long, Path> old = listSegments();
+        Map<Long, Recovered> games = new LinkedHashMap<>();
+        for (Path file : old.values()) {
+            replay(file, games);
+        }
+        games.values().removeIf(r -> r.game.getWinner() >= 0); // Won, but the END did not make it
+        recoveryNanos = System.nanoTime() - start;
+        recovered = Collections.unmodifiableList(new ArrayList<>(games.values()));
+
+        segment = old.isEmpty() ? 1 : old.lastKey() + 1;
+        oldestSegment = segment;
+        channel = openSegment(segment);
+        writer = new Thread(this::writeLoop, "game-journal");
+        writer.setDaemon(true);
+        writer.start();
+
+        // The old segments may go once the surviving games are snapshotted again
+        for (Recovered r : recovered) {
+            snapshot(r.id, r.code, r.game, r.tokens);
+        }
+        sync();
+        for (Path file : old.values()) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Gets the games rebuilt when the journal was opened.
+     *
+     * @return recovered games, in the order they were started
+     */
+    public List<Recovered> getRecovered() {
+        return recovered;
+    }
+
+    /**
+     * Gets the time spent replaying the journal when it was opened.
+     *
+     * @return recovery time in milliseconds
+     */
+    public double getRecoveryMillis() {
+        return recoveryNanos / 1e6;
+    }
+
+    /**
+     * Gets the number of records written since the journal was opened.
+     *
+     * @return record count
+     */
+    public long getRecords() {
+        lock.lock();
+        try {
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of group commits since the journal was opened.
+     *
+     * @return commit count
+     */
+    public long getCommits() {
+        return commits.get();
+    }
+
+    /**
+     * Hands out an id for a newly dealt game.
+     *
+     * @return unique game id
+     */
+    public long nextGameId() {
+        return nextGameId.getAndIncrement();
+    }
+
+    /**
+     * Returns true if a game's latest snapshot is in a segment that has since
+     * rolled over, so its next record should be a snapshot.
+     *
+     * @param game game id
+     * @return true if a fresh snapshot is needed
+     */
+    public boolean needsSnapshot(long game) {
+        Long at = snapshotSegments.get(game);
+        return at == null || at < segment;
+    }
+
+    /**
+     * Appends the complete state of a game whose players hold no sessions.
+     *
+     * @param game game id
+     * @param code join code of the room
+     * @param g    the game
+     */
+    public void snapshot(long game, String code, Game g) {
+        snapshot(game, code, g, null);
+    }
+
+    /**
+     * Appends the complete state of a game; replay starts from its latest
+     * snapshot. The seats' session tokens are kept so the players can take
+     * their seats back with them after a crash.
+     *
+     * @param game   game id
+     * @param code   join code of the room
+     * @param g      the game
+     * @param tokens session token of each seat (null entries for none), or null
+     */
+    public void snapshot(long game, String code, Game g, String[] tokens) {
+        List<Player> players = g.getPlayers();
+        byte[] codeBytes = utf8(code);
+        byte[][] names = new byte[players.size()][];
+        byte[][] tokenBytes = new byte[players.size()][];
+        byte[] order = new byte[Card.COUNT];
+        int cursor = g.getDeck().copyOrder(order);
+        int size = 2 + codeBytes.length + 5 + Card.COUNT + 1;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = utf8(players.get(i).getName());
+            tokenBytes[i] = utf8(tokens != null && tokens[i] != null ? tokens[i] : "");
+            size += 2 + names[i].length + 8 + 2 + tokenBytes[i].length;
+        }
+        if (!fits(size)) {
+            System.err.println("Journal: snapshot of game " + game + " is " + size + " bytes, too large to record");
+            return;
+        }
+
+        lock.lock();
+        try {
+            ByteBuffer b = begin(SNAPSHOT, game, g.getVersion(), size);
+            b.putShort((short) codeBytes.length).put(codeBytes);
+            b.put((byte) g.getCurrentTurnIndex());
+            b.put((byte) (g.isAwaitingSuit() ? 1 : 0));
+            b.put((byte) g.getWinner());
+            b.put((byte) g.getTopCard().getOrdinal());
+            b.put((byte) cursor).put(order);
+            b.put((byte) names.length);
+            for (int i = 0; i < names.length; i++) {
+                b.putShort((short) names[i].length).put(names[i]);
+                b.putLong(players.get(i).getCards().getMask());
+            }
+            for (byte[] token : tokenBytes) {
+                b.putShort((short) token.length).put(token);
+            }
+            finish(b);
+            snapshotSegments.put(game, segment);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends a played card.
+     *
+     * @param game    game id
+     * @param version game version after the play
+     * @param seat    the player's seat
+     * @param card    the card played
+     */
+    public void play(long game, long version, int seat, Card card) {
+        lock.lock();
+        try {
+            ByteBuffer b = begin(PLAY, game, version, 2);
+            b.put((byte) seat).put((byte) card.getOrdinal());
+            finish(b);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends a draw. The cards are not stored: replay draws them from the
+     * snapshotted deck order.
+     *
+     * @param game    game id
+     * @param version game version after the draw
+     * @param seat    the player's seat
+     */
+    public void draw(long game, long version, int seat) {
+        lock.lock();
+        try {
+            ByteBuffer b = begin(DRAW, game, version, 1);
+            b.put((byte) seat);
+            finish(b);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends a suit choice after an 8.
+     *
+     * @param game     game id
+     * @param version  game version after the choice
+     * @param seat     the player's seat
+     * @param suitCode the chosen suit code
+     */
+    public void suit(long game, long version, int seat, int suitCode) {
+        lock.lock();
+        try {
+            ByteBuffer b = begin(SUIT, game, version, 2);
+            b.put((byte) seat).put((byte) suitCode);
+            finish(b);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends a chat line sent at a game's table.
+     *
+     * @param game    game id
+     * @param version game version when the line was sent
+     * @param text    the chat message
+     */
+    public void chat(long game, long version, String text) {
+        byte[] bytes = utf8(text);
+        int length = Math.min(bytes.length, MAX_TEXT);
+        lock.lock();
+        try {
+            ByteBuffer b = begin(CHAT, game, version, 2 + length);
+            b.putShort((short) length).put(bytes, 0, length);
+            finish(b);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends the end of a game (won, or abandoned by every player); it will not be recovered.
+     *
+     * @param game    game id
+     * @param version final game version
+     */
+    public void end(long game, long version) {
+        lock.lock();
+        try {
+            finish(begin(END, game, version, 0));
+        } finally {
+            lock.unlock();
+        }
+        snapshotSegments.remove(game);
+    }
+
+    /**
+     * Waits until every record appended so far is on disk.
+     */
+    public void sync() {
+        lock.lock();
+        try {
+            long target = appended;
+            urgent = true;
+            ready.signal();
+            while (durable < target && !closed) {
+                progress.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the remaining records and closes the current segment.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            ready.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns true if a record with this payload fits in a commit buffer.
+     *
+     * @param payload payload size in bytes
+     * @return true if the record can be appended
+     */
+    private static boolean fits(int payload) {
+        return PREFIX + HEADER + payload <= BUFFER_BYTES;
+    }
+
+    /**
+     * Reserves room for a record in the pending buffer and writes its header (lock held).
+     * Waits for the writer if the buffer is full.
+     *
+     * @param type    record type
+     * @param game    game id
+     * @param version game version
+     * @param payload payload size in bytes
+     * @return the pending buffer, positioned after the header
+     * @throws IllegalArgumentException if the record is larger than a commit buffer
+     */
+    private ByteBuffer begin(byte type, long game, long version, int payload) {
+        if (!fits(payload)) throw new IllegalArgumentException("Journal record of " + payload + " bytes does not fit a commit buffer");
+        int size = PREFIX + HEADER + payload;
+        while (pending.remaining() < size && !closed) {
+            urgent = true;
+            ready.signal();
+            progress.awaitUninterruptibly();
+        }
+        if (closed) throw new IllegalStateException("Journal is closed");
+
+        ByteBuffer b = pending;
+        recordStart = b.position();
+        b.putInt(HEADER + payload).putInt(0);
+        b.put(type).putLong(game).putLong(version);
+        return b;
+    }
+
+    /**
+     * Fills in the checksum of the record just written and wakes the writer (lock held).
+     *
+     * @param b the pending buffer, positioned after the record
+     */
+    private void finish(ByteBuffer b) {
+        crc.reset();
+        crc.update(b.array(), recordStart + PREFIX, b.position() - recordStart - PREFIX);
+        b.putInt(recordStart + 4, (int) crc.getValue());
+        appended++;
+        if (recordStart == 0) ready.signal(); // First record of a batch
+    }
+
+    /**
+     * Writer thread: waits for records, lets a commit interval's worth gather,
+     * then writes and forces them as one batch.
+     */
+    private void writeLoop() {
+        try {
+            while (true) {
+                ByteBuffer batch;
+                long batchEnd;
+                lock.lock();
+                try {
+                    while (pending.position() == 0 && !closed) {
+                        ready.awaitUninterruptibly();
+                    }
+                    if (pending.position() == 0) break; // Closed and drained
+
+                    // Group commit: let more records join unless someone is waiting on them
+                    long wait = commitNanos;
+                    while (wait > 0 && !closed && !urgent && pending.position() < BUFFER_BYTES / 2) {
+                        try {
+                            wait = ready.awaitNanos(wait);
+                        } catch (InterruptedException e) {
+                            break;
+                        }
+                    }
+                    urgent = false;
+                    batch = pending;
+                    pending = writing;
+                    writing = batch;
+                    batchEnd = appended;
+                    progress.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+
+                write(batch);
+
+                lock.lock();
+                try {
+                    durable = batchEnd;
+                    progress.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Game journal stopped: " + e.getMessage());
+            lock.lock();
+            try {
+                closed = true;
+                progress.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes one batch to the current segment, forces it, and rolls over to a
+     * new segment once the current one is full (writer thread).
+     *
+     * @param batch records to write, from position 0 to the buffer position
+     * @throws IOException if the segment cannot be written
+     */
+    private void write(ByteBuffer batch) throws IOException {
+        batch.flip();
+        while (batch.hasRemaining()) {
+            segmentSize += channel.write(batch);
+        }
+        channel.force(false);
+        batch.clear();
+        commits.incrementAndGet();
+
+        if (segmentSize >= segmentBytes) {
+            channel.close();
+            channel = openSegment(segment + 1);
+            segmentSize = 0;
+            segment++;
+        }
+        deleteUnneededSegments();
+    }
+
+    /**
+     * Deletes segments older than every live game's latest snapshot (writer thread).
+     *
+     * @throws IOException if a segment cannot be deleted
+     */
+    private void deleteUnneededSegments() throws IOException {
+        long keep = segment;
+        for (long at : snapshotSegments.values()) {
+            keep = Math.min(keep, at);
+        }
+        while (oldestSegment < keep) {
+            Files.deleteIfExists(segmentPath(oldestSegment++));
+        }
+    }
+
+    /**
+     * Replays one segment into the map of live games. A torn or corrupt record
+     * ends the segment; a record that passes its checksum but cannot be read
+     * drops its game.
+     *
+     * @param file  the segment file
+     * @param games live games by id, updated in place
+     * @throws IOException if the segment cannot be read
+     */
+    private void replay(Path file, Map<Long, Recovered> games) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (in.size() == 0) return;
+            MappedByteBuffer b = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            byte[] body = new byte[256];
+            List<Card> drawn = new ArrayList<>();
+
+            while (b.remaining() >= PREFIX + HEADER) {
+                int length = b.getInt();
+                int sum = b.getInt();
+                if (length < HEADER || length > b.remaining()) break; // Torn tail
+                if (body.length < length) body = new byte[length];
+                b.get(body, 0, length);
+                crc.reset();
+                crc.update(body, 0, length);
+                if ((int) crc.getValue() != sum) break; // Corrupt record
+
+                ByteBuffer r = ByteBuffer.wrap(body, 0, length);
+                byte type = r.get();
+                long id = r.getLong();
+                long version = r.getLong();
+                nextGameId.accumulateAndGet(id + 1, Math::max);
+
+                try {
+                    if (type == SNAPSHOT) {
+                        games.put(id, readSnapshot(id, version, r));
+                        continue;
+                    }
+                    if (type == END) {
+                        games.remove(id);
+                        continue;
+                    }
+                    Recovered game = games.get(id);
+                    if (game == null || type == CHAT) continue;
+
+                    if (!apply(game.game, type, r, drawn)) {
+                        System.err.println("Journal: game " + id + " does not replay, dropped");
+                        games.remove(id);
+                        continue;
+                    }
+                    game.game.setVersion(version);
+                } catch (RuntimeException e) {
+                    System.err.println("Journal: game " + id + " has an unreadable record (" + e + "), dropped");
+                    games.remove(id); // Corrupt inside a valid checksum; the other games still recover
+                }
+            }
+            if (b.hasRemaining()) {
+                System.err.println("Journal: " + file.getFileName() + " ends in a torn record, replayed up to it");
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot record body.
+     *
+     * @param id      game id
+     * @param version game version
+     * @param r       the body after the header
+     * @return the rebuilt game
+     */
+    private static Recovered readSnapshot(long id, long version, ByteBuffer r) {
+        String code = readUtf8(r);
+        int turn = r.get();
+        boolean awaitingSuit = r.get() != 0;
+        int winner = r.get();
+        Card top = Card.byOrdinal(r.get());
+        int cursor = r.get();
+        byte[] order = new byte[Card.COUNT];
+        r.get(order);
+
+        int count = r.get();
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Player p = new Player(readUtf8(r));
+            p.addCards(r.getLong());
+            players.add(p);
+        }
+
+        String[] tokens = new String[count];
+        for (int i = 0; i < count; i++) {
+            String token = readUtf8(r);
+            tokens[i] = token.isEmpty() ? null : token;
+        }
+
+        Game game = new Game(players, new Deck(order, cursor), top);
+        game.setCurrentTurnIndex(turn);
+        game.setAwaitingSuit(awaitingSuit);
+        game.setWinner(winner);
+        game.setVersion(version);
+        return new Recovered(id, code, game, tokens);
+    }
+
+    /**
+     * Re-applies one journaled intent through the game's own rules.
+     *
+     * @param game  the game
+     * @param type  record type
+     * @param r     the body after the header
+     * @param drawn scratch list for draws
+     * @return true if the intent applied as it did originally
+     */
+    private static boolean apply(Game game, byte type, ByteBuffer r, List<Card> drawn) {
+        int seat = r.get();
+        switch (type) {
+            case PLAY:
+                return game.play(seat, Card.byOrdinal(r.get())) == MoveResult.OK;
+            case DRAW:
+                drawn.clear();
+                return game.draw(seat, drawn) == MoveResult.OK;
+            case SUIT:
+                return game.chooseSuit(seat, (int) r.get()) == MoveResult.OK;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Lists the segment files in the journal directory by number.
+     *
+     * @return segments, oldest first
+     * @throws IOException if the directory cannot be listed
+     */
+    private TreeMap<Long, Path> listSegments() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "journal-*.log")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segments.put(Long.parseLong(name.substring(8, name.length() - 4)), file);
+                } catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Opens a new, empty segment for appending.
+     *
+     * @param number segment number
+     * @return the segment's channel
+     * @throws IOException if the file cannot be created
+     */
+    private FileChannel openSegment(long number) throws IOException {
+        return FileChannel.open(segmentPath(number), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Gets the file name of a segment.
+     *
+     * @param number segment number
+     * @return path of the segment file
+     */
+    private Path segmentPath(long number) {
+        return dir.resolve(String.format("journal-%08d.log", number));
+    }
+
+    /**
+     * Encodes a string as UTF-8.
+     *
+     * @param s the string
+     * @return its bytes
+     */
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a short-length-prefixed UTF-8 string.
+     *
+     * @param r buffer positioned at the length
+     * @return the string
+     */
+    private static String readUtf8(ByteBuffer r) {
+        byte[] bytes = new byte[r.getShort() & 0xFFFF];
+        r.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,99 @@
+package network;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JoinStats measures the join handshake of one server's rooms: how long a
+ * table takes from the JOIN that fills its last seat to START being queued
+ * (time-to-first-deal), and how many connections never identified in time.
+ */
+public class JoinStats {
+
+    /** Tables dealt. */
+    private final LongAdder deals = new LongAdder();
+
+    /** Sum of last-JOIN-to-START times. */
+    private final LongAdder dealNanos = new LongAdder();
+
+    /** Longest last-JOIN-to-START time. */
+    private final LongAccumulator maxDealNanos = new LongAccumulator(Math::max, 0);
+
+    /** Connections closed for not sending JOIN in time. */
+    private final LongAdder timeouts = new LongAdder();
+
+    /** Totals at the previous report. */
+    private long lastDeals, lastTimeouts;
+
+    /**
+     * Records a table being dealt.
+     *
+     * @param nanos time from the last JOIN arriving to START being queued
+     */
+    void recordDeal(long nanos) {
+        deals.increment();
+        dealNanos.add(nanos);
+        maxDealNanos.accumulate(nanos);
+    }
+
+    /**
+     * Records a connection closed for not identifying in time.
+     */
+    void recordTimeout() {
+        timeouts.increment();
+    }
+
+    /**
+     * Gets the number of tables dealt since the server started.
+     *
+     * @return deal count
+     */
+    public long getDeals() {
+        return deals.sum();
+    }
+
+    /**
+     * Gets the mean time from the last JOIN to START.
+     *
+     * @return mean time-to-first-deal in milliseconds, or 0 before the first deal
+     */
+    public double getMeanDealMillis() {
+        long n = deals.sum();
+        return n == 0 ? 0 : dealNanos.sum() / 1e6 / n;
+    }
+
+    /**
+     * Gets the longest time from the last JOIN to START.
+     *
+     * @return max time-to-first-deal in milliseconds
+     */
+    public double getMaxDealMillis() {
+        return maxDealNanos.get() / 1e6;
+    }
+
+    /**
+     * Gets the number of connections that never identified in time.
+     *
+     * @return join timeout count
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Summarizes deals and timeouts since the previous call.
+     *
+     * @return report line, or null if nothing happened in the interval
+     */
+    public synchronized String report() {
+        long dealt = deals.sum();
+        long timedOut = timeouts.sum();
+        long delta = (dealt - lastDeals) + (timedOut - lastTimeouts);
+        lastDeals = dealt;
+        lastTimeouts = timedOut;
+
+        if (delta == 0) return null;
+        return String.format("Joins: %d tables dealt (last JOIN to START %.2f ms mean, %.2f ms max), %d join timeouts",
+                dealt, getMeanDealMillis(), getMaxDealMillis(), timedOut);
+    }
+}
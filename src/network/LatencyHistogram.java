@@ -0,0 +1,162 @@
+package network;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A LatencyHistogram records durations in log-linear buckets, HdrHistogram
+ * style: every power of two is split into 16 equal sub-buckets, so any
+ * recorded value is reported within 6.25% over the whole range from 1 ns to
+ * hours, in a fixed 976-bucket array.
+ * <p>
+ * Recording is one array increment on a stripe picked by the calling thread,
+ * so room mailboxes on different cores do not fight over one cache line.
+ * Reading merges the stripes; it is meant for the metrics endpoints, not the
+ * hot path.
+ */
+public final class LatencyHistogram {
+
+    /** Bits of sub-bucket precision per power of two. */
+    private static final int SUB_BITS = 4;
+
+    /** Sub-buckets per power of two. */
+    private static final int SUB = 1 << SUB_BITS;
+
+    /** Buckets needed to cover every non-negative long. */
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB;
+
+    /** Bucket counts, one array per stripe. */
+    private final AtomicLongArray[] stripes;
+
+    /** Stripe count minus one (a power of two minus one). */
+    private final int mask;
+
+    /** Sum of all recorded values. */
+    private final LongAdder sum = new LongAdder();
+
+    /** Largest recorded value. */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates a histogram with one stripe per core, up to 16.
+     */
+    public LatencyHistogram() {
+        int stripes = Integer.highestOneBit(Math.min(16, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        this.stripes = new AtomicLongArray[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+        this.mask = stripes - 1;
+    }
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos the duration in nanoseconds (negative values count as 0)
+     */
+    @SuppressWarnings("deprecation") // Thread.getId: threadId() needs Java 19
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        stripes[(int) Thread.currentThread().getId() & mask].incrementAndGet(bucket(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Gets the bucket a value falls in.
+     *
+     * @param value a non-negative value
+     * @return bucket index
+     */
+    static int bucket(long value) {
+        if (value < SUB) return (int) value;
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        return (exp - SUB_BITS + 1) * SUB + (int) ((value >>> (exp - SUB_BITS)) & (SUB - 1));
+    }
+
+    /**
+     * Gets the largest value that falls in a bucket.
+     *
+     * @param bucket bucket index
+     * @return highest value counted in that bucket
+     */
+    static long highestValue(int bucket) {
+        if (bucket < SUB) return bucket;
+        int exp = bucket / SUB + SUB_BITS - 1;
+        long lowest = (long) (SUB + bucket % SUB) << (exp - SUB_BITS);
+        return lowest + (1L << (exp - SUB_BITS)) - 1;
+    }
+
+    /**
+     * Merges the stripes into one set of bucket counts.
+     *
+     * @return counts by bucket
+     */
+    private long[] counts() {
+        long[] counts = new long[BUCKETS];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += stripe.get(i);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Gets several percentiles from one consistent merge of the stripes.
+     *
+     * @param percentiles percentiles between 0 and 100, in any order
+     * @return the value at each percentile in nanoseconds (0 while empty)
+     */
+    public long[] percentiles(double... percentiles) {
+        long[] counts = counts();
+        long total = 0;
+        for (long c : counts) total += c;
+
+        long[] values = new long[percentiles.length];
+        if (total == 0) return values;
+        for (int p = 0; p < percentiles.length; p++) {
+            long rank = Math.max(1, (long) Math.ceil(percentiles[p] / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    values[p] = Math.min(highestValue(i), max.get());
+                    break;
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return count
+     */
+    public long getCount() {
+        long total = 0;
+        for (long c : counts()) total += c;
+        return total;
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return mean in nanoseconds, or 0 while empty
+     */
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return max in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+}
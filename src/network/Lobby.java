@@ -0,0 +1,280 @@
+package network;
+
+import model.Player;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The Lobby keeps track of every Room hosted by one Server process
+ * and routes joining players to a room by its join code.
+ * Rooms are created on first join and dropped once their last player leaves.
+ * New rooms may start with AI players in their first seats.
+ */
+public class Lobby {
+
+    /** Join code used by clients that do not send one (older clients, the host). */
+    public static final String DEFAULT_CODE = "MAIN";
+
+    /** Characters used for generated join codes (no 0/O or 1/I look-alikes). */
+    private static final char[] CODE_CHARS = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789".toCharArray();
+
+    /** Length of generated join codes. */
+    private static final int CODE_LENGTH = 6;
+
+    /** Active rooms keyed by join code. */
+    private final ConcurrentMap<String, Room> rooms = new ConcurrentHashMap<>();
+
+    /** Rooms keyed by the session tokens they issued. */
+    private final ConcurrentMap<String, Room> sessions = new ConcurrentHashMap<>();
+
+    /** Random source for join codes. */
+    private final SecureRandom random = new SecureRandom();
+
+    /** Move counters shared by every room in this lobby. */
+    private final MoveStats moveStats = new MoveStats();
+
+    /** Join handshake counters shared by every room in this lobby. */
+    private final JoinStats joinStats = new JoinStats();
+
+    /** Traffic counters and latency histograms shared by every room in this lobby. */
+    private final ServerMetrics metrics = new ServerMetrics();
+
+    /** Journal new games are recorded in (null if the server keeps none). */
+    private volatile GameJournal journal;
+
+    /**
+     * Returns the room for a join code, creating it if needed.
+     * A null or blank code maps to the default room.
+     *
+     * @param code the join code sent by the client
+     * @return the room for that code
+     */
+    public Room getOrCreate(String code) {
+        return rooms.computeIfAbsent(normalize(code), c -> seatAi(new Room(c, moveStats, this)));
+    }
+
+    /**
+     * Seats a connection in the room for a join code. The room seats it on its
+     * own mailbox; a room that closed in the meantime sends it back here to get
+     * a fresh room.
+     *
+     * @param code    the join code sent by the client
+     * @param handler the identified connection
+     * @return completes with the room the connection was seated in, or
+     *         exceptionally if the room turned it away
+     */
+    public CompletableFuture<Room> join(String code, Connection handler) {
+        return join(code, handler, false);
+    }
+
+    /**
+     * Seats a connection in the room for a join code, optionally with a session.
+     *
+     * @param code    the join code sent by the client
+     * @param handler the identified connection
+     * @param session true to issue a session token for reconnecting
+     * @return completes with the room the connection was seated in, or
+     *         exceptionally if the room turned it away
+     */
+    public CompletableFuture<Room> join(String code, Connection handler, boolean session) {
+        return getOrCreate(code).join(handler, session);
+    }
+
+    /**
+     * Issues a new session token for a room.
+     *
+     * @param room the room the player is seated in
+     * @return unguessable session token
+     */
+    String openSession(Room room) {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, room);
+        return token;
+    }
+
+    /**
+     * Finds the room that issued a session token.
+     *
+     * @param token the session token
+     * @return the room, or null if the session has expired
+     */
+    public Room getSessionRoom(String token) {
+        return sessions.get(token);
+    }
+
+    /**
+     * Expires the session tokens of a room that has closed.
+     *
+     * @param tokens the room's tokens
+     */
+    void closeSessions(Collection<String> tokens) {
+        for (String token : tokens) {
+            sessions.remove(token);
+        }
+    }
+
+    /**
+     * Looks up an existing room.
+     *
+     * @param code the join code
+     * @return the room, or null if no such room exists
+     */
+    public Room get(String code) {
+        return rooms.get(normalize(code));
+    }
+
+    /**
+     * Creates a new room under a freshly generated join code.
+     *
+     * @return the new room
+     */
+    public Room createRoom() {
+        while (true) {
+            String code = generateCode();
+            Room room = new Room(code, moveStats, this);
+            if (rooms.putIfAbsent(code, room) == null) {
+                return seatAi(room);
+            }
+        }
+    }
+
+    /**
+     * Lists a game recovered from the journal under its old join code, with
+     * the session tokens its players held. The room closes and ends the game
+     * if no player is back within the grace period.
+     *
+     * @param restored the recovered game
+     * @return the room holding it
+     */
+    public Room restore(GameJournal.Recovered restored) {
+        Room room = new Room(moveStats, this, restored);
+        rooms.put(room.getCode(), room);
+        for (int seat = 0; seat < restored.getGame().getPlayers().size(); seat++) {
+            String token = restored.getSessionToken(seat);
+            if (token != null) sessions.put(token, room);
+        }
+        for (Player p : restored.getGame().getPlayers()) {
+            if (AiSeat.isAiName(p.getName())) room.join(new AiSeat(p.getName()));
+        }
+        room.awaitPlayers();
+        return room;
+    }
+
+    /**
+     * Fills the first seats of a new room with AI players, as many as
+     * {@link AiSeat#SEATS_PROPERTY} asks for.
+     *
+     * @param room the new room
+     * @return the room
+     */
+    private static Room seatAi(Room room) {
+        for (int i = 1; i <= AiSeat.SEATS; i++) {
+            room.join(new AiSeat(AiSeat.NAME_PREFIX + i));
+        }
+        return room;
+    }
+
+    /**
+     * Drops a room from the lobby once nobody is left at the table
+     * (called by the room after it closed).
+     *
+     * @param room the closed room
+     */
+    void remove(Room room) {
+        rooms.remove(room.getCode(), room);
+    }
+
+    /**
+     * Returns the move counters shared by all rooms.
+     *
+     * @return move statistics
+     */
+    public MoveStats getMoveStats() {
+        return moveStats;
+    }
+
+    /**
+     * Returns the join handshake counters shared by all rooms.
+     *
+     * @return join statistics
+     */
+    public JoinStats getJoinStats() {
+        return joinStats;
+    }
+
+    /**
+     * Returns the traffic counters and latency histograms shared by all rooms.
+     *
+     * @return server metrics
+     */
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the journal that rooms created from now on record their games in.
+     *
+     * @param journal the journal, or null to stop journaling new rooms
+     */
+    public void setJournal(GameJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Returns the journal games are recorded in.
+     *
+     * @return the journal, or null if none is kept
+     */
+    public GameJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Returns the number of active rooms.
+     *
+     * @return room count
+     */
+    public int getRoomCount() {
+        return rooms.size();
+    }
+
+    /**
+     * Returns a live view of all active rooms.
+     *
+     * @return collection of rooms
+     */
+    public Collection<Room> getRooms() {
+        return rooms.values();
+    }
+
+    /**
+     * Maps a client-supplied code to its canonical form.
+     *
+     * @param code raw join code (may be null)
+     * @return upper-case code, or DEFAULT_CODE if blank
+     */
+    private static String normalize(String code) {
+        if (code == null || code.isBlank()) return DEFAULT_CODE;
+        return code.trim().toUpperCase();
+    }
+
+    /**
+     * Generates a random join code.
+     *
+     * @return new join code
+     */
+    private String generateCode() {
+        char[] code = new char[CODE_LENGTH];
+        for (int i = 0; i < code.length; i++) {
+            code[i] = CODE_CHARS[random.nextInt(CODE_CHARS.length)];
+        }
+        return new String(code);
+    }
+}
@@ -0,0 +1,66 @@
+package network;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A Mailbox runs one room's tasks one at a time, in the order they were posted,
+ * on a pool shared by every room. A room touches its state only from its mailbox,
+ * so it needs no lock, while different rooms run in parallel on all cores.
+ * <p>
+ * At most one drain of a mailbox is scheduled at any time; a drain runs a
+ * bounded batch and then yields the worker so busy rooms cannot starve others.
+ */
+final class Mailbox implements Executor {
+
+    /** Worker pool shared by all mailboxes: one daemon thread per core, FIFO scheduling. */
+    private static final ForkJoinPool ROOMS = new ForkJoinPool(
+            Runtime.getRuntime().availableProcessors(),
+            ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+
+    /** Tasks run per drain before the worker is handed to another mailbox. */
+    private static final int BATCH = 64;
+
+    /** Posted tasks, oldest first. */
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    /** True while a drain is scheduled or running. */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Posts a task; it runs after every task posted before it.
+     *
+     * @param task the task to run on the mailbox
+     */
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        if (scheduled.compareAndSet(false, true)) {
+            ROOMS.execute(this::drain);
+        }
+    }
+
+    /**
+     * Runs up to one batch of tasks, then reschedules if more are waiting.
+     */
+    private void drain() {
+        for (int i = 0; i < BATCH; i++) {
+            Runnable task = tasks.poll();
+            if (task == null) break;
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace(); // One bad message must not stop the room
+            }
+        }
+
+        scheduled.set(false);
+        // A task posted after the last poll may have seen the flag still set
+        if (!tasks.isEmpty() && scheduled.compareAndSet(false, true)) {
+            ROOMS.execute(this::drain);
+        }
+    }
+}
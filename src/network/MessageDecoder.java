@@ -0,0 +1,106 @@
+package network;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits an incoming byte stream into protocol messages.
+ * The stream may mix newline-terminated text lines and BinaryProtocol frames;
+ * each message is recognised by its first byte. Used by both transports.
+ */
+class MessageDecoder {
+
+    /** Longest text line or frame accepted. */
+    private static final int MAX_MESSAGE = BinaryProtocol.MAX_FRAME + 8;
+
+    /** Received bytes not yet decoded (kept in read mode between calls). */
+    private ByteBuffer buffer = ByteBuffer.allocate(512);
+
+    /** Bytes of the current text line already scanned for a newline. */
+    private int scanned;
+
+    /**
+     * Constructs an empty decoder.
+     */
+    MessageDecoder() {
+        buffer.flip();
+    }
+
+    /**
+     * Appends received bytes.
+     *
+     * @param src bytes to append (read mode; fully consumed)
+     * @throws ProtocolException if a single message grows beyond the limit
+     */
+    void feed(ByteBuffer src) throws ProtocolException {
+        ensureCapacity(src.remaining());
+        buffer.compact();
+        buffer.put(src);
+        buffer.flip();
+    }
+
+    /**
+     * Appends received bytes.
+     *
+     * @param bytes  source array
+     * @param offset first byte
+     * @param length number of bytes
+     * @throws ProtocolException if a single message grows beyond the limit
+     */
+    void feed(byte[] bytes, int offset, int length) throws ProtocolException {
+        feed(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /**
+     * Decodes the next complete message, if any.
+     *
+     * @return the next message, or null if more bytes are needed
+     * @throws ProtocolException if a frame is malformed
+     */
+    String next() throws ProtocolException {
+        if (!buffer.hasRemaining()) return null;
+
+        int start = buffer.position();
+        if (BinaryProtocol.isFrameStart(buffer.get(start))) {
+            return BinaryProtocol.decode(buffer);
+        }
+
+        // Text line: look for the newline, resuming where the last scan stopped
+        int limit = buffer.limit();
+        for (int i = start + scanned; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                int end = i;
+                if (end > start && buffer.get(end - 1) == '\r') end--;
+                String line = new String(buffer.array(), buffer.arrayOffset() + start, end - start,
+                        StandardCharsets.UTF_8);
+                buffer.position(i + 1);
+                scanned = 0;
+                return line;
+            }
+        }
+        scanned = limit - start;
+        return null;
+    }
+
+    /**
+     * Grows the buffer so that the pending bytes plus the new ones fit.
+     *
+     * @param incoming number of bytes about to be appended
+     * @throws ProtocolException if the pending message is too large
+     */
+    private void ensureCapacity(int incoming) throws ProtocolException {
+        int needed = buffer.remaining() + incoming;
+        if (needed <= buffer.capacity()) return;
+        if (needed > MAX_MESSAGE) {
+            throw new ProtocolException("Message too long");
+        }
+
+        int capacity = buffer.capacity();
+        while (capacity < needed) capacity *= 2;
+        ByteBuffer bigger = ByteBuffer.allocate(capacity);
+        bigger.put(buffer);
+        bigger.flip();
+        buffer = bigger;
+    }
+}
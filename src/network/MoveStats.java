@@ -0,0 +1,74 @@
+package network;
+
+import model.MoveResult;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MoveStats counts the move intents the rooms of one server have accepted and rejected.
+ * Rooms record into shared LongAdders so busy tables do not contend on one counter;
+ * the server periodically turns the counts into rates for its log.
+ */
+public class MoveStats {
+
+    /** Intents applied to a game. */
+    private final LongAdder accepted = new LongAdder();
+
+    /** Intents refused (wrong turn, card not held, no match, ...). */
+    private final LongAdder rejected = new LongAdder();
+
+    /** Totals and time at the previous report, used to compute rates. */
+    private long lastAccepted, lastRejected, lastReportNanos = System.nanoTime();
+
+    /**
+     * Records the outcome of one intent.
+     *
+     * @param result the result returned by the game
+     */
+    public void record(MoveResult result) {
+        if (result == MoveResult.OK) {
+            accepted.increment();
+        } else {
+            rejected.increment();
+        }
+    }
+
+    /**
+     * Gets the number of intents accepted since the server started.
+     *
+     * @return accepted count
+     */
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    /**
+     * Gets the number of intents rejected since the server started.
+     *
+     * @return rejected count
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Summarizes move and rejection rates since the previous call.
+     *
+     * @return report line, or null if no intents arrived in the interval
+     */
+    public synchronized String report() {
+        long now = System.nanoTime();
+        long acc = accepted.sum();
+        long rej = rejected.sum();
+        long dAcc = acc - lastAccepted;
+        long dRej = rej - lastRejected;
+        double seconds = (now - lastReportNanos) / 1e9;
+
+        lastAccepted = acc;
+        lastRejected = rej;
+        lastReportNanos = now;
+
+        if (dAcc + dRej == 0) return null;
+        return String.format("Moves: %.1f/s accepted, %.1f/s rejected (%.1f%% rejected, %d/%d total)",
+                dAcc / seconds, dRej / seconds, 100.0 * dRej / (dAcc + dRej), acc, rej);
+    }
+}
@@ -2,28 +2,57 @@ package network;
 
 import java.io.*;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * NetworkHandler manages input/output for a single client connection.
  * It handles reading from the socket, notifying listeners, or forwarding messages to the server.
  * It can act either on the client side (with listener) or server side (with server ref).
+ * <p>
+ * Outgoing messages go into an OutboundQueue (bounded on the server side) drained by the handler's own
+ * writer thread, which writes everything queued and then flushes once, so senders
+ * never block on a slow socket.
  */
-public class NetworkHandler implements Runnable {
+public class NetworkHandler implements Runnable, Connection {
 
 	/** The client socket connection */
     private final Socket socket;
     
-    /** Buffered reader for incoming messages */
-    private final BufferedReader reader;
+    /** Raw input stream for incoming messages */
+    private final InputStream input;
     
-    /** Writer for sending messages to the client */
-    private final PrintWriter writer;
+    /** Splits incoming bytes into text lines and binary frames */
+    private final MessageDecoder decoder = new MessageDecoder();
+    
+    /** Buffered output stream for sending messages to the client */
+    private final OutputStream output;
+    
+    /** Messages waiting for the writer thread */
+    private final OutboundQueue outbound;
+    
+    /** Scratch buffer for encoding binary frames (writer thread only) */
+    private ByteBuffer frameBuffer = ByteBuffer.allocate(1024);
+    
+    /** True once the writer has switched to binary frames (writer thread only) */
+    private boolean binary;
+    
+    /** True once the writer thread has been started */
+    private volatile boolean writing;
     
     /** Reference to the server (only used on server side) */
     private final Server server;
+
+    /** Traffic counters of the server (null on the client side) */
+    private final ServerMetrics metrics;
     
     /** Player's name, if already joined */
-    private String playerName;
+    private volatile String playerName;
+
+    /** Room this connection is seated in (server side, null until JOIN) */
+    private volatile Room room;
     
     /** Message listener callback (only used on client side) */
     private MessageListener listener;
@@ -33,6 +62,12 @@ public class NetworkHandler implements Runnable {
      */
     public interface MessageListener {
         void onMessageReceived(String message);
+
+        /**
+         * Called once when the connection has closed, whether it dropped or was closed here.
+         */
+        default void onDisconnected() {
+        }
     }
 
     /**
@@ -45,8 +80,23 @@ public class NetworkHandler implements Runnable {
     public NetworkHandler(Socket socket, Server server) throws IOException {
         this.socket = socket;
         this.server = server;
-        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-        this.writer = new PrintWriter(socket.getOutputStream(), true); // auto-flush
+        this.metrics = server != null ? server.getMetrics() : null;
+        this.input = socket.getInputStream();
+        this.output = new BufferedOutputStream(socket.getOutputStream());
+        socket.setTcpNoDelay(true); // The writer already coalesces; Nagle would only add delay
+        this.outbound = server != null ? new OutboundQueue(server.getOutboundStats()) : OutboundQueue.forClient();
+    }
+
+    /**
+     * Starts the read loop and the writer on their own threads.
+     * When virtual threads are requested but unavailable, platform threads are used.
+     *
+     * @param virtual true to run the loops on virtual threads
+     */
+    public void start(boolean virtual) {
+        writing = true;
+        ConnectionThreads.start(this::writeLoop, "writer-" + socket.getRemoteSocketAddress(), virtual);
+        ConnectionThreads.start(this, "connection-" + socket.getRemoteSocketAddress(), virtual);
     }
 
     /**
@@ -59,12 +109,95 @@ public class NetworkHandler implements Runnable {
     }
 
     /**
-     * Sends a message to the connected client.
+     * Queues a message for the writer thread. A client too slow to keep its
+     * queue from filling up is handled by the slow consumer policy.
      *
      * @param message the message string
      */
+    @Override
     public void send(String message) {
-        writer.println(message);
+        if (!outbound.offer(message)) {
+            System.err.println("Slow consumer " + playerName + ", closing connection.");
+            closeNow();
+        }
+    }
+
+    /**
+     * Writer loop: writes every queued message, then flushes once per batch.
+     */
+    private void writeLoop() {
+        List<String> batch = new ArrayList<>();
+        try {
+            while (outbound.drainTo(batch, true)) {
+                for (String message : batch) {
+                    write(message);
+                }
+                batch.clear();
+                output.flush();
+            }
+        } catch (IOException e) {
+            // A failed write is not fatal here; the read loop notices the drop
+        } finally {
+            closeNow();
+        }
+    }
+
+    /**
+     * Writes one message or queue marker to the buffered stream (writer thread only).
+     *
+     * @param message the message, or an OutboundQueue marker
+     * @throws IOException if the socket fails
+     */
+    private void write(String message) throws IOException {
+        if (message == OutboundQueue.BINARY || message == OutboundQueue.TEXT) {
+            binary = message == OutboundQueue.BINARY;
+        } else if (message == OutboundQueue.RESYNC) {
+            Room room = this.room;
+            if (room != null) room.resync(this); // The room queues a fresh snapshot
+        } else if (binary) {
+            int size = BinaryProtocol.maxEncodedSize(message);
+            if (frameBuffer.capacity() < size) frameBuffer = ByteBuffer.allocate(size);
+            frameBuffer.clear();
+            BinaryProtocol.encode(message, frameBuffer);
+            output.write(frameBuffer.array(), 0, frameBuffer.position());
+            if (metrics != null) metrics.messageOut(message, frameBuffer.position());
+        } else {
+            byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+            output.write(bytes);
+            output.write('\n');
+            if (metrics != null) metrics.messageOut(message, bytes.length + 1);
+        }
+    }
+
+    /**
+     * Switches outgoing messages to BinaryProtocol frames (after negotiation at JOIN).
+     * Messages queued before the switch keep their format.
+     *
+     * @param binary true to send binary frames, false for text lines
+     */
+    @Override
+    public void setBinary(boolean binary) {
+        outbound.offer(binary ? OutboundQueue.BINARY : OutboundQueue.TEXT);
+    }
+
+    /**
+     * Returns the number of messages waiting for the writer.
+     *
+     * @return queue depth
+     */
+    @Override
+    public int getQueueDepth() {
+        return outbound.size();
+    }
+
+    /**
+     * Returns the number of messages the slow consumer policy dropped or collapsed.
+     *
+     * @return drop count
+     */
+    @Override
+    public long getDroppedMessages() {
+        return outbound.getDropped();
     }
 
     /**
@@ -72,6 +205,7 @@ public class NetworkHandler implements Runnable {
      *
      * @param name the player's name
      */
+    @Override
     public void setPlayerName(String name) {
         this.playerName = name;
     }
@@ -81,14 +215,50 @@ public class NetworkHandler implements Runnable {
      *
      * @return the player name
      */
+    @Override
     public String getPlayerName() {
         return playerName;
     }
 
     /**
-     * Gracefully closes the socket connection.
+     * Sets the room this connection has been seated in.
+     *
+     * @param room the joined room
      */
+    @Override
+    public void setRoom(Room room) {
+        this.room = room;
+    }
+
+    /**
+     * Returns the room this connection is seated in.
+     *
+     * @return the room, or null if not yet joined
+     */
+    @Override
+    public Room getRoom() {
+        return room;
+    }
+
+    /**
+     * Gracefully closes the connection: the writer sends what is already
+     * queued, then closes the socket.
+     */
+    @Override
     public void close() {
+        if (writing) {
+            outbound.close();
+        } else {
+            closeNow();
+        }
+    }
+
+    /**
+     * Closes the socket immediately, discarding queued messages.
+     */
+    private void closeNow() {
+        outbound.clear();
+        if (socket.isClosed()) return;
         try {
             socket.close();
         } catch (IOException e) {
@@ -102,31 +272,33 @@ public class NetworkHandler implements Runnable {
      */
     @Override
     public void run() {
-        String input;
+        byte[] chunk = new byte[8192];
         try {
-            while ((input = reader.readLine()) != null) {
-                // Handle player joining
-                if (input.startsWith("JOIN#")) {
-                    String name = input.substring(5).trim();
-                    setPlayerName(name);
-                    continue; // Don't broadcast JOIN message
-                }
+            int n;
+            while ((n = input.read(chunk)) != -1) {
+                if (metrics != null) metrics.bytesIn(n);
+                decoder.feed(chunk, 0, n);
 
-                // If on server side, route to server logic
-                if (server != null) {
-                    server.handleMessage(this, input);
-                } 
-                // If client-side, notify the local listener (e.g., GameController)
-                else if (listener != null) {
-                    listener.onMessageReceived(input);
+                String message;
+                while ((message = decoder.next()) != null) {
+                    // If on server side, route to server logic (including JOIN)
+                    if (server != null) {
+                        server.handleMessage(this, message);
+                    } 
+                    // If client-side, notify the local listener (e.g., GameController)
+                    else if (listener != null) {
+                        listener.onMessageReceived(message);
+                    }
                 }
             }
         } catch (IOException e) {
             System.err.println("Connection dropped.");
         } finally {
-            close(); // Cleanup on disconnect
+            closeNow(); // Cleanup on disconnect
             if (server != null) {
                 server.removeClient(this); // Notify server to remove this handler
+            } else if (listener != null) {
+                listener.onDisconnected(); // Let the client resume its session
             }
         }
     }
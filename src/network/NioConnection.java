@@ -0,0 +1,380 @@
+package network;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * NioConnection is the selector-based counterpart of NetworkHandler.
+ * It reads and writes protocol messages (text lines or binary frames) on a non-blocking
+ * SocketChannel owned by one NioEventLoop, so no thread is parked per connection.
+ * Like NetworkHandler, it forwards lines to the Server (server side) or to a
+ * MessageListener (client side).
+ * <p>
+ * Senders only add to a bounded OutboundQueue; the loop encodes queued messages
+ * into pooled buffers when the socket has drained the previous batch and writes
+ * them with one gathering write, so a slow reader backs up its own queue only.
+ */
+public class NioConnection implements Connection, NioEventLoop.Handler {
+
+    /** The non-blocking channel. */
+    private final SocketChannel channel;
+
+    /** Event loop that owns the channel. */
+    private final NioEventLoop loop;
+
+    /** Pool supplying outbound buffers. */
+    private final BufferPool pool;
+
+    /** Reference to the server (only used on server side) */
+    private final Server server;
+
+    /** Message listener callback (only used on client side) */
+    private volatile NetworkHandler.MessageListener listener;
+
+    /** Buffers written per gathering write. */
+    private static final int GATHER = 64;
+
+    /** Messages waiting to be encoded by the loop. */
+    private final OutboundQueue outbound;
+
+    /** Encoded buffers waiting to be written, in order (loop thread only). */
+    private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+
+    /** Scratch for draining the queue (loop thread only). */
+    private final List<String> batch = new ArrayList<>();
+
+    /** Scratch for gathering writes (loop thread only). */
+    private final ByteBuffer[] gather = new ByteBuffer[GATHER];
+
+    /** True while a flush task is queued on the loop. */
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /** Splits incoming bytes into text lines and binary frames (loop thread only). */
+    private final MessageDecoder decoder = new MessageDecoder();
+
+    /** True once the loop has switched to binary frames (loop thread only). */
+    private boolean binary;
+
+    /** Selection key, set once registered on the loop. */
+    private SelectionKey key;
+
+    /** Set by close(); the channel closes once outbound data is written. */
+    private volatile boolean closing;
+
+    /** Set once the channel has been closed. */
+    private volatile boolean closed;
+
+    /** Traffic counters of the server (null on the client side). */
+    private final ServerMetrics metrics;
+
+    /** Player's name, if already joined */
+    private volatile String playerName;
+
+    /** Room this connection is seated in (server side, null until JOIN) */
+    private volatile Room room;
+
+    /**
+     * Constructs a connection for an already connected channel.
+     *
+     * @param channel connected channel (switched to non-blocking here)
+     * @param loop    event loop that will own the channel
+     * @param pool    pool for outbound buffers
+     * @param server  the server instance (null if client-side)
+     * @throws IOException if the channel cannot be configured
+     */
+    NioConnection(SocketChannel channel, NioEventLoop loop, BufferPool pool, Server server) throws IOException {
+        this.channel = channel;
+        this.loop = loop;
+        this.pool = pool;
+        this.server = server;
+        this.metrics = server != null ? server.getMetrics() : null;
+        this.outbound = server != null ? new OutboundQueue(server.getOutboundStats()) : OutboundQueue.forClient();
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+    }
+
+    /**
+     * Registers the channel for reads on its loop.
+     */
+    void register() {
+        loop.execute(() -> {
+            try {
+                key = channel.register(loop.selector(), SelectionKey.OP_READ, this);
+                flush(); // Anything sent before registration
+            } catch (ClosedChannelException e) {
+                closeNow();
+            }
+        });
+    }
+
+    /**
+     * Sets a message listener for client-side message handling.
+     *
+     * @param listener the listener to notify
+     */
+    public void setListener(NetworkHandler.MessageListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Queues the message and schedules a write. A client too slow to keep its
+     * queue from filling up is handled by the slow consumer policy.
+     *
+     * @param message the message string
+     */
+    @Override
+    public void send(String message) {
+        if (closed || closing) return;
+
+        if (!outbound.offer(message)) {
+            System.err.println("Slow consumer " + playerName + ", closing connection.");
+            loop.execute(this::closeNow);
+            return;
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Encodes every queued message into pooled buffers (loop thread only).
+     *
+     * @return true if there is now something to write
+     */
+    private boolean fill() {
+        outbound.drainTo(batch, false);
+        for (String message : batch) {
+            encode(message);
+        }
+        batch.clear();
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Encodes one message or queue marker onto the pending buffers (loop thread only).
+     *
+     * @param message the message, or an OutboundQueue marker
+     */
+    private void encode(String message) {
+        if (message == OutboundQueue.BINARY || message == OutboundQueue.TEXT) {
+            binary = message == OutboundQueue.BINARY;
+            return;
+        }
+        if (message == OutboundQueue.RESYNC) {
+            Room room = this.room;
+            if (room != null) room.resync(this); // The room queues a fresh snapshot
+            return;
+        }
+
+        if (binary) {
+            // Frames are encoded straight into a pooled direct buffer when they fit
+            int size = BinaryProtocol.maxEncodedSize(message);
+            ByteBuffer buffer = size <= pool.getBufferSize() ? pool.acquire() : ByteBuffer.allocate(size);
+            BinaryProtocol.encode(message, buffer);
+            buffer.flip();
+            pending.add(buffer);
+            if (metrics != null) metrics.messageOut(message, buffer.remaining());
+            return;
+        }
+
+        byte[] bytes = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        if (metrics != null) metrics.messageOut(message, bytes.length);
+        int offset = 0;
+        while (offset < bytes.length) {
+            ByteBuffer buffer = pool.acquire();
+            int n = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, n).flip();
+            pending.add(buffer);
+            offset += n;
+        }
+    }
+
+    /**
+     * Makes sure exactly one flush task is pending on the loop.
+     */
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            loop.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Writes as much queued data as the socket accepts (loop thread only).
+     * Messages are only encoded once the previous batch is fully written, so
+     * a stalled socket leaves them counted in the bounded queue.
+     * Leaves OP_WRITE set while data remains.
+     */
+    private void flush() {
+        if (key == null || closed) return;
+
+        try {
+            while (!pending.isEmpty() || fill()) {
+                int n = 0;
+                for (ByteBuffer buffer : pending) {
+                    if (n == GATHER) break;
+                    gather[n++] = buffer;
+                }
+                channel.write(gather, 0, n);
+                Arrays.fill(gather, 0, n, null);
+
+                ByteBuffer buffer;
+                while ((buffer = pending.peek()) != null && !buffer.hasRemaining()) {
+                    pending.poll();
+                    pool.release(buffer);
+                }
+                if (buffer != null) break; // Socket send buffer is full
+            }
+        } catch (IOException e) {
+            closeNow();
+            return;
+        }
+
+        if (pending.isEmpty()) {
+            key.interestOps(SelectionKey.OP_READ);
+            if (closing) closeNow();
+        } else {
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * Handles readiness on the loop thread.
+     */
+    @Override
+    public void onReady(SelectionKey key, ByteBuffer readBuffer) {
+        if (key.isWritable()) flush();
+        if (key.isValid() && key.isReadable()) read(readBuffer);
+    }
+
+    /**
+     * Reads available bytes and dispatches every complete message.
+     *
+     * @param buffer the loop's shared read buffer
+     */
+    private void read(ByteBuffer buffer) {
+        try {
+            buffer.clear();
+            if (channel.read(buffer) < 0) {
+                closeNow();
+                return;
+            }
+            buffer.flip();
+            if (metrics != null) metrics.bytesIn(buffer.remaining());
+            decoder.feed(buffer);
+
+            String message;
+            while (!closed && (message = decoder.next()) != null) {
+                dispatch(message);
+            }
+        } catch (IOException e) {
+            if (e instanceof ProtocolException) {
+                System.err.println("Protocol error, closing connection: " + e.getMessage());
+            }
+            closeNow();
+        }
+    }
+
+    /**
+     * Routes one received line to the server or the client listener.
+     *
+     * @param input the line without terminator
+     */
+    private void dispatch(String input) {
+        if (server != null) {
+            server.handleMessage(this, input);
+        } else if (listener != null) {
+            listener.onMessageReceived(input);
+        }
+    }
+
+    /**
+     * Closes the connection once queued messages have been written.
+     */
+    @Override
+    public void close() {
+        closing = true;
+        scheduleFlush();
+    }
+
+    /**
+     * Closes the channel immediately and notifies the server or the client listener (loop thread only).
+     */
+    private void closeNow() {
+        if (closed) return;
+        closed = true;
+
+        if (key != null) key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Socket close error: " + e.getMessage());
+        }
+
+        outbound.clear();
+        ByteBuffer buffer;
+        while ((buffer = pending.poll()) != null) {
+            pool.release(buffer);
+        }
+
+        if (server != null) {
+            server.removeClient(this); // Notify server to remove this connection
+        } else if (listener != null) {
+            listener.onDisconnected(); // Let the client resume its session
+        }
+    }
+
+    /**
+     * Returns true once the channel has been closed.
+     *
+     * @return true if closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void setBinary(boolean binary) {
+        outbound.offer(binary ? OutboundQueue.BINARY : OutboundQueue.TEXT);
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return outbound.size();
+    }
+
+    @Override
+    public long getDroppedMessages() {
+        return outbound.getDropped();
+    }
+
+    @Override
+    public void setPlayerName(String name) {
+        this.playerName = name;
+    }
+
+    @Override
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    @Override
+    public void setRoom(Room room) {
+        this.room = room;
+    }
+
+    @Override
+    public Room getRoom() {
+        return room;
+    }
+}
@@ -0,0 +1,155 @@
+package network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A single selector thread that serves many non-blocking channels.
+ * All channel registration, reads and writes for the channels it owns happen
+ * on this thread; other threads hand work over through {@link #execute(Runnable)}.
+ */
+class NioEventLoop implements Runnable {
+
+    /** Size of the read buffer shared by every connection on this loop. */
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * Callback for a channel that became ready on this loop.
+     */
+    interface Handler {
+        /**
+         * Called on the loop thread when the channel's key is ready.
+         *
+         * @param key        the ready selection key
+         * @param readBuffer scratch buffer owned by the loop, valid only during the call
+         */
+        void onReady(SelectionKey key, ByteBuffer readBuffer);
+    }
+
+    /** Selector multiplexing this loop's channels. */
+    private final Selector selector;
+
+    /** Work posted from other threads, run before each select. */
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    /** Direct read buffer reused for every read on this loop. */
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+    /** The loop thread. */
+    private final Thread thread;
+
+    /** Cleared to stop the loop. */
+    private volatile boolean running = true;
+
+    /**
+     * Creates and starts an event loop thread.
+     *
+     * @param name   thread name
+     * @param daemon true if the loop should not keep the JVM alive
+     * @throws IOException if the selector cannot be opened
+     */
+    NioEventLoop(String name, boolean daemon) throws IOException {
+        this.selector = Selector.open();
+        this.thread = new Thread(this, name);
+        thread.setDaemon(daemon);
+        thread.start();
+    }
+
+    /**
+     * Returns the selector, for registering channels from loop tasks.
+     *
+     * @return this loop's selector
+     */
+    Selector selector() {
+        return selector;
+    }
+
+    /**
+     * Returns true when called from this loop's thread.
+     *
+     * @return true if on the loop thread
+     */
+    boolean inLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Runs a task on the loop thread, waking the selector if needed.
+     *
+     * @param task work to run on the loop
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        if (!inLoop()) selector.wakeup();
+    }
+
+    /**
+     * Stops the loop and closes its selector and channels.
+     */
+    void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+
+    /**
+     * Main select loop.
+     */
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                runTasks();
+                selector.select();
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) continue;
+
+                    try {
+                        ((Handler) key.attachment()).onReady(key, readBuffer);
+                    } catch (RuntimeException e) {
+                        System.err.println("Event loop handler error: " + e);
+                        e.printStackTrace();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Event loop stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                try {
+                    key.channel().close();
+                } catch (IOException ignored) {
+                    // Already shutting down
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // Already shutting down
+            }
+        }
+    }
+
+    /**
+     * Drains and runs pending tasks.
+     */
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("Event loop task error: " + e);
+                e.printStackTrace();
+            }
+        }
+    }
+}
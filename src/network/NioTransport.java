@@ -0,0 +1,152 @@
+package network;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selector-based transport: a small fixed set of NioEventLoop threads serving
+ * every connection with non-blocking channels and pooled direct buffers.
+ * On the server side it accepts sockets and hands each one to a loop in turn;
+ * on the client side it opens NioConnections to a server.
+ */
+public class NioTransport {
+
+    /** System property overriding the number of event loop threads. */
+    public static final String THREADS_PROPERTY = "crazyeights.nio.threads";
+
+    /** Capacity of pooled outbound buffers. */
+    private static final int BUFFER_SIZE = 4 * 1024;
+
+    /** Maximum idle outbound buffers kept per transport. */
+    private static final int MAX_POOLED = 4096;
+
+    /** Shared client-side transport, created on first use. */
+    private static NioTransport clientTransport;
+
+    /** Event loops serving this transport's channels. */
+    private final NioEventLoop[] loops;
+
+    /** Round-robin cursor for assigning new connections to loops. */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /** Pool of outbound buffers shared by all loops. */
+    private final BufferPool pool = new BufferPool(BUFFER_SIZE, MAX_POOLED);
+
+    /**
+     * Creates a transport with the given number of event loops.
+     *
+     * @param threads number of event loop threads (at least 1)
+     * @param daemon  true if the loops should not keep the JVM alive
+     * @throws IOException if a selector cannot be opened
+     */
+    public NioTransport(int threads, boolean daemon) throws IOException {
+        loops = new NioEventLoop[Math.max(1, threads)];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new NioEventLoop("nio-loop-" + i, daemon);
+        }
+    }
+
+    /**
+     * Returns the configured number of server event loops.
+     * Defaults to the number of available processors.
+     *
+     * @return loop thread count
+     */
+    public static int configuredThreads() {
+        return Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Returns the shared transport used by NIO clients in this JVM.
+     *
+     * @return client transport
+     * @throws IOException if the transport cannot be created
+     */
+    static synchronized NioTransport clientTransport() throws IOException {
+        if (clientTransport == null) {
+            clientTransport = new NioTransport(Integer.getInteger(THREADS_PROPERTY, 1), true);
+        }
+        return clientTransport;
+    }
+
+    /**
+     * Starts accepting connections for the server on the given port.
+     *
+     * @param port   port to listen on
+     * @param server the server receiving messages
+     * @throws IOException if the port cannot be bound
+     */
+    public void bind(int port, Server server) throws IOException {
+        ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+
+        NioEventLoop acceptLoop = loops[0];
+        acceptLoop.execute(() -> {
+            try {
+                serverChannel.register(acceptLoop.selector(), SelectionKey.OP_ACCEPT,
+                        (NioEventLoop.Handler) (key, buffer) -> accept(serverChannel, server));
+            } catch (IOException e) {
+                System.err.println("Accept registration failed: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Accepts every pending socket and assigns it to a loop.
+     *
+     * @param serverChannel the listening channel
+     * @param server        the server receiving messages
+     */
+    private void accept(ServerSocketChannel serverChannel, Server server) {
+        try {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                NioConnection connection = new NioConnection(channel, nextLoop(), pool, server);
+                server.accepted(connection);
+                connection.register();
+            }
+        } catch (IOException e) {
+            System.err.println("Accept failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens a client connection to a server.
+     *
+     * @param host     server host
+     * @param port     server port
+     * @param listener listener for incoming messages
+     * @return the connected NioConnection
+     * @throws IOException if the connection fails
+     */
+    public NioConnection connect(String host, int port, NetworkHandler.MessageListener listener) throws IOException {
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+        NioConnection connection = new NioConnection(channel, nextLoop(), pool, null);
+        connection.setListener(listener);
+        connection.register();
+        return connection;
+    }
+
+    /**
+     * Stops every event loop, closing all channels.
+     */
+    public void shutdown() {
+        for (NioEventLoop loop : loops) {
+            loop.shutdown();
+        }
+    }
+
+    /**
+     * Picks the next loop in round-robin order.
+     *
+     * @return an event loop
+     */
+    private NioEventLoop nextLoop() {
+        return loops[Math.floorMod(next.getAndIncrement(), loops.length)];
+    }
+}
@@ -0,0 +1,272 @@
+package network;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded queue of outgoing messages for one connection, drained by that
+ * connection's writer. Senders (room mailboxes fanning out table messages,
+ * and the connection's own thread answering JOIN) only ever enqueue, so a
+ * client that reads slowly cannot stall its room's mailbox; once its queue is
+ * full the SlowConsumerPolicy decides what gives way.
+ * <p>
+ * Collapsed state updates are not rebuilt here: the queue only remembers that
+ * a snapshot is owed and hands the writer {@link #RESYNC} at the next drain.
+ * Deltas stay safe around it because clients ignore versions at or below the
+ * snapshot's and ask for another snapshot on a gap.
+ * <p>
+ * Format switches travel through the queue as markers too, so a message queued
+ * before binary frames were negotiated (the ACK itself) still goes out as text.
+ */
+final class OutboundQueue {
+
+    /** System property: messages a connection may have queued (default 1024). */
+    public static final String CAPACITY_PROPERTY = "crazyeights.outbound.capacity";
+
+    /** Marker handed to the writer in place of collapsed state; compared by identity. */
+    static final String RESYNC = new String(Protocol.RESYNC);
+
+    /** Marker switching the writer to BinaryProtocol frames at this point in the stream. */
+    static final String BINARY = new String(BinaryProtocol.TOKEN);
+
+    /** Marker switching the writer back to text lines at this point in the stream. */
+    static final String TEXT = new String("TEXT");
+
+    /** Guards the queue; a lock rather than synchronized so virtual threads do not pin. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Signalled when a message arrives or the queue closes. */
+    private final Condition ready = lock.newCondition();
+
+    /** Queued messages, oldest first. */
+    private final ArrayDeque<String> messages = new ArrayDeque<>();
+
+    /** Maximum number of queued messages. */
+    private final int capacity;
+
+    /** What to give up once the queue is full. */
+    private final SlowConsumerPolicy policy;
+
+    /** Server-wide drop counters. */
+    private final OutboundStats stats;
+
+    /** True when queued state was collapsed and the writer owes a snapshot. */
+    private boolean resyncPending;
+
+    /** Messages this queue dropped or collapsed. */
+    private long dropped;
+
+    /** Set by close(); no more messages are accepted. */
+    private boolean closed;
+
+    /**
+     * Creates a queue sized and governed by the system properties.
+     *
+     * @param stats counters to record drops into
+     */
+    OutboundQueue(OutboundStats stats) {
+        this(Integer.getInteger(CAPACITY_PROPERTY, 1024), SlowConsumerPolicy.fromSystemProperty(), stats);
+    }
+
+    /**
+     * Creates an unbounded queue for the client side of a connection. A client
+     * only queues its own intents and chat, so nothing is ever dropped there.
+     *
+     * @return the client's queue
+     */
+    static OutboundQueue forClient() {
+        return new OutboundQueue(Integer.MAX_VALUE, SlowConsumerPolicy.DISCONNECT, new OutboundStats());
+    }
+
+    /**
+     * Creates a queue.
+     *
+     * @param capacity maximum number of queued messages
+     * @param policy   what to give up once the queue is full
+     * @param stats    counters to record drops into
+     */
+    OutboundQueue(int capacity, SlowConsumerPolicy policy, OutboundStats stats) {
+        this.capacity = Math.max(1, capacity);
+        this.policy = policy;
+        this.stats = stats;
+    }
+
+    /**
+     * Queues a message, applying the slow consumer policy when the queue is full.
+     * Messages offered after close() are ignored.
+     *
+     * @param message the message string
+     * @return false if the connection should be closed as a slow consumer
+     */
+    boolean offer(String message) {
+        lock.lock();
+        try {
+            if (closed) return true;
+            boolean kept = messages.size() < capacity ? messages.add(message) : makeRoom(message);
+            if (kept) {
+                ready.signal();
+                return true;
+            }
+            stats.recordDisconnect();
+            closed = true;
+            resyncPending = false;
+            messages.clear();
+            ready.signal();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the policy to a message offered to a full queue (lock held).
+     * The message is queued, dropped or absorbed into a pending snapshot.
+     *
+     * @param message the message being offered
+     * @return false if the connection has to be closed instead
+     */
+    private boolean makeRoom(String message) {
+        if (policy == SlowConsumerPolicy.DISCONNECT) return false;
+
+        if (isChat(message)) {
+            dropped++;
+            stats.recordDroppedChat();
+            return true;
+        }
+        for (Iterator<String> it = messages.iterator(); it.hasNext(); ) {
+            if (isChat(it.next())) {
+                it.remove();
+                dropped++;
+                stats.recordDroppedChat();
+                return messages.add(message);
+            }
+        }
+        if (policy != SlowConsumerPolicy.COLLAPSE_STATE) return false;
+
+        int removed = 0;
+        for (Iterator<String> it = messages.iterator(); it.hasNext(); ) {
+            if (isState(it.next())) {
+                it.remove();
+                removed++;
+            }
+        }
+        if (isState(message)) removed++;
+        if (removed == 0) return false;
+
+        resyncPending = true;
+        dropped += removed;
+        stats.recordCollapsed(removed);
+        return isState(message) || messages.add(message);
+    }
+
+    /**
+     * Moves every queued message into the batch, in order. A pending snapshot
+     * comes first as {@link #RESYNC}.
+     *
+     * @param batch list to fill (expected empty)
+     * @param wait  true to block until a message arrives or the queue closes
+     * @return false once the queue is closed and empty (or the wait was interrupted)
+     */
+    boolean drainTo(List<String> batch, boolean wait) {
+        lock.lock();
+        try {
+            while (wait && messages.isEmpty() && !resyncPending && !closed) {
+                ready.await();
+            }
+            if (resyncPending) {
+                resyncPending = false;
+                batch.add(RESYNC);
+            }
+            batch.addAll(messages);
+            messages.clear();
+            return !batch.isEmpty() || !closed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting messages; the writer still drains what is queued.
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            ready.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting messages and discards what is queued.
+     */
+    void clear() {
+        lock.lock();
+        try {
+            closed = true;
+            resyncPending = false;
+            messages.clear();
+            ready.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of queued messages.
+     *
+     * @return queue depth
+     */
+    int size() {
+        lock.lock();
+        try {
+            return messages.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of messages this queue has dropped or collapsed.
+     *
+     * @return drop count
+     */
+    long getDropped() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns true for chat lines ("3#...", sequence-stamped or not).
+     *
+     * @param message a queued message
+     * @return true if the message is chat
+     */
+    private static boolean isChat(String message) {
+        return message.startsWith(Protocol.CHAT + Protocol.SEP, Protocol.stampedOffset(message));
+    }
+
+    /**
+     * Returns true for messages a fresh snapshot supersedes: START, SYNC and deltas.
+     *
+     * @param message a queued message
+     * @return true if the message carries game state
+     */
+    private static boolean isState(String message) {
+        int at = Protocol.stampedOffset(message);
+        return message.startsWith(Protocol.DELTA + Protocol.SEP, at)
+                || message.startsWith("SYNC#", at)
+                || message.startsWith("START#", at);
+    }
+}
@@ -0,0 +1,94 @@
+package network;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * OutboundStats counts what the outbound queues of one server's connections
+ * had to give up for slow consumers: chat lines dropped, state updates
+ * collapsed into a snapshot, and connections closed.
+ */
+public class OutboundStats {
+
+    /** Chat lines dropped from full queues. */
+    private final LongAdder droppedChat = new LongAdder();
+
+    /** State updates replaced by a fresh snapshot. */
+    private final LongAdder collapsedState = new LongAdder();
+
+    /** Connections closed because their queue stayed full. */
+    private final LongAdder disconnects = new LongAdder();
+
+    /** Totals at the previous report. */
+    private long lastDropped, lastCollapsed, lastDisconnects;
+
+    /**
+     * Records a dropped chat line.
+     */
+    void recordDroppedChat() {
+        droppedChat.increment();
+    }
+
+    /**
+     * Records state updates that were collapsed into a snapshot.
+     *
+     * @param count updates removed from the queue
+     */
+    void recordCollapsed(int count) {
+        collapsedState.add(count);
+    }
+
+    /**
+     * Records a slow consumer being disconnected.
+     */
+    void recordDisconnect() {
+        disconnects.increment();
+    }
+
+    /**
+     * Gets the number of chat lines dropped since the server started.
+     *
+     * @return dropped chat count
+     */
+    public long getDroppedChat() {
+        return droppedChat.sum();
+    }
+
+    /**
+     * Gets the number of state updates collapsed since the server started.
+     *
+     * @return collapsed update count
+     */
+    public long getCollapsedState() {
+        return collapsedState.sum();
+    }
+
+    /**
+     * Gets the number of slow consumers disconnected since the server started.
+     *
+     * @return disconnect count
+     */
+    public long getDisconnects() {
+        return disconnects.sum();
+    }
+
+    /**
+     * Summarizes the drops since the previous call.
+     *
+     * @param queued messages currently queued across all connections
+     * @return report line, or null if nothing was dropped in the interval
+     */
+    public synchronized String report(long queued) {
+        long dropped = droppedChat.sum();
+        long collapsed = collapsedState.sum();
+        long closed = disconnects.sum();
+        long delta = (dropped - lastDropped) + (collapsed - lastCollapsed) + (closed - lastDisconnects);
+
+        lastDropped = dropped;
+        lastCollapsed = collapsed;
+        lastDisconnects = closed;
+
+        if (delta == 0) return null;
+        return String.format("Outbound: %d queued, %d chat dropped, %d state updates collapsed, %d slow consumers closed",
+                queued, dropped, collapsed, closed);
+    }
+}
@@ -21,6 +21,17 @@ public class Protocol {
     public static final String PLAYERS    = "6";   // Player list update
     public static final String TURN       = "7";   // Turn info or wild suit change
     public static final String ERROR      = "8";   // Error message or invalid action
+    public static final String DELTA      = "9";   // Versioned state operation (see StateDelta)
+    public static final String RESYNC     = "10";  // Client missed a version, asks for a snapshot
+    public static final String SESSION    = "11";  // Session token and sequence number; sent back to resume
+    public static final String SEQ        = "12";  // Sequence-numbered room message (12#seq#message)
+
+    /** JOIN option asking for a session token and sequence-numbered room messages */
+    public static final String SEQUENCED  = "SEQ1";
+
+    // Move intents, sent as MOVE#PLAY#card or MOVE#DRAW and checked by the server
+    public static final String PLAY_CARD  = "PLAY";
+    public static final String DRAW_CARD  = "DRAW";
 
     /**
      * Creates a formatted protocol message.
@@ -35,6 +46,29 @@ public class Protocol {
         return type + SEP + String.join(SEP, params);
     }
 
+    /**
+     * Stamps a room message with its sequence number.
+     *
+     * @param seq     the message's sequence number in its room
+     * @param message the message
+     * @return "12#seq#message"
+     */
+    public static String stamp(int seq, String message) {
+        return SEQ + SEP + seq + SEP + message;
+    }
+
+    /**
+     * Finds where the message inside a sequence stamp begins.
+     *
+     * @param message a message, stamped or not
+     * @return index of the stamped message, or 0 if the message is not stamped
+     */
+    public static int stampedOffset(String message) {
+        if (!message.startsWith(SEQ + SEP)) return 0;
+        int end = message.indexOf(SEP, SEQ.length() + 1);
+        return end < 0 ? 0 : end + 1;
+    }
+
     /**
      * Splits a message into protocol ID and its components.
      *
@@ -0,0 +1,106 @@
+package network;
+
+/**
+ * A ReplayBuffer keeps the most recent messages a room sent to its table,
+ * by sequence number, so a player who reconnects with a session token gets
+ * only the messages it missed. Messages that differed per seat (START, draws)
+ * are kept as one entry holding every seat's version.
+ * <p>
+ * The buffer is a fixed ring: once it has wrapped past a client's last
+ * sequence number, that client needs a full snapshot instead.
+ * It belongs to one room and is only used from the room's mailbox.
+ */
+final class ReplayBuffer {
+
+    /** System property: messages kept per room for reconnecting players (default 256). */
+    public static final String CAPACITY_PROPERTY = "crazyeights.replay.capacity";
+
+    /** Entries by sequence number modulo capacity: a String, or a String[] indexed by seat. */
+    private final Object[] entries;
+
+    /** Sequence number of the newest entry (0 while empty). */
+    private int last;
+
+    /**
+     * Creates a buffer with the configured capacity.
+     */
+    ReplayBuffer() {
+        this(Integer.getInteger(CAPACITY_PROPERTY, 256));
+    }
+
+    /**
+     * Creates a buffer holding up to the given number of messages.
+     *
+     * @param capacity messages kept
+     */
+    ReplayBuffer(int capacity) {
+        this.entries = new Object[Math.max(1, capacity)];
+    }
+
+    /**
+     * Adds a message sent to the whole table.
+     *
+     * @param message the message
+     * @return its sequence number
+     */
+    int append(String message) {
+        return add(message);
+    }
+
+    /**
+     * Adds a message sent in a different version to each seat.
+     *
+     * @param messages messages indexed by seat
+     * @return their shared sequence number
+     */
+    int append(String[] messages) {
+        return add(messages);
+    }
+
+    /**
+     * Stores an entry under the next sequence number.
+     *
+     * @param entry a String or a String[]
+     * @return its sequence number
+     */
+    private int add(Object entry) {
+        last++;
+        entries[last % entries.length] = entry;
+        return last;
+    }
+
+    /**
+     * Gets the sequence number of the newest message.
+     *
+     * @return last sequence number, 0 before the first message
+     */
+    int getLast() {
+        return last;
+    }
+
+    /**
+     * Returns true if every message after the given one is still held.
+     *
+     * @param after the last sequence number a client has seen
+     * @return true if the missed messages can be replayed
+     */
+    boolean covers(int after) {
+        return after >= 0 && after <= last && last - after <= entries.length;
+    }
+
+    /**
+     * Gets one seat's version of a held message.
+     *
+     * @param seq  sequence number (must be covered)
+     * @param seat the seat asking, or -1 before the game has started
+     * @return the message, or null if it was not sent to that seat
+     */
+    String get(int seq, int seat) {
+        Object entry = entries[seq % entries.length];
+        if (entry instanceof String[]) {
+            String[] perSeat = (String[]) entry;
+            return seat >= 0 && seat < perSeat.length ? perSeat[seat] : null;
+        }
+        return (String) entry;
+    }
+}
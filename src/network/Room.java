@@ -0,0 +1,935 @@
+package network;
+
+import model.Card;
+import model.Game;
+import model.MoveResult;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A Room is one independent Crazy Eights table hosted by the Server.
+ * Each room owns its own player connections, its own Game and turn state,
+ * so a single server process can run many tables side by side.
+ * <p>
+ * The room's Game is the only authoritative copy. Players send intents
+ * (play a card, draw, choose a suit); the room validates them against the
+ * rules, applies them and fans out the resulting versioned deltas.
+ * <p>
+ * A room is an actor: joins, messages and disconnects are posted to its
+ * Mailbox and handled one at a time, in arrival order, so its state needs
+ * no lock and rooms never contend with each other on the message path.
+ * Methods that run on the mailbox are marked "(mailbox)".
+ * <p>
+ * If the server keeps a GameJournal, every applied intent and chat line is
+ * appended to it, with a full snapshot at the deal and every
+ * {@link GameJournal#SNAPSHOT_EVERY} records. A room rebuilt from the journal
+ * after a crash holds its game with empty seats; players take their seats
+ * back by resuming the sessions they held before the crash, within the grace
+ * period. A plain JOIN cannot claim a recovered seat.
+ * <p>
+ * Players that join with {@link Protocol#SEQUENCED} get a session token, and
+ * every message the room sends to the table reaches them stamped with a
+ * sequence number ("12#seq#message"). The room keeps the latest messages in
+ * a ReplayBuffer; a player whose connection dropped comes back on a new one
+ * with its token and last sequence number and is sent only what it missed,
+ * or a full snapshot if the buffer has rolled over. A running table whose
+ * last player dropped stays open for {@link #GRACE_PROPERTY} seconds.
+ */
+public class Room {
+
+    /** Number of seats at a table; the game starts once all are named. */
+    public static final int CAPACITY = 4;
+
+    /** System property: seconds a running table waits for dropped sessions to resume (default 120). */
+    public static final String GRACE_PROPERTY = "crazyeights.session.grace.seconds";
+
+    /** Seconds a running table stays open after its last player dropped. */
+    private static final long GRACE_SECONDS = Long.getLong(GRACE_PROPERTY, 120);
+
+    /** Runs this room's tasks one at a time; sends only enqueue, so tasks never block. */
+    private final Mailbox mailbox = new Mailbox();
+
+    /** Join code clients use to reach this room. */
+    private final String code;
+
+    /**
+     * Connections seated at this table, in joining order. Changed only by the
+     * mailbox; copy-on-write so monitoring can read it from other threads.
+     */
+    private final List<Connection> clients = new CopyOnWriteArrayList<>();
+
+    /** The game played at this table (null until all seats are filled; written by the mailbox). */
+    private volatile Game game;
+
+    /** Set once the last player has left; joins are sent back to the lobby (written by the mailbox). */
+    private volatile boolean closed;
+
+    /** Optional callback for status text (used by the host dialog). */
+    private volatile Consumer<String> statusListener;
+
+    /** Optional callback fired once the game has been dealt. */
+    private volatile Runnable startListener;
+
+    /** Accepted/rejected intent counters (shared with other rooms). */
+    private final MoveStats moveStats;
+
+    /** Lobby this room is listed in (null for a standalone room). */
+    private final Lobby lobby;
+
+    /** Time-to-first-deal counters (shared with the lobby's other rooms). */
+    private final JoinStats joinStats;
+
+    /** Move latency and fan-out timings (shared with the lobby's other rooms). */
+    private final ServerMetrics metrics;
+
+    /** Applied move and suit intents timed at this table (written by the mailbox). */
+    private volatile long movesTimed;
+
+    /** Total arrival-to-result time of those intents (written by the mailbox). */
+    private volatile long moveNanos;
+
+    /** Slowest of those intents (written by the mailbox). */
+    private volatile long maxMoveNanos;
+
+    /** Journal the game is recorded in (null if the server keeps none). */
+    private final GameJournal journal;
+
+    /** Journal id of the game (written by the mailbox). */
+    private long gameId;
+
+    /** Records journaled since the game's last snapshot (mailbox only). */
+    private int sinceSnapshot;
+
+    /** True if the game was rebuilt from the journal and its players may take their seats back. */
+    private final boolean recovered;
+
+    /** Recent table messages for resuming sessions (created with the first session; mailbox only). */
+    private ReplayBuffer replay;
+
+    /** Seat in the running game of each connection playing it (mailbox only). */
+    private final Map<Connection, Integer> seats = new HashMap<>();
+
+    /** Session token of each seated connection that asked for one (mailbox only). */
+    private final Map<Connection, String> sessions = new HashMap<>();
+
+    /** Player name behind each token issued here, kept while the player is away. */
+    private final Map<String, String> sessionNames = new ConcurrentHashMap<>();
+
+    /** Number of the newest grace period; older timers may no longer close the room (mailbox only). */
+    private int graceRound;
+
+    /** Journaled tokens whose players have not resumed since recovery (mailbox only). */
+    private final Set<String> unclaimed = new HashSet<>();
+
+    /**
+     * Constructs an empty room with the given join code and its own counters.
+     *
+     * @param code the join code for this room
+     */
+    public Room(String code) {
+        this(code, new MoveStats());
+    }
+
+    /**
+     * Constructs an empty room with the given join code.
+     *
+     * @param code      the join code for this room
+     * @param moveStats counters to record intents into
+     */
+    public Room(String code, MoveStats moveStats) {
+        this(code, moveStats, null);
+    }
+
+    /**
+     * Constructs an empty room listed in a lobby.
+     *
+     * @param code      the join code for this room
+     * @param moveStats counters to record intents into
+     * @param lobby     lobby to leave once empty, and to send late joiners back to
+     */
+    Room(String code, MoveStats moveStats, Lobby lobby) {
+        this.code = code;
+        this.moveStats = moveStats;
+        this.lobby = lobby;
+        this.joinStats = lobby != null ? lobby.getJoinStats() : new JoinStats();
+        this.metrics = lobby != null ? lobby.getMetrics() : new ServerMetrics();
+        this.journal = lobby != null ? lobby.getJournal() : null;
+        this.recovered = false;
+    }
+
+    /**
+     * Constructs a room around a game rebuilt from the journal. Its seats are
+     * empty until the players resume their journaled sessions.
+     *
+     * @param moveStats counters to record intents into
+     * @param lobby     lobby to leave once empty, and to send late joiners back to
+     * @param restored  the recovered game
+     */
+    Room(MoveStats moveStats, Lobby lobby, GameJournal.Recovered restored) {
+        this.code = restored.getCode();
+        this.moveStats = moveStats;
+        this.lobby = lobby;
+        this.joinStats = lobby.getJoinStats();
+        this.metrics = lobby.getMetrics();
+        this.journal = lobby.getJournal();
+        this.recovered = true;
+        this.gameId = restored.getId();
+        this.game = restored.getGame();
+        for (int seat = 0; seat < game.getPlayers().size(); seat++) {
+            String token = restored.getSessionToken(seat);
+            if (token == null) continue;
+            if (replay == null) replay = new ReplayBuffer();
+            sessionNames.put(token, game.getPlayers().get(seat).getName());
+            unclaimed.add(token);
+        }
+    }
+
+    /**
+     * Gets the join code of this room.
+     *
+     * @return join code
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Sets a listener that receives status text for this room.
+     *
+     * @param listener status callback, or null to disable
+     */
+    public void setStatusListener(Consumer<String> listener) {
+        this.statusListener = listener;
+    }
+
+    /**
+     * Sets a listener that is run after the game has been dealt.
+     *
+     * @param listener start callback, or null to disable
+     */
+    public void setStartListener(Runnable listener) {
+        this.startListener = listener;
+    }
+
+    /**
+     * Seats an identified connection at this table.
+     * The connection is routed to this room at once, so messages it sends next
+     * queue up behind the join; the seat itself is taken on the mailbox.
+     *
+     * @param handler the connection that sent JOIN
+     * @return completes with the room the connection was seated in, or
+     *         exceptionally with an IllegalStateException if it was turned away
+     */
+    public CompletableFuture<Room> join(Connection handler) {
+        return join(handler, false);
+    }
+
+    /**
+     * Seats an identified connection at this table, optionally with a session.
+     *
+     * @param handler the connection that sent JOIN
+     * @param session true to issue a session token and sequence-stamp its messages
+     * @return completes with the room the connection was seated in, or
+     *         exceptionally with an IllegalStateException if it was turned away
+     */
+    public CompletableFuture<Room> join(Connection handler, boolean session) {
+        long received = System.nanoTime();
+        CompletableFuture<Room> seated = new CompletableFuture<>();
+        handler.setRoom(this);
+        mailbox.execute(() -> seat(handler, session, received, seated));
+        return seated;
+    }
+
+    /**
+     * Seats a connection that came back with a session token issued by this room.
+     * It is sent the table messages after its last sequence number, or a full
+     * snapshot if those have rolled out of the replay buffer. A connection
+     * still holding the seat (a socket that has not noticed the drop) is closed.
+     *
+     * @param handler the new connection
+     * @param token   the session token
+     * @param lastSeq the last sequence number the player received
+     * @return completes with this room, or exceptionally if the session has expired
+     */
+    public CompletableFuture<Room> resume(Connection handler, String token, int lastSeq) {
+        CompletableFuture<Room> seated = new CompletableFuture<>();
+        handler.setRoom(this);
+        mailbox.execute(() -> reseat(handler, token, lastSeq, seated));
+        return seated;
+    }
+
+    /**
+     * Gets the player name behind a session token issued by this room.
+     *
+     * @param token the session token
+     * @return the player name, or null if the token is unknown here
+     */
+    public String getSessionName(String token) {
+        return sessionNames.get(token);
+    }
+
+    /**
+     * Seats a connection and deals as soon as the last seat is filled, or
+     * turns it away (mailbox). A room that closed in the meantime hands the
+     * connection back to its lobby.
+     *
+     * @param handler  the joining connection
+     * @param session  true to issue the connection a session token
+     * @param received when the JOIN reached the room
+     * @param seated   the connection's seat future
+     */
+    private void seat(Connection handler, boolean session, long received, CompletableFuture<Room> seated) {
+        if (closed && lobby != null) {
+            lobby.join(code, handler, session).whenComplete((room, error) -> {
+                if (error != null) seated.completeExceptionally(error);
+                else seated.complete(room);
+            });
+            return;
+        }
+        if (isSeated(handler.getPlayerName())) {
+            handler.setRoom(null);
+            seated.completeExceptionally(new IllegalStateException("That name is already taken at this table"));
+            return;
+        }
+        if (!closed && recovered && handler instanceof AiSeat && hasEmptySeat(handler.getPlayerName())) {
+            clients.add(handler);
+            seats.put(handler, game.getPlayerIndex(handler.getPlayerName()));
+            seated.complete(this);
+            updateStatus(clients.size() + "/" + CAPACITY + " players back");
+            return;
+        }
+        if (!closed && recovered && hasEmptySeat(handler.getPlayerName())) {
+            handler.setRoom(null);
+            seated.completeExceptionally(new IllegalStateException("Resume your session to take this seat back"));
+            return;
+        }
+        if (closed || game != null || clients.size() >= CAPACITY) {
+            handler.setRoom(null);
+            seated.completeExceptionally(new IllegalStateException("Room is full or already playing"));
+            return;
+        }
+
+        clients.add(handler);
+        seated.complete(this);
+        if (session) openSession(handler);
+
+        String status = clients.size() + "/" + CAPACITY + " players connected";
+        updateStatus(status);
+        sendToAll(status);  // Show connection info to the table
+
+        if (clients.size() == CAPACITY) {
+            String waitingMsg = "All players connected. Starting game...";
+            updateStatus(waitingMsg);
+            sendToAll(waitingMsg);
+
+            startGame();
+            joinStats.recordDeal(System.nanoTime() - received);
+        }
+    }
+
+    /**
+     * Returns true if a recovered game has a seat for this name that nobody has taken back yet (mailbox).
+     *
+     * @param name the player's name
+     * @return true if the player may take the seat
+     */
+    private boolean hasEmptySeat(String name) {
+        return game != null && game.getPlayerIndex(name) >= 0 && !isSeated(name);
+    }
+
+    /**
+     * Returns true if a connection under this name is seated here (mailbox).
+     *
+     * @param name player name
+     * @return true if the name is taken at this table
+     */
+    private boolean isSeated(String name) {
+        for (Connection handler : clients) {
+            if (handler.getPlayerName().equals(name)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets a connection's seat in the running game (mailbox).
+     *
+     * @param handler the connection
+     * @return seat index, or -1 if it plays no seat
+     */
+    private int seatIndex(Connection handler) {
+        Integer seat = seats.get(handler);
+        return seat != null ? seat : -1;
+    }
+
+    /**
+     * Issues a session token to a newly seated connection and tells it the
+     * current sequence number (mailbox). Rooms outside a lobby keep no sessions.
+     *
+     * @param handler the seated connection
+     */
+    private void openSession(Connection handler) {
+        if (lobby == null) return;
+        if (replay == null) replay = new ReplayBuffer();
+        String token = lobby.openSession(this);
+        sessions.put(handler, token);
+        sessionNames.put(token, handler.getPlayerName());
+        handler.send(Protocol.format(Protocol.SESSION, token, String.valueOf(replay.getLast())));
+    }
+
+    /**
+     * Puts a resuming connection back in its seat and catches it up (mailbox).
+     *
+     * @param handler the new connection
+     * @param token   the session token
+     * @param lastSeq the last sequence number the player received
+     * @param seated  the connection's seat future
+     */
+    private void reseat(Connection handler, String token, int lastSeq, CompletableFuture<Room> seated) {
+        String name = sessionNames.get(token);
+        if (closed || name == null) {
+            handler.setRoom(null);
+            seated.completeExceptionally(new IllegalStateException("Session expired"));
+            return;
+        }
+        for (Connection old : clients) {
+            if (old.getPlayerName().equals(name)) {
+                clients.remove(old);
+                seats.remove(old);
+                sessions.remove(old);
+                old.setRoom(null);
+                old.close();
+            }
+        }
+
+        handler.setPlayerName(name);
+        clients.add(handler);
+        graceRound++; // A pending grace period no longer applies
+        if (game != null) seats.put(handler, game.getPlayerIndex(name));
+        sessions.put(handler, token);
+        seated.complete(this);
+        updateStatus(clients.size() + "/" + CAPACITY + " players connected");
+
+        if (!unclaimed.remove(token) && replay.covers(lastSeq)) { // Sequence numbers from before a crash are stale
+            int seat = seatIndex(handler);
+            for (int seq = lastSeq + 1; seq <= replay.getLast(); seq++) {
+                String message = replay.get(seq, seat);
+                if (message != null) handler.send(Protocol.stamp(seq, message));
+            }
+            handler.send(Protocol.format(Protocol.SESSION, token, String.valueOf(replay.getLast())));
+        } else {
+            sendSnapshot(handler); // Moves the client's sequence number on as well
+            if (game == null) handler.send(Protocol.format(Protocol.SESSION, token, String.valueOf(replay.getLast())));
+        }
+    }
+
+    /**
+     * Creates the game from the seated player names and sends START to the table (mailbox).
+     */
+    private void startGame() {
+        List<String> names = new ArrayList<>();
+        for (Connection handler : clients) {
+            names.add(handler.getPlayerName());
+        }
+        game = new Game(names);
+        for (int i = 0; i < clients.size(); i++) {
+            seats.put(clients.get(i), i);
+        }
+        if (journal != null) {
+            gameId = journal.nextGameId();
+            journal.snapshot(gameId, code, game, sessionTokens());
+        }
+        sendPerSeat(StateCodec.formatPerSeat("START#", game));
+        sendToAll(StateDelta.base(game.getVersion()));
+
+        if (startListener != null) startListener.run();
+    }
+
+    /**
+     * Sends each seated connection the message built for its own seat (mailbox).
+     *
+     * @param messages messages indexed by seat
+     */
+    private void sendPerSeat(String[] messages) {
+        long start = System.nanoTime();
+        int seq = replay != null ? replay.append(messages) : 0;
+        for (Connection handler : clients) {
+            int seat = seatIndex(handler);
+            String message = seat >= 0 ? messages[seat] : StateCodec.format("SYNC#", game, -1);
+            handler.send(seq > 0 && sessions.containsKey(handler) ? Protocol.stamp(seq, message) : message);
+        }
+        metrics.recordFanout(System.nanoTime() - start);
+    }
+
+    /**
+     * Sends a message to every connection seated at this table.
+     *
+     * @param message the message to send
+     */
+    public void broadcast(String message) {
+        mailbox.execute(() -> sendToAll(message));
+    }
+
+    /**
+     * Sends a message to every connection seated at this table (mailbox).
+     *
+     * @param message the message to send
+     */
+    private void sendToAll(String message) {
+        long start = System.nanoTime();
+        String stamped = replay != null ? Protocol.stamp(replay.append(message), message) : null;
+        for (Connection handler : clients) {
+            handler.send(stamped != null && sessions.containsKey(handler) ? stamped : message);
+        }
+        metrics.recordFanout(System.nanoTime() - start);
+    }
+
+    /**
+     * Handles a message sent by a player seated at this table.
+     * Move and suit intents are applied by the room; chat and
+     * goodbyes are relayed. Clients may no longer push game state.
+     *
+     * @param from    the sending connection
+     * @param message the message received
+     */
+    public void handleMessage(Connection from, String message) {
+        long received = System.nanoTime();
+        mailbox.execute(() -> dispatch(from, message, received));
+    }
+
+    /**
+     * Routes one message from a seated player (mailbox).
+     * Messages from connections that were turned away are ignored.
+     * Applied move and suit intents are timed from arrival, so the latency
+     * includes any wait in the mailbox; rejected ones are not timed.
+     *
+     * @param from     the sending connection
+     * @param message  the message received
+     * @param received System.nanoTime() when the message arrived
+     */
+    private void dispatch(Connection from, String message, long received) {
+        if (!clients.contains(from)) return;
+
+        String[] parts = Protocol.parse(message);
+        switch (parts[0]) {
+            case Protocol.MOVE:
+                if (handleMove(from, parts)) recordMove(System.nanoTime() - received);
+                break;
+            case Protocol.SUIT:
+                if (handleSuit(from, parts)) recordMove(System.nanoTime() - received);
+                break;
+            case Protocol.RESYNC:
+                sendSnapshot(from);
+                break;
+            case Protocol.CHAT:
+                if (journal != null && game != null) journal.chat(gameId, game.getVersion(), message);
+                sendToAll(message);
+                break;
+            case Protocol.DISCONNECT:
+                sendToAll(message);
+                break;
+            default:
+                from.send(Protocol.format(Protocol.ERROR, "Unsupported message"));
+        }
+    }
+
+    /**
+     * Records how long one intent took, for this table and the server (mailbox).
+     *
+     * @param nanos arrival-to-result time
+     */
+    private void recordMove(long nanos) {
+        metrics.recordMove(nanos);
+        movesTimed++;
+        moveNanos += nanos;
+        if (nanos > maxMoveNanos) maxMoveNanos = nanos;
+    }
+
+    /**
+     * Handles "4#PLAY#card" and "4#DRAW" intents (mailbox).
+     *
+     * @param from  the sending connection
+     * @param parts the split message
+     * @return true if the move was applied
+     */
+    private boolean handleMove(Connection from, String[] parts) {
+        int seat = seatOf(from);
+        if (seat < 0) return false;
+
+        MoveResult result;
+        if (parts.length > 2 && parts[1].equals(Protocol.PLAY_CARD)) {
+            Card card = Card.fromString(parts[2]);
+            if (card == null) {
+                result = MoveResult.CARD_NOT_IN_HAND;
+            } else {
+                result = game.play(seat, card);
+                if (result == MoveResult.OK) {
+                    publish(StateDelta.play(seat, card));
+                    if (game.getWinner() == seat) {
+                        sendToAll(Protocol.format(Protocol.DISCONNECT, from.getPlayerName() + " won!"));
+                    } else if (!game.isAwaitingSuit()) {
+                        publish(StateDelta.turn(game.getCurrentTurnIndex()));
+                    }
+                    if (journal != null) {
+                        if (game.getWinner() >= 0) journal.end(gameId, game.getVersion());
+                        else if (!snapshotDue()) journal.play(gameId, game.getVersion(), seat, card);
+                    }
+                }
+            }
+        } else if (parts.length > 1 && parts[1].equals(Protocol.DRAW_CARD)) {
+            List<Card> drawn = new ArrayList<>();
+            result = game.draw(seat, drawn);
+            if (result == MoveResult.OK) {
+                if (!drawn.isEmpty()) publishDraw(seat, drawn);
+                if (game.getCurrentTurnIndex() != seat) {
+                    publish(StateDelta.turn(game.getCurrentTurnIndex()));
+                }
+                if (journal != null && !snapshotDue()) journal.draw(gameId, game.getVersion(), seat);
+            }
+        } else {
+            from.send(Protocol.format(Protocol.ERROR, "Unsupported move"));
+            return false;
+        }
+        complete(from, result);
+        return result == MoveResult.OK;
+    }
+
+    /**
+     * Handles a "5#suit" intent following a played 8 (mailbox).
+     *
+     * @param from  the sending connection
+     * @param parts the split message
+     * @return true if the suit was applied
+     */
+    private boolean handleSuit(Connection from, String[] parts) {
+        int seat = seatOf(from);
+        if (seat < 0) return false;
+
+        String suit = parts.length > 1 ? parts[1] : null;
+        MoveResult result = game.chooseSuit(seat, suit);
+        if (result == MoveResult.OK) {
+            publish(StateDelta.suit(suit));
+            publish(StateDelta.turn(game.getCurrentTurnIndex()));
+            if (journal != null && !snapshotDue()) {
+                journal.suit(gameId, game.getVersion(), seat, game.getTopCard().getSuitCode());
+            }
+        }
+        complete(from, result);
+        return result == MoveResult.OK;
+    }
+
+    /**
+     * Finds the sender's seat in the running game (mailbox).
+     * Senders without a seat are told the game has not started.
+     *
+     * @param from the sending connection
+     * @return seat index, or -1 if the sender cannot move
+     */
+    private int seatOf(Connection from) {
+        int seat = seatIndex(from);
+        if (seat < 0) {
+            from.send(Protocol.format(Protocol.ERROR, "The game has not started."));
+        }
+        return seat;
+    }
+
+    /**
+     * Records an intent's outcome and tells the sender if it was rejected (mailbox).
+     *
+     * @param from   the sending connection
+     * @param result the outcome
+     */
+    private void complete(Connection from, MoveResult result) {
+        moveStats.record(result);
+        if (result != MoveResult.OK) {
+            from.send(Protocol.format(Protocol.ERROR, result.getMessage()));
+        }
+    }
+
+    /**
+     * Writes a snapshot instead of the next journal record when one is due:
+     * after {@link GameJournal#SNAPSHOT_EVERY} records, or once the journal
+     * has rolled over to a new segment. The snapshot already holds the change
+     * just applied (mailbox).
+     *
+     * @return true if a snapshot was written in place of the record
+     */
+    private boolean snapshotDue() {
+        if (++sinceSnapshot < GameJournal.SNAPSHOT_EVERY && !journal.needsSnapshot(gameId)) return false;
+        journal.snapshot(gameId, code, game, sessionTokens());
+        sinceSnapshot = 0;
+        return true;
+    }
+
+    /**
+     * Gets the session token of each seat, for journal snapshots (mailbox).
+     *
+     * @return tokens by seat (null where a player has none), or null if nobody has a session
+     */
+    private String[] sessionTokens() {
+        if (sessionNames.isEmpty()) return null;
+        String[] tokens = new String[game.getPlayers().size()];
+        for (Map.Entry<String, String> session : sessionNames.entrySet()) {
+            int seat = game.getPlayerIndex(session.getValue());
+            if (seat >= 0) tokens[seat] = session.getKey();
+        }
+        return tokens;
+    }
+
+    /**
+     * Stamps an operation already applied to the game with the next version
+     * and sends it to the table (mailbox).
+     *
+     * @param op the operation ("9#op#...")
+     */
+    private void publish(String op) {
+        long version = game.getVersion() + 1;
+        game.setVersion(version);
+        sendToAll(StateDelta.stamp(version, op));
+    }
+
+    /**
+     * Publishes a draw: the drawing player sees the cards, everyone else
+     * only how many were drawn. Both lines carry the same version (mailbox).
+     *
+     * @param seat  the drawing player's seat
+     * @param drawn the cards drawn
+     */
+    private void publishDraw(int seat, List<Card> drawn) {
+        long version = game.getVersion() + 1;
+        game.setVersion(version);
+        String open = StateDelta.stamp(version, StateDelta.draw(seat, drawn));
+        String hidden = StateDelta.stamp(version, StateDelta.hiddenDraw(seat, drawn.size()));
+        if (replay != null) {
+            String[] perSeat = new String[game.getPlayers().size()];
+            for (int i = 0; i < perSeat.length; i++) {
+                perSeat[i] = i == seat ? open : hidden;
+            }
+            sendPerSeat(perSeat);
+            return;
+        }
+        long start = System.nanoTime();
+        for (Connection handler : clients) {
+            handler.send(seatIndex(handler) == seat ? open : hidden);
+        }
+        metrics.recordFanout(System.nanoTime() - start);
+    }
+
+    /**
+     * Sends one connection its view of the game state and the version (mailbox).
+     * A session also learns the current sequence number, since the snapshot
+     * covers every table message up to it.
+     *
+     * @param to the connection that needs a snapshot
+     */
+    private void sendSnapshot(Connection to) {
+        if (game == null) return;
+        to.send(StateCodec.format("SYNC#", game, seatIndex(to)));
+        to.send(StateDelta.base(game.getVersion()));
+        String token = sessions.get(to);
+        if (token != null) to.send(Protocol.format(Protocol.SESSION, token, String.valueOf(replay.getLast())));
+    }
+
+    /**
+     * Queues a fresh snapshot for a connection whose writer collapsed its
+     * pending state updates.
+     *
+     * @param to the connection that needs a snapshot
+     */
+    void resync(Connection to) {
+        mailbox.execute(() -> {
+            if (clients.contains(to)) sendSnapshot(to);
+        });
+    }
+
+    /**
+     * Removes a disconnected player from the table. Once nobody but AI
+     * players is left the room closes and leaves its lobby, so late joiners go to a fresh room;
+     * a running game with sessions first waits out the grace period for them.
+     * The player's session token stays valid while the room is open.
+     *
+     * @param handler the disconnected connection
+     */
+    public void remove(Connection handler) {
+        mailbox.execute(() -> {
+            if (!clients.remove(handler)) return;
+            seats.remove(handler);
+            sessions.remove(handler);
+            updateStatus(clients.size() + "/" + CAPACITY + " players connected");
+            if (hasHumans()) return;
+
+            if (game != null && game.getWinner() < 0 && !sessionNames.isEmpty() && GRACE_SECONDS > 0) {
+                startGrace();
+            } else {
+                close();
+            }
+        });
+    }
+
+    /**
+     * Starts the grace period of a room rebuilt from the journal: unless a
+     * player has taken a seat back by the time it runs out, the room closes
+     * and the game is ended in the journal, so it is not recovered again.
+     */
+    void awaitPlayers() {
+        mailbox.execute(this::startGrace);
+    }
+
+    /**
+     * Closes the room after {@link #GRACE_PROPERTY} seconds if no human
+     * player is seated by then (mailbox). A later grace period or a player
+     * resuming in the meantime voids this one.
+     */
+    private void startGrace() {
+        int round = ++graceRound;
+        CompletableFuture.delayedExecutor(Math.max(0, GRACE_SECONDS), TimeUnit.SECONDS, mailbox).execute(() -> {
+            if (round == graceRound && !hasHumans() && !closed) close();
+        });
+    }
+
+    /**
+     * Closes the room: stops its AI players, ends its journaled game, leaves
+     * the lobby and expires its sessions (mailbox).
+     */
+    private void close() {
+        closed = true;
+        for (Connection handler : clients) {
+            if (handler instanceof AiSeat) handler.close();
+        }
+        if (journal != null && game != null && game.getWinner() < 0) {
+            journal.end(gameId, game.getVersion()); // Abandoned: nobody to recover it for
+        }
+        if (lobby != null) {
+            lobby.remove(this);
+            lobby.closeSessions(sessionNames.keySet());
+        }
+        sessionNames.clear();
+    }
+
+    /**
+     * Returns true while a human player is seated at this table (mailbox).
+     *
+     * @return true if any connection is not an AI seat
+     */
+    private boolean hasHumans() {
+        for (Connection handler : clients) {
+            if (!(handler instanceof AiSeat)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns true once no connections remain at this table.
+     *
+     * @return true if the room is empty
+     */
+    public boolean isEmpty() {
+        return clients.isEmpty();
+    }
+
+    /**
+     * Returns true once the last player has left and the room has closed.
+     *
+     * @return true if closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Returns the number of connections seated at this table.
+     *
+     * @return seated player count
+     */
+    public int size() {
+        return clients.size();
+    }
+
+    /**
+     * Returns the number of messages queued for this table's connections.
+     *
+     * @return total outbound queue depth
+     */
+    public int getQueuedMessages() {
+        int queued = 0;
+        for (Connection handler : clients) {
+            queued += handler.getQueueDepth();
+        }
+        return queued;
+    }
+
+    /**
+     * Returns the mean arrival-to-result time of this table's move and suit intents.
+     *
+     * @return mean in nanoseconds, or 0 before the first move
+     */
+    public double getMeanMoveNanos() {
+        long n = movesTimed;
+        return n == 0 ? 0 : (double) moveNanos / n;
+    }
+
+    /**
+     * Returns the slowest arrival-to-result time of this table's move and suit intents.
+     *
+     * @return max in nanoseconds
+     */
+    public long getMaxMoveNanos() {
+        return maxMoveNanos;
+    }
+
+    /**
+     * Returns the deepest outbound queue among this table's connections.
+     *
+     * @return largest queue depth
+     */
+    public int getMaxQueueDepth() {
+        int max = 0;
+        for (Connection handler : clients) {
+            max = Math.max(max, handler.getQueueDepth());
+        }
+        return max;
+    }
+
+    /**
+     * Gets the game played at this table. The game belongs to the mailbox;
+     * other threads may only look at it.
+     *
+     * @return the game, or null if it has not started yet
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Starts a game directly from a list of names, without connections.
+     * Used by offline tooling to size rooms and measure per-table cost.
+     *
+     * @param names player names in seating order
+     * @return completes with the dealt game once the mailbox has run
+     */
+    public CompletableFuture<Game> startGame(List<String> names) {
+        CompletableFuture<Game> dealt = new CompletableFuture<>();
+        mailbox.execute(() -> {
+            game = new Game(names);
+            dealt.complete(game);
+        });
+        return dealt;
+    }
+
+    /**
+     * Forwards status text to the listener, if one is set.
+     *
+     * @param msg status text
+     */
+    private void updateStatus(String msg) {
+        if (statusListener != null) statusListener.accept(msg);
+    }
+}
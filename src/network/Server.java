@@ -1,30 +1,65 @@
 package network;
 
-import model.*;
 import javax.swing.*;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
- * Server class for hosting a Crazy Eights multiplayer game.
- * Accepts incoming player connections, manages game state and
- * broadcasts messages to all connected clients.
+ * Server class for hosting Crazy Eights multiplayer games.
+ * Accepts incoming player connections and routes each one to a Room
+ * by the join code it sends, so one process can host many tables.
  */
 public class Server {
+    /** System property: seconds between move statistics log lines (0 disables). */
+    public static final String STATS_PROPERTY = "crazyeights.stats.seconds";
+
+    /** System property: seconds a new connection has to send JOIN (0 waits forever). */
+    public static final String JOIN_TIMEOUT_PROPERTY = "crazyeights.join.timeout.seconds";
+
+    /** Longest player name accepted at JOIN, in characters. */
+    public static final int MAX_NAME_LENGTH = 32;
+
 	/** Port number the server listens on. */
     private final int port;
     
-    /** List of currently connected clients. */
-    private final List<NetworkHandler> clients = new ArrayList<>();
+    /** Rooms hosted by this server, keyed by join code. */
+    private final Lobby lobby = new Lobby();
     
     /** Reference to the host UI dialog for status updates. */
     private final CustomDialog dialog;
     
-    /** The active game instance (logic and state). */
-    private Game game;
+    /** Transport used to carry player connections. */
+    private final TransportMode mode;
+
+    /** Listening socket (blocking mode, null until started). */
+    private volatile ServerSocket serverSocket;
+
+    /** Selector-based transport (NIO mode, null until started). */
+    private NioTransport nioTransport;
+
+    /** Slow consumer drop counters shared by every connection. */
+    private final OutboundStats outboundStats = new OutboundStats();
+
+    /** Seconds a new connection has to send JOIN (0 disables the timeout). */
+    private final long joinTimeoutSeconds = Long.getLong(JOIN_TIMEOUT_PROPERTY, 30);
+
+    /** Identification futures of connections that have not sent JOIN yet, completed with the name. */
+    private final Map<Connection, CompletableFuture<String>> pendingJoins = new ConcurrentHashMap<>();
+
+    /** JMX and HTTP publisher of the server's metrics. */
+    private final ServerMonitor monitor = new ServerMonitor(this);
+
+    /** Periodic move statistics logger (null if disabled or not started). */
+    private ScheduledExecutorService statsReporter;
 
     /**
      * Constructs a Server instance with specified port and dialog for UI updates.
@@ -33,86 +68,193 @@ public class Server {
      * @param dialog UI dialog for status updates (host side).
      */
     public Server(int port, CustomDialog dialog) {
+        this(port, dialog, TransportMode.fromSystemProperty());
+    }
+
+    /**
+     * Constructs a Server instance using the given transport.
+     *
+     * @param port   Port to host the server on (10000-65535).
+     * @param dialog UI dialog for status updates (host side, may be null).
+     * @param mode   transport carrying player connections
+     */
+    public Server(int port, CustomDialog dialog, TransportMode mode) {
         this.port = port;
         this.dialog = dialog;
+        this.mode = mode;
+        openJournal();
+
+        // The host's own table reports its progress to the host dialog
+        Room hostRoom = lobby.getOrCreate(Lobby.DEFAULT_CODE);
+        hostRoom.setStatusListener(this::updateStatus);
+        hostRoom.setStartListener(() -> {
+            if (dialog != null) SwingUtilities.invokeLater(dialog::dispose);
+        });
+    }
+
+    /**
+     * Opens the game journal if one is configured and relists the games it
+     * recovered, so their players can resume their sessions.
+     * The server runs without a journal if the directory cannot be used.
+     */
+    private void openJournal() {
+        try {
+            GameJournal journal = GameJournal.fromSystemProperties();
+            if (journal == null) return;
+            lobby.setJournal(journal);
+            for (GameJournal.Recovered restored : journal.getRecovered()) {
+                lobby.restore(restored);
+            }
+            System.out.printf("Journal: recovered %d games in %.1f ms%n",
+                    journal.getRecovered().size(), journal.getRecoveryMillis());
+        } catch (IOException e) {
+            System.err.println("Journal disabled: " + e.getMessage());
+        }
     }
 
     /**
-     * Starts the server on a separate thread, accepting up to 4 players.
-     * Once all players are connected and named, the game is initialized and started.
+     * Starts the server on a separate thread and keeps accepting players.
+     * Each connection is seated once it sends JOIN with its name and join code.
      */
     public void start() {
+        startStatsReporter();
+        monitor.start(port);
+        if (mode == TransportMode.NIO) {
+            startNio();
+            return;
+        }
+        if (mode == TransportMode.VIRTUAL && !ConnectionThreads.virtualThreadsAvailable()) {
+            System.err.println("Virtual threads need Java 21+, using platform threads.");
+        }
+
         new Thread(() -> {
-            try (ServerSocket serverSocket = new ServerSocket(port)) {
+            try (ServerSocket socket = new ServerSocket(port)) {
+                serverSocket = socket;
                 updateStatus("Waiting for players...");
 
-                // Accept up to 4 players
-                while (clients.size() < 4) {
-                    Socket clientSocket = serverSocket.accept();
+                while (!socket.isClosed()) {
+                    Socket clientSocket = socket.accept();
                     NetworkHandler handler = new NetworkHandler(clientSocket, this);
-                    clients.add(handler);
-                    new Thread(handler).start();
-
-                    String status = clients.size() + "/4 players connected";
-                    updateStatus(status);
-                    broadcast(status);  // Show connection info to all clients
+                    accepted(handler);
+                    handler.start(mode == TransportMode.VIRTUAL);
                 }
-
-                String waitingMsg = "All players connected. Waiting for player names...";
-                updateStatus(waitingMsg);
-                broadcast(waitingMsg);  // Inform players on client UI
-
-                // Wait for all players to send their names via JOIN#
-                while (clients.stream().anyMatch(c -> c.getPlayerName() == null)) {
-                    Thread.sleep(100);
+            } catch (IOException e) {
+                if (serverSocket == null || !serverSocket.isClosed()) {
+                    updateStatus("Server error: " + e.getMessage());
+                    e.printStackTrace();
                 }
+            }
+        }).start();
+    }
 
-                updateStatus("All players identified. Starting game...");
-                Thread.sleep(500);
-                dialog.dispose();  // Close the host's waiting dialog
+    /**
+     * Starts the selector-based transport with a fixed set of event loops.
+     */
+    private void startNio() {
+        try {
+            nioTransport = new NioTransport(NioTransport.configuredThreads(), false);
+            nioTransport.bind(port, this);
+            updateStatus("Waiting for players...");
+        } catch (IOException e) {
+            updateStatus("Server error: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
 
-                initializeGame();  // Create game state with player names
-                broadcast(buildStartMessage());  // Sync game to all clients
+    /**
+     * Logs accepted and rejected move rates, slow consumer drops and join
+     * handshake times at a fixed interval.
+     */
+    private void startStatsReporter() {
+        long seconds = Long.getLong(STATS_PROPERTY, 60);
+        if (seconds <= 0 || statsReporter != null) return;
 
-            } catch (IOException | InterruptedException e) {
-                updateStatus("Server error: " + e.getMessage());
-                e.printStackTrace();
-            }
-        }).start();
+        statsReporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "move-stats");
+            t.setDaemon(true);
+            return t;
+        });
+        statsReporter.scheduleAtFixedRate(() -> {
+            String line = lobby.getMoveStats().report();
+            if (line != null) System.out.println(line);
+            line = outboundStats.report(getQueuedMessages());
+            if (line != null) System.out.println(line);
+            line = lobby.getJoinStats().report();
+            if (line != null) System.out.println(line);
+        }, seconds, seconds, TimeUnit.SECONDS);
     }
 
     /**
-     * Initializes the game with player names collected from handlers.
+     * Stops accepting new connections.
      */
-    private void initializeGame() {
-        List<String> names = new ArrayList<>();
-        for (NetworkHandler handler : clients) {
-            if (handler.getPlayerName() != null) {
-                names.add(handler.getPlayerName());
-            }
+    public void stop() {
+        if (statsReporter != null) statsReporter.shutdownNow();
+        monitor.stop();
+        try {
+            if (serverSocket != null) serverSocket.close();
+        } catch (IOException e) {
+            System.err.println("Server close error: " + e.getMessage());
         }
-        game = new Game(names);
+        if (nioTransport != null) nioTransport.shutdown();
+        if (lobby.getJournal() != null) lobby.getJournal().close();
     }
 
     /**
-     * Builds the full START message to send game state to all clients.
+     * Returns the lobby holding every room on this server.
      *
-     * @return formatted game state sync string
+     * @return the lobby
      */
-    private String buildStartMessage() {
-        StringBuilder builder = new StringBuilder("START#");
-        builder.append(game.getTopCard().toString()).append("|");
-        builder.append("TURN:").append(game.getCurrentTurnIndex()).append("|");
+    public Lobby getLobby() {
+        return lobby;
+    }
 
-        for (Player p : game.getPlayers()) {
-            builder.append(p.getName()).append(":");
-            for (Card c : p.getHand()) {
-                builder.append(c.toString()).append(",");
-            }
-            builder.append(";");
-        }
+    /**
+     * Returns the accepted/rejected move counters of all rooms.
+     *
+     * @return move statistics
+     */
+    public MoveStats getMoveStats() {
+        return lobby.getMoveStats();
+    }
+
+    /**
+     * Returns the join handshake counters (time-to-first-deal, join timeouts).
+     *
+     * @return join statistics
+     */
+    public JoinStats getJoinStats() {
+        return lobby.getJoinStats();
+    }
+
+    /**
+     * Returns the traffic counters and latency histograms of all rooms and connections.
+     *
+     * @return server metrics
+     */
+    public ServerMetrics getMetrics() {
+        return lobby.getMetrics();
+    }
 
-        return builder.toString();
+    /**
+     * Returns the slow consumer drop counters of all connections.
+     *
+     * @return outbound statistics
+     */
+    public OutboundStats getOutboundStats() {
+        return outboundStats;
+    }
+
+    /**
+     * Returns the number of messages queued for seated connections in every room.
+     *
+     * @return total outbound queue depth
+     */
+    public long getQueuedMessages() {
+        long queued = 0;
+        for (Room room : lobby.getRooms()) {
+            queued += room.getQueuedMessages();
+        }
+        return queued;
     }
 
     /**
@@ -127,39 +269,184 @@ public class Server {
     }
 
     /**
-     * Sends a message to all connected clients.
+     * Sends a message to all connected clients in every room.
      *
      * @param message the message to send
      */
-    public synchronized void broadcast(String message) {
-        for (NetworkHandler handler : clients) {
-            handler.send(message);
+    public void broadcast(String message) {
+        for (Room room : lobby.getRooms()) {
+            room.broadcast(message);
         }
     }
 
     /**
-     * Removes a disconnected client from the list.
+     * Removes a disconnected client from its room.
      *
      * @param handler the disconnected client
      */
-    public synchronized void removeClient(NetworkHandler handler) {
-        clients.remove(handler);
-        updateStatus(clients.size() + "/4 players connected");
+    public void removeClient(Connection handler) {
+        lobby.getMetrics().connectionClosed();
+        CompletableFuture<String> identified = pendingJoins.remove(handler);
+        if (identified != null) identified.cancel(false);
+
+        Room room = handler.getRoom();
+        if (room != null) {
+            room.remove(handler);
+        }
+    }
+
+    /**
+     * Starts the join handshake for a newly accepted connection: its
+     * identification future completes with the name from JOIN, or times out
+     * and closes a connection that never identifies.
+     *
+     * @param connection the accepted connection
+     */
+    void accepted(Connection connection) {
+        lobby.getMetrics().connectionOpened();
+        CompletableFuture<String> identified = new CompletableFuture<>();
+        pendingJoins.put(connection, identified);
+        if (joinTimeoutSeconds <= 0) return;
+
+        identified.orTimeout(joinTimeoutSeconds, TimeUnit.SECONDS).whenComplete((name, error) -> {
+            if (!(error instanceof TimeoutException)) return;
+            pendingJoins.remove(connection);
+            lobby.getJoinStats().recordTimeout();
+            connection.send(Protocol.format(Protocol.ERROR, "No JOIN received in time"));
+            connection.close();
+        });
     }
 
     /**
      * Handles incoming messages from any client.
+     * JOIN seats the client in a room; everything else goes to its room.
      *
      * @param from    the client sending the message
      * @param message the message received
      */
-    public synchronized void handleMessage(NetworkHandler from, String message) {
+    public void handleMessage(Connection from, String message) {
+        lobby.getMetrics().messageIn(message);
         if (message.startsWith("JOIN#")) {
-            from.setPlayerName(message.substring(5));
+            handleJoin(from, message);
+            return;
+        }
+        if (message.startsWith(Protocol.SESSION + Protocol.SEP) && from.getRoom() == null) {
+            handleResume(from, message);
+            return;
+        }
+
+        Room room = from.getRoom();
+        if (room != null) {
+            room.handleMessage(from, message);
+        }
+    }
+
+    /**
+     * Handles "JOIN#name", "JOIN#name#code" or "JOIN#name#code#options..." by seating the client.
+     * Option BIN1 switches the client to BinaryProtocol frames; option SEQ1 asks
+     * for a session token and sequence-numbered room messages.
+     * JOIN completes the connection's identification future; the seat is taken
+     * on the room's mailbox, which deals as soon as the last seat is filled.
+     * Clients the room cannot seat get an ERROR message and are closed.
+     *
+     * @param from    the joining client
+     * @param message the JOIN message
+     */
+    private void handleJoin(Connection from, String message) {
+        if (from.getRoom() != null) return; // Already seated
+
+        String[] parts = Protocol.parse(message);
+        String name = parts.length > 1 ? parts[1].trim() : "";
+        String code = parts.length > 2 ? parts[2] : null;
+
+        if (name.isEmpty()) {
+            from.send(Protocol.format(Protocol.ERROR, "Missing player name"));
+            from.close();
+            return;
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            from.send(Protocol.format(Protocol.ERROR, "Player names are limited to " + MAX_NAME_LENGTH + " characters"));
+            from.close();
+            return;
+        }
+        if (AiSeat.isAiName(name)) {
+            from.send(Protocol.format(Protocol.ERROR, "Names starting with \"" + AiSeat.NAME_PREFIX + "\" are kept for AI players"));
+            from.close();
             return;
         }
 
-        // Relay the message to all players (chat, moves, sync, etc.)
-        broadcast(message);
+        boolean session = false;
+        for (int i = 3; i < parts.length; i++) {
+            if (parts[i].equals(BinaryProtocol.TOKEN)) {
+                from.send(BinaryProtocol.ACK); // Last text line; frames from here on
+                from.setBinary(true);
+            } else if (parts[i].equals(Protocol.SEQUENCED)) {
+                session = true;
+            }
+        }
+
+        from.setPlayerName(name);
+        identified(from, name);
+        turnAwayOnFailure(from, lobby.join(code, from, session));
+    }
+
+    /**
+     * Handles "11#token#lastSeq" (optionally followed by "#BIN1") from a player
+     * coming back on a new connection: the room that issued the token seats it
+     * again and replays what it missed.
+     *
+     * @param from    the reconnecting client
+     * @param message the SESSION message
+     */
+    private void handleResume(Connection from, String message) {
+        String[] parts = Protocol.parse(message);
+        String token = parts.length > 1 ? parts[1] : "";
+        Room room = lobby.getSessionRoom(token);
+        String name = room != null ? room.getSessionName(token) : null;
+        int lastSeq;
+        try {
+            lastSeq = parts.length > 2 ? Integer.parseInt(parts[2]) : -1;
+        } catch (NumberFormatException e) {
+            lastSeq = -1;
+        }
+        if (name == null) {
+            from.send(Protocol.format(Protocol.ERROR, "Session expired"));
+            from.close();
+            return;
+        }
+
+        if (parts.length > 3 && parts[3].equals(BinaryProtocol.TOKEN)) {
+            from.send(BinaryProtocol.ACK);
+            from.setBinary(true);
+        }
+        from.setPlayerName(name);
+        identified(from, name);
+        turnAwayOnFailure(from, room.resume(from, token, lastSeq));
+    }
+
+    /**
+     * Completes a connection's identification future, stopping its join timeout.
+     *
+     * @param from the identified connection
+     * @param name the player's name
+     */
+    private void identified(Connection from, String name) {
+        CompletableFuture<String> identified = pendingJoins.remove(from);
+        if (identified != null) identified.complete(name);
+    }
+
+    /**
+     * Sends an ERROR and closes the connection if its room turns it away.
+     *
+     * @param from   the joining client
+     * @param seated the seat future from the room
+     */
+    private static void turnAwayOnFailure(Connection from, CompletableFuture<Room> seated) {
+        seated.exceptionally(error -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            from.send(Protocol.format(Protocol.ERROR, cause.getMessage()));
+            from.close();
+            return null;
+        });
     }
 }
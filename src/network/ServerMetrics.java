@@ -0,0 +1,225 @@
+package network;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ServerMetrics counts the traffic of one server and times its rooms:
+ * messages and bytes in and out by protocol type, connections opened and
+ * closed, how long a move takes from arrival to its fan-out being queued,
+ * and how long a broadcast takes to reach every seat's queue.
+ * <p>
+ * Counters are LongAdders and timings go into striped LatencyHistograms, so
+ * recording from connection threads and room mailboxes never contends on a
+ * shared cache line. The ServerMonitor publishes them over JMX and HTTP.
+ */
+public class ServerMetrics {
+
+    /** Message type names, indexed by {@link #typeOf}; numeric protocol IDs map to their own index. */
+    static final String[] TYPES = {
+            "other", "disconnect", "identify", "chat", "move", "suit", "players", "turn",
+            "error", "delta", "resync", "session", "seq", "start", "sync", "join", "format"
+    };
+
+    /** Index of START state messages. */
+    private static final int START = 13;
+
+    /** Index of SYNC state messages. */
+    private static final int SYNC = 14;
+
+    /** Index of JOIN requests. */
+    private static final int JOIN = 15;
+
+    /** Index of format acknowledgements. */
+    private static final int FORMAT = 16;
+
+    /** Messages received, by type. */
+    private final LongAdder[] messagesIn = adders(TYPES.length);
+
+    /** Messages sent, by type. */
+    private final LongAdder[] messagesOut = adders(TYPES.length);
+
+    /** Bytes read from player connections. */
+    private final LongAdder bytesIn = new LongAdder();
+
+    /** Bytes written to player connections. */
+    private final LongAdder bytesOut = new LongAdder();
+
+    /** Player connections accepted. */
+    private final LongAdder opened = new LongAdder();
+
+    /** Player connections closed. */
+    private final LongAdder closed = new LongAdder();
+
+    /** Time from a move or suit intent arriving to its outcome being queued. */
+    private final LatencyHistogram moveLatency = new LatencyHistogram();
+
+    /** Time to queue one broadcast for every seat at a table. */
+    private final LatencyHistogram fanout = new LatencyHistogram();
+
+    /**
+     * Creates an array of counters.
+     *
+     * @param n number of counters
+     * @return new zeroed counters
+     */
+    private static LongAdder[] adders(int n) {
+        LongAdder[] adders = new LongAdder[n];
+        for (int i = 0; i < n; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Classifies a message by its protocol type; a sequence-stamped message
+     * counts as the type it carries.
+     *
+     * @param message a protocol message
+     * @return index into {@link #TYPES}
+     */
+    static int typeOf(String message) {
+        int at = Protocol.stampedOffset(message);
+        int end = message.indexOf('#', at);
+        if (end < 0) end = message.length();
+
+        if (end - at == 1 || end - at == 2) {
+            int id = 0;
+            for (int i = at; i < end && id >= 0; i++) {
+                char c = message.charAt(i);
+                id = c >= '0' && c <= '9' ? id * 10 + (c - '0') : -1;
+            }
+            if (id >= 1 && id <= 12) return id;
+        }
+        if (message.startsWith("START#", at)) return START;
+        if (message.startsWith("SYNC#", at)) return SYNC;
+        if (message.startsWith("JOIN#", at)) return JOIN;
+        if (message.startsWith("FORMAT#", at)) return FORMAT;
+        return 0;
+    }
+
+    /**
+     * Records a message received from a player.
+     *
+     * @param message the message
+     */
+    void messageIn(String message) {
+        messagesIn[typeOf(message)].increment();
+    }
+
+    /**
+     * Records a message written to a player.
+     *
+     * @param message the message
+     * @param bytes   bytes it took on the wire
+     */
+    void messageOut(String message, int bytes) {
+        messagesOut[typeOf(message)].increment();
+        bytesOut.add(bytes);
+    }
+
+    /**
+     * Records bytes read from a player connection.
+     *
+     * @param bytes number of bytes
+     */
+    void bytesIn(int bytes) {
+        bytesIn.add(bytes);
+    }
+
+    /**
+     * Records a player connection being accepted.
+     */
+    void connectionOpened() {
+        opened.increment();
+    }
+
+    /**
+     * Records a player connection closing.
+     */
+    void connectionClosed() {
+        closed.increment();
+    }
+
+    /**
+     * Records how long a move took from arrival to its outcome being queued.
+     *
+     * @param nanos elapsed nanoseconds
+     */
+    void recordMove(long nanos) {
+        moveLatency.record(nanos);
+    }
+
+    /**
+     * Records how long one broadcast took to reach every seat's queue.
+     *
+     * @param nanos elapsed nanoseconds
+     */
+    void recordFanout(long nanos) {
+        fanout.record(nanos);
+    }
+
+    /**
+     * Gets the number of messages received of one type.
+     *
+     * @param type index into {@link #TYPES}
+     * @return count
+     */
+    public long getMessagesIn(int type) {
+        return messagesIn[type].sum();
+    }
+
+    /**
+     * Gets the number of messages sent of one type.
+     *
+     * @param type index into {@link #TYPES}
+     * @return count
+     */
+    public long getMessagesOut(int type) {
+        return messagesOut[type].sum();
+    }
+
+    /**
+     * Gets the bytes read from player connections.
+     *
+     * @return byte count
+     */
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    /**
+     * Gets the bytes written to player connections.
+     *
+     * @return byte count
+     */
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    /**
+     * Gets the number of player connections currently open.
+     *
+     * @return open connections
+     */
+    public long getConnectedClients() {
+        return opened.sum() - closed.sum();
+    }
+
+    /**
+     * Gets the move latency histogram.
+     *
+     * @return arrival-to-outcome times of move and suit intents
+     */
+    public LatencyHistogram getMoveLatency() {
+        return moveLatency;
+    }
+
+    /**
+     * Gets the broadcast fan-out histogram.
+     *
+     * @return times to queue one message for a whole table
+     */
+    public LatencyHistogram getFanout() {
+        return fanout;
+    }
+}
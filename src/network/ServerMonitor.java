@@ -0,0 +1,299 @@
+package network;
+
+import com.sun.net.httpserver.HttpServer;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ServerMonitor publishes a server's metrics: as an MXBean on the platform
+ * MBean server (for JConsole or any JMX client), and optionally as plain text
+ * on a local HTTP endpoint ({@code GET /metrics}, loopback only) in the
+ * Prometheus text format.
+ * <p>
+ * Counters and histograms come from ServerMetrics, MoveStats, JoinStats and
+ * OutboundStats; room and queue gauges are computed when read.
+ */
+public class ServerMonitor implements ServerMonitorMXBean {
+
+    /** System property: "false" to skip JMX registration. */
+    public static final String JMX_PROPERTY = "crazyeights.jmx";
+
+    /** System property: local port for the HTTP metrics endpoint (unset or 0 disables it). */
+    public static final String HTTP_PROPERTY = "crazyeights.metrics.port";
+
+    /** Percentiles reported for every histogram. */
+    private static final double[] PERCENTILES = {50, 99, 99.9};
+
+    /** Quantile labels matching PERCENTILES. */
+    private static final String[] QUANTILES = {"0.5", "0.99", "0.999"};
+
+    /** The monitored server. */
+    private final Server server;
+
+    /** Name the MXBean was registered under (null if not registered). */
+    private ObjectName name;
+
+    /** HTTP endpoint (null if not started). */
+    private HttpServer http;
+
+    /**
+     * Creates a monitor for a server.
+     *
+     * @param server the server to publish
+     */
+    public ServerMonitor(Server server) {
+        this.server = server;
+    }
+
+    /**
+     * Registers the MXBean and starts the HTTP endpoint as configured.
+     * Failures are logged; the server runs on without them.
+     *
+     * @param port the game port, used to tell several servers apart
+     */
+    void start(int port) {
+        if (!"false".equalsIgnoreCase(System.getProperty(JMX_PROPERTY, "true"))) {
+            try {
+                MBeanServer beans = ManagementFactory.getPlatformMBeanServer();
+                ObjectName objectName = new ObjectName("crazyeights:type=Server,port=" + port);
+                beans.registerMBean(this, objectName);
+                name = objectName;
+            } catch (JMException e) {
+                System.err.println("JMX metrics disabled: " + e.getMessage());
+            }
+        }
+
+        int httpPort = Integer.getInteger(HTTP_PROPERTY, 0);
+        if (httpPort > 0) {
+            try {
+                http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), httpPort), 0);
+                http.createContext("/metrics", exchange -> {
+                    byte[] body = render().getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                });
+                http.start();
+            } catch (IOException e) {
+                System.err.println("HTTP metrics disabled: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Unregisters the MXBean and stops the HTTP endpoint.
+     */
+    void stop() {
+        if (http != null) http.stop(0);
+        if (name != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            } catch (JMException e) {
+                // Already gone
+            }
+        }
+    }
+
+    /**
+     * Renders every metric in the Prometheus text format.
+     *
+     * @return the metrics page
+     */
+    public String render() {
+        ServerMetrics m = server.getMetrics();
+        StringBuilder sb = new StringBuilder(4096);
+        gauge(sb, "crazyeights_connected_clients", m.getConnectedClients());
+        gauge(sb, "crazyeights_active_rooms", getActiveRooms());
+        gauge(sb, "crazyeights_queued_messages", getQueuedMessages());
+        gauge(sb, "crazyeights_max_queue_depth", getMaxQueueDepth());
+
+        for (int i = 0; i < ServerMetrics.TYPES.length; i++) {
+            long in = m.getMessagesIn(i);
+            if (in > 0) counter(sb, "crazyeights_messages_in_total{type=\"" + ServerMetrics.TYPES[i] + "\"}", in);
+        }
+        for (int i = 0; i < ServerMetrics.TYPES.length; i++) {
+            long out = m.getMessagesOut(i);
+            if (out > 0) counter(sb, "crazyeights_messages_out_total{type=\"" + ServerMetrics.TYPES[i] + "\"}", out);
+        }
+        counter(sb, "crazyeights_bytes_in_total", m.getBytesIn());
+        counter(sb, "crazyeights_bytes_out_total", m.getBytesOut());
+
+        counter(sb, "crazyeights_moves_accepted_total", getMovesAccepted());
+        counter(sb, "crazyeights_moves_rejected_total", getMovesRejected());
+        counter(sb, "crazyeights_tables_dealt_total", server.getJoinStats().getDeals());
+        counter(sb, "crazyeights_join_timeouts_total", server.getJoinStats().getTimeouts());
+        counter(sb, "crazyeights_dropped_chat_total", server.getOutboundStats().getDroppedChat());
+        counter(sb, "crazyeights_collapsed_state_total", server.getOutboundStats().getCollapsedState());
+        counter(sb, "crazyeights_slow_consumer_disconnects_total", server.getOutboundStats().getDisconnects());
+
+        histogram(sb, "crazyeights_move_latency_seconds", m.getMoveLatency());
+        histogram(sb, "crazyeights_fanout_seconds", m.getFanout());
+        for (Room room : server.getLobby().getRooms()) {
+            if (room.getMaxMoveNanos() == 0) continue;
+            sb.append("crazyeights_room_move_latency_seconds_mean{room=\"").append(room.getCode()).append("\"} ")
+              .append(room.getMeanMoveNanos() / 1e9).append('\n');
+            sb.append("crazyeights_room_move_latency_seconds_max{room=\"").append(room.getCode()).append("\"} ")
+              .append(room.getMaxMoveNanos() / 1e9).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends a gauge line.
+     *
+     * @param sb    destination
+     * @param name  metric name
+     * @param value current value
+     */
+    private static void gauge(StringBuilder sb, String name, long value) {
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Appends a counter line.
+     *
+     * @param sb    destination
+     * @param name  metric name with labels
+     * @param value total
+     */
+    private static void counter(StringBuilder sb, String name, long value) {
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Appends a histogram as a summary: quantiles, count, sum and max, in seconds.
+     *
+     * @param sb   destination
+     * @param name metric name
+     * @param h    the histogram
+     */
+    private static void histogram(StringBuilder sb, String name, LatencyHistogram h) {
+        long[] values = h.percentiles(PERCENTILES);
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            sb.append(name).append("{quantile=\"").append(QUANTILES[i]).append("\"} ")
+              .append(values[i] / 1e9).append('\n');
+        }
+        long count = h.getCount();
+        sb.append(name).append("_count ").append(count).append('\n');
+        sb.append(name).append("_sum ").append(h.getMean() * count / 1e9).append('\n');
+        sb.append(name).append("_max ").append(h.getMax() / 1e9).append('\n');
+    }
+
+    /**
+     * Summarizes a histogram in microseconds.
+     *
+     * @param h the histogram
+     * @return mean, p50, p99, p999 and max
+     */
+    private static Map<String, Double> micros(LatencyHistogram h) {
+        long[] values = h.percentiles(PERCENTILES);
+        Map<String, Double> map = new LinkedHashMap<>();
+        map.put("mean", h.getMean() / 1e3);
+        map.put("p50", values[0] / 1e3);
+        map.put("p99", values[1] / 1e3);
+        map.put("p999", values[2] / 1e3);
+        map.put("max", h.getMax() / 1e3);
+        return map;
+    }
+
+    /**
+     * Collects per-type counts, leaving out types never seen.
+     *
+     * @param in true for received messages, false for sent
+     * @return counts keyed by type name
+     */
+    private Map<String, Long> byType(boolean in) {
+        ServerMetrics m = server.getMetrics();
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (int i = 0; i < ServerMetrics.TYPES.length; i++) {
+            long n = in ? m.getMessagesIn(i) : m.getMessagesOut(i);
+            if (n > 0) map.put(ServerMetrics.TYPES[i], n);
+        }
+        return map;
+    }
+
+    @Override
+    public long getConnectedClients() {
+        return server.getMetrics().getConnectedClients();
+    }
+
+    @Override
+    public int getActiveRooms() {
+        return server.getLobby().getRoomCount();
+    }
+
+    @Override
+    public long getQueuedMessages() {
+        return server.getQueuedMessages();
+    }
+
+    @Override
+    public int getMaxQueueDepth() {
+        int max = 0;
+        for (Room room : server.getLobby().getRooms()) {
+            max = Math.max(max, room.getMaxQueueDepth());
+        }
+        return max;
+    }
+
+    @Override
+    public Map<String, Long> getMessagesIn() {
+        return byType(true);
+    }
+
+    @Override
+    public Map<String, Long> getMessagesOut() {
+        return byType(false);
+    }
+
+    @Override
+    public long getBytesIn() {
+        return server.getMetrics().getBytesIn();
+    }
+
+    @Override
+    public long getBytesOut() {
+        return server.getMetrics().getBytesOut();
+    }
+
+    @Override
+    public long getMovesAccepted() {
+        return server.getMoveStats().getAccepted();
+    }
+
+    @Override
+    public long getMovesRejected() {
+        return server.getMoveStats().getRejected();
+    }
+
+    @Override
+    public Map<String, Double> getMoveLatencyMicros() {
+        return micros(server.getMetrics().getMoveLatency());
+    }
+
+    @Override
+    public Map<String, Double> getRoomMoveLatencyMicros() {
+        Map<String, Double> map = new LinkedHashMap<>();
+        for (Room room : server.getLobby().getRooms()) {
+            if (room.getMaxMoveNanos() > 0) map.put(room.getCode(), room.getMeanMoveNanos() / 1e3);
+        }
+        return map;
+    }
+
+    @Override
+    public Map<String, Double> getFanoutMicros() {
+        return micros(server.getMetrics().getFanout());
+    }
+}
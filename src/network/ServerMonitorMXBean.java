@@ -0,0 +1,101 @@
+package network;
+
+import java.util.Map;
+
+/**
+ * Management interface of a ServerMonitor, published over JMX as
+ * "crazyeights:type=Server,port=N". Times are in microseconds.
+ */
+public interface ServerMonitorMXBean {
+
+    /**
+     * Gets the number of player connections currently open.
+     *
+     * @return open connections
+     */
+    long getConnectedClients();
+
+    /**
+     * Gets the number of rooms in the lobby.
+     *
+     * @return active rooms
+     */
+    int getActiveRooms();
+
+    /**
+     * Gets the number of messages queued for seated players.
+     *
+     * @return total outbound queue depth
+     */
+    long getQueuedMessages();
+
+    /**
+     * Gets the deepest outbound queue of any seated player.
+     *
+     * @return largest queue depth
+     */
+    int getMaxQueueDepth();
+
+    /**
+     * Gets the messages received, by protocol type.
+     *
+     * @return counts keyed by type name
+     */
+    Map<String, Long> getMessagesIn();
+
+    /**
+     * Gets the messages sent, by protocol type.
+     *
+     * @return counts keyed by type name
+     */
+    Map<String, Long> getMessagesOut();
+
+    /**
+     * Gets the bytes read from player connections.
+     *
+     * @return byte count
+     */
+    long getBytesIn();
+
+    /**
+     * Gets the bytes written to player connections.
+     *
+     * @return byte count
+     */
+    long getBytesOut();
+
+    /**
+     * Gets the number of move intents accepted.
+     *
+     * @return accepted count
+     */
+    long getMovesAccepted();
+
+    /**
+     * Gets the number of move intents rejected.
+     *
+     * @return rejected count
+     */
+    long getMovesRejected();
+
+    /**
+     * Gets move latency: mean, p50, p99, p999 and max.
+     *
+     * @return microseconds keyed by statistic
+     */
+    Map<String, Double> getMoveLatencyMicros();
+
+    /**
+     * Gets the mean move latency of each room that has timed a move.
+     *
+     * @return microseconds keyed by join code
+     */
+    Map<String, Double> getRoomMoveLatencyMicros();
+
+    /**
+     * Gets broadcast fan-out time: mean, p50, p99, p999 and max.
+     *
+     * @return microseconds keyed by statistic
+     */
+    Map<String, Double> getFanoutMicros();
+}
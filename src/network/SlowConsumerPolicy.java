@@ -0,0 +1,43 @@
+package network;
+
+/**
+ * Decides what gives way when a connection's outbound queue is full,
+ * i.e. when a client reads slower than its table produces messages.
+ * <ul>
+ *   <li>DROP_CHAT: drop chat lines (the new one, or the oldest queued);
+ *       disconnect if there is no chat to drop</li>
+ *   <li>COLLAPSE_STATE: as DROP_CHAT, then replace every queued state update
+ *       (START, SYNC, deltas) with one fresh snapshot written when the client
+ *       catches up; disconnect if that still frees no room (default)</li>
+ *   <li>DISCONNECT: close the connection as soon as the queue is full</li>
+ * </ul>
+ * The policy can be chosen with the system property {@code crazyeights.slow.policy}.
+ */
+public enum SlowConsumerPolicy {
+    /** Drop chat lines first; disconnect if there is none to drop. */
+    DROP_CHAT,
+
+    /** Drop chat, then collapse queued state updates into one snapshot (default). */
+    COLLAPSE_STATE,
+
+    /** Disconnect as soon as the queue is full. */
+    DISCONNECT;
+
+    /** System property used to pick the policy ("drop_chat", "collapse_state" or "disconnect"). */
+    public static final String PROPERTY = "crazyeights.slow.policy";
+
+    /**
+     * Reads the policy from the system property, defaulting to COLLAPSE_STATE.
+     *
+     * @return configured policy
+     */
+    public static SlowConsumerPolicy fromSystemProperty() {
+        String value = System.getProperty(PROPERTY, "collapse_state");
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown slow consumer policy '" + value + "', using collapse_state.");
+            return COLLAPSE_STATE;
+        }
+    }
+}
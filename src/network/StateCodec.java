@@ -0,0 +1,194 @@
+package network;
+
+import model.*;
+import java.util.List;
+
+/**
+ * StateCodec converts a whole Game to and from the text snapshot used by START/SYNC:
+ * "topCard|TURN:n|name:card,card,;name:*12;".
+ * Shared by the server rooms and the client controller so both sides agree on the format.
+ * <p>
+ * Snapshots sent to players are redacted: each recipient sees its own cards
+ * and only a count ("*12") for everyone else's hand.
+ */
+public final class StateCodec {
+
+    /** Marks a hand segment that carries only a card count. */
+    public static final char HIDDEN = '*';
+
+    private StateCodec() {
+    }
+
+    /**
+     * Builds a full snapshot message with every hand visible.
+     *
+     * @param prefix message prefix, "START#" or "SYNC#"
+     * @param game   the game to serialize
+     * @return formatted game state string
+     */
+    public static String format(String prefix, Game game) {
+        StringBuilder builder = new StringBuilder(header(prefix, game));
+        for (Player p : game.getPlayers()) {
+            builder.append(openSegment(p));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Builds a snapshot message for one recipient, hiding the other hands.
+     *
+     * @param prefix message prefix, "START#" or "SYNC#"
+     * @param game   the game to serialize
+     * @param seat   the recipient's seat, or -1 to hide every hand
+     * @return formatted game state string
+     */
+    public static String format(String prefix, Game game, int seat) {
+        List<Player> players = game.getPlayers();
+        StringBuilder builder = new StringBuilder(header(prefix, game));
+        for (int i = 0; i < players.size(); i++) {
+            Player p = players.get(i);
+            builder.append(i == seat ? openSegment(p) : hiddenSegment(p));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Builds the redacted snapshot for every seat at once.
+     * The header and each player's open and hidden segments are encoded once
+     * and then joined per recipient, so n players cost n segment encodings
+     * plus n concatenations instead of n full formats.
+     *
+     * @param prefix message prefix, "START#" or "SYNC#"
+     * @param game   the game to serialize
+     * @return one message per seat, indexed by seat
+     */
+    public static String[] formatPerSeat(String prefix, Game game) {
+        List<Player> players = game.getPlayers();
+        int n = players.size();
+        String header = header(prefix, game);
+        String[] open = new String[n];
+        String[] hidden = new String[n];
+        int hiddenLength = 0;
+        for (int i = 0; i < n; i++) {
+            open[i] = openSegment(players.get(i));
+            hidden[i] = hiddenSegment(players.get(i));
+            hiddenLength += hidden[i].length();
+        }
+
+        String[] messages = new String[n];
+        for (int seat = 0; seat < n; seat++) {
+            StringBuilder builder = new StringBuilder(header.length() + hiddenLength + open[seat].length());
+            builder.append(header);
+            for (int i = 0; i < n; i++) {
+                builder.append(i == seat ? open[i] : hidden[i]);
+            }
+            messages[seat] = builder.toString();
+        }
+        return messages;
+    }
+
+    /**
+     * Encodes the part shared by every recipient: prefix, top card and turn.
+     *
+     * @param prefix message prefix
+     * @param game   the game
+     * @return "prefix" + "topCard|TURN:n|"
+     */
+    private static String header(String prefix, Game game) {
+        return prefix + game.getTopCard() + "|TURN:" + game.getCurrentTurnIndex() + "|";
+    }
+
+    /**
+     * Encodes a player's hand card by card: "name:card,card,;".
+     *
+     * @param p the player
+     * @return open segment
+     */
+    private static String openSegment(Player p) {
+        StringBuilder builder = new StringBuilder(p.getName()).append(':');
+        for (Card c : p.getHand()) {
+            builder.append(c.toString()).append(',');
+        }
+        return builder.append(';').toString();
+    }
+
+    /**
+     * Encodes only the size of a player's hand: "name:*count;".
+     *
+     * @param p the player
+     * @return hidden segment
+     */
+    private static String hiddenSegment(Player p) {
+        return p.getName() + ':' + HIDDEN + p.getCardCount() + ';';
+    }
+
+    /**
+     * Replaces the game's top card, turn and hands with a snapshot.
+     * Players not yet known are added.
+     *
+     * @param data the snapshot without its START#/SYNC# prefix
+     * @param game the game to update
+     * @return true if the snapshot was applied, false if it was malformed
+     */
+    public static boolean parse(String data, Game game) {
+        if (!data.contains("|TURN:")) {
+            return false;
+        }
+
+        try {
+            String[] split = data.split("\\|", 3);
+            String topCardStr = split[0];
+            int turnIndex = Integer.parseInt(split[1].replace("TURN:", ""));
+            String playersBlock = split[2];
+
+            game.setTopCard(card(topCardStr));
+
+            String[] playersData = playersBlock.split(";");
+            for (String pdata : playersData) {
+                if (pdata.trim().isEmpty()) continue;
+
+                String[] parts = pdata.split(":");
+                if (parts.length < 1) continue;
+
+                String pname = parts[0].trim();
+                Player player = game.getPlayer(pname);
+                if (player == null) {
+                    player = new Player(pname);
+                    game.getPlayers().add(player);
+                }
+
+                player.clearHand();
+
+                if (parts.length > 1 && parts[1].indexOf(HIDDEN) == 0) {
+                    player.addHiddenCards(Integer.parseInt(parts[1].substring(1).trim()));
+                } else if (parts.length > 1 && !parts[1].trim().isEmpty()) {
+                    String[] cards = parts[1].split(",");
+                    for (String cStr : cards) {
+                        if (!cStr.trim().isEmpty()) {
+                            player.addCard(card(cStr));
+                        }
+                    }
+                }
+            }
+
+            // Set the turn once the player list is complete
+            game.setCurrentTurnIndex(turnIndex);
+            return true;
+        } catch (RuntimeException e) {
+            System.err.println("Failed to parse game state: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Looks up a card in a snapshot, rejecting unknown ones.
+     *
+     * @param text card text, e.g. "Qh"
+     * @return the canonical card
+     */
+    private static Card card(String text) {
+        Card card = Card.fromString(text);
+        if (card == null) throw new IllegalArgumentException("Bad card: " + text);
+        return card;
+    }
+}
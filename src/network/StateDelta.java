@@ -0,0 +1,185 @@
+package network;
+
+import model.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StateDelta builds and applies the small, versioned operations used by delta sync.
+ * Instead of a full SYNC snapshot after every move, the room applies a player's
+ * intent to its Game and sends the resulting operations (play, draw, suit, turn),
+ * each stamped with the next version, so every client applies the same change.
+ *
+ * Server to client: 9#version#op#args... e.g. "9#17#P#2#Qh"
+ * <ul>
+ *   <li>P#seat#card: player at seat played card</li>
+ *   <li>D#seat#card,card,...: player at seat drew cards (sent to that player)</li>
+ *   <li>D#seat#*count: player at seat drew count cards (sent to everyone else)</li>
+ *   <li>S#suit: wild suit chosen</li>
+ *   <li>T#seat: turn passes to seat</li>
+ *   <li>V: marks the version of the snapshot sent just before it</li>
+ * </ul>
+ * A client that sees a version gap sends RESYNC and gets a snapshot plus V back.
+ */
+public final class StateDelta {
+
+    /** Operation: card played. */
+    public static final String PLAY = "P";
+
+    /** Operation: cards drawn. */
+    public static final String DRAW = "D";
+
+    /** Operation: wild suit chosen. */
+    public static final String SUIT = "S";
+
+    /** Operation: turn changed. */
+    public static final String TURN = "T";
+
+    /** Operation: version of the preceding snapshot. */
+    public static final String BASE = "V";
+
+    private StateDelta() {
+    }
+
+    /**
+     * Builds a play operation.
+     *
+     * @param seat player index
+     * @param card card played
+     * @return unstamped operation ("9#op#...")
+     */
+    public static String play(int seat, Card card) {
+        return Protocol.format(Protocol.DELTA, PLAY, String.valueOf(seat), card.toString());
+    }
+
+    /**
+     * Builds a draw operation.
+     *
+     * @param seat  player index
+     * @param cards cards drawn, in order
+     * @return unstamped operation ("9#op#...")
+     */
+    public static String draw(int seat, List<Card> cards) {
+        StringBuilder list = new StringBuilder();
+        for (Card c : cards) {
+            if (list.length() > 0) list.append(',');
+            list.append(c);
+        }
+        return Protocol.format(Protocol.DELTA, DRAW, String.valueOf(seat), list.toString());
+    }
+
+    /**
+     * Builds a draw operation that reveals only how many cards were drawn.
+     *
+     * @param seat  player index
+     * @param count number of cards drawn
+     * @return unstamped operation ("9#op#...")
+     */
+    public static String hiddenDraw(int seat, int count) {
+        return Protocol.format(Protocol.DELTA, DRAW, String.valueOf(seat), StateCodec.HIDDEN + String.valueOf(count));
+    }
+
+    /**
+     * Builds a suit choice operation.
+     *
+     * @param suit chosen suit letter
+     * @return unstamped operation ("9#op#...")
+     */
+    public static String suit(String suit) {
+        return Protocol.format(Protocol.DELTA, SUIT, suit);
+    }
+
+    /**
+     * Builds a turn change operation.
+     *
+     * @param seat index of the next player
+     * @return unstamped operation ("9#op#...")
+     */
+    public static String turn(int seat) {
+        return Protocol.format(Protocol.DELTA, TURN, String.valueOf(seat));
+    }
+
+    /**
+     * Builds the snapshot version marker.
+     *
+     * @param version version of the snapshot just sent
+     * @return server message
+     */
+    public static String base(long version) {
+        return Protocol.format(Protocol.DELTA, String.valueOf(version), BASE);
+    }
+
+    /**
+     * Stamps an operation with the version it produces.
+     *
+     * @param version the version this operation produces
+     * @param op      unstamped operation ("9#op#...")
+     * @return server message ("9#version#op#...")
+     */
+    public static String stamp(long version, String op) {
+        return Protocol.DELTA + Protocol.SEP + version + op.substring(Protocol.DELTA.length());
+    }
+
+    /**
+     * Applies an operation to a game.
+     *
+     * @param game  the game to change
+     * @param parts the split message
+     * @param op    index of the operation code within parts
+     * @return true if applied, false if the operation is malformed
+     */
+    public static boolean apply(Game game, String[] parts, int op) {
+        try {
+            switch (parts[op]) {
+                case PLAY: {
+                    Card card = Card.fromString(parts[op + 2]);
+                    if (card == null) return false;
+                    game.applyPlay(seat(game, parts[op + 1]), card);
+                    return true;
+                }
+                case DRAW: {
+                    if (parts[op + 2].charAt(0) == StateCodec.HIDDEN) {
+                        int count = Integer.parseInt(parts[op + 2].substring(1));
+                        if (count < 0) return false;
+                        game.applyHiddenDraw(seat(game, parts[op + 1]), count);
+                        return true;
+                    }
+                    List<Card> cards = new ArrayList<>();
+                    for (String c : parts[op + 2].split(",")) {
+                        Card card = Card.fromString(c);
+                        if (card == null) return false;
+                        cards.add(card);
+                    }
+                    game.applyDraw(seat(game, parts[op + 1]), cards);
+                    return true;
+                }
+                case SUIT:
+                    if (parts[op + 1].length() != 1 || "hdcs".indexOf(parts[op + 1].charAt(0)) < 0) return false;
+                    game.applySuit(parts[op + 1]);
+                    return true;
+                case TURN:
+                    game.setCurrentTurnIndex(seat(game, parts[op + 1]));
+                    return true;
+                default:
+                    return false;
+            }
+        } catch (RuntimeException e) {
+            return false; // Missing fields, bad numbers or seats
+        }
+    }
+
+    /**
+     * Parses and range-checks a seat index.
+     *
+     * @param game the game
+     * @param text seat text
+     * @return valid seat index
+     */
+    private static int seat(Game game, String text) {
+        int seat = Integer.parseInt(text);
+        if (seat < 0 || seat >= game.getPlayers().size()) {
+            throw new IndexOutOfBoundsException("Bad seat " + seat);
+        }
+        return seat;
+    }
+}
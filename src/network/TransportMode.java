@@ -0,0 +1,39 @@
+package network;
+
+/**
+ * Selects how Server and Client move bytes over the network.
+ * <ul>
+ *   <li>BLOCKING: one NetworkHandler thread per connection blocking in readLine (default)</li>
+ *   <li>VIRTUAL: the same NetworkHandler read loop, run on a virtual thread (Java 21+)</li>
+ *   <li>NIO: a small fixed set of selector event loops with non-blocking channels</li>
+ * </ul>
+ * The mode can be chosen with the system property {@code crazyeights.transport}.
+ */
+public enum TransportMode {
+    /** One blocking NetworkHandler thread per connection (default). */
+    BLOCKING,
+
+    /** The NetworkHandler loops on virtual threads (Java 21+). */
+    VIRTUAL,
+
+    /** Selector event loops with non-blocking channels. */
+    NIO;
+
+    /** System property used to pick the transport ("blocking", "virtual" or "nio"). */
+    public static final String PROPERTY = "crazyeights.transport";
+
+    /**
+     * Reads the transport mode from the system property, defaulting to BLOCKING.
+     *
+     * @return configured transport mode
+     */
+    public static TransportMode fromSystemProperty() {
+        String value = System.getProperty(PROPERTY, "blocking");
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown transport '" + value + "', using blocking.");
+            return BLOCKING;
+        }
+    }
+}
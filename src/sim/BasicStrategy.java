@@ -0,0 +1,78 @@
+package sim;
+
+import model.Card;
+import model.Game;
+import model.Hand;
+
+import java.util.SplittableRandom;
+
+/**
+ * Simple built-in strategies used as baselines for balancing and bot tuning.
+ */
+public enum BasicStrategy implements Strategy {
+
+    /** Plays the lowest playable card and keeps the 8's suit. */
+    FIRST {
+        @Override
+        public Card choosePlay(Game game, int seat, long playable, SplittableRandom random) {
+            return Hand.first(playable);
+        }
+
+        @Override
+        public int chooseSuit(Game game, int seat, SplittableRandom random) {
+            return game.getTopCard().getSuitCode();
+        }
+    },
+
+    /** Plays a uniformly random playable card and picks a random suit. */
+    RANDOM {
+        @Override
+        public Card choosePlay(Game game, int seat, long playable, SplittableRandom random) {
+            long bits = playable;
+            for (int skip = random.nextInt(Long.bitCount(playable)); skip > 0; skip--) {
+                bits &= bits - 1; // Drop the lowest card
+            }
+            return Hand.first(bits);
+        }
+
+        @Override
+        public int chooseSuit(Game game, int seat, SplittableRandom random) {
+            return random.nextInt(Card.SUITS.length());
+        }
+    },
+
+    /**
+     * Keeps 8s for when nothing else fits, prefers cards of the suit it holds most,
+     * and names its longest suit after an 8.
+     */
+    GREEDY {
+        @Override
+        public Card choosePlay(Game game, int seat, long playable, SplittableRandom random) {
+            Hand hand = game.getPlayers().get(seat).getCards();
+            long normal = playable & ~Hand.rankMask(Card.EIGHT);
+            if (normal == 0) return Hand.first(playable);
+
+            Card best = null;
+            int bestCount = -1;
+            for (long bits = normal; bits != 0; bits &= bits - 1) {
+                Card c = Hand.first(bits);
+                int count = hand.countBySuit(c.getSuitCode());
+                if (count > bestCount) {
+                    best = c;
+                    bestCount = count;
+                }
+            }
+            return best;
+        }
+
+        @Override
+        public int chooseSuit(Game game, int seat, SplittableRandom random) {
+            Hand hand = game.getPlayers().get(seat).getCards();
+            int best = game.getTopCard().getSuitCode();
+            for (int suit = 0; suit < Card.SUITS.length(); suit++) {
+                if (hand.countBySuit(suit) > hand.countBySuit(best)) best = suit;
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package sim;
+
+import model.Card;
+import model.Game;
+import model.Hand;
+
+/**
+ * What one seat can know about a game in progress: its own hand, the top
+ * card, how many cards every other seat holds and how many are left to draw,
+ * and which cards may still be hidden in those hands or the deck.
+ * <p>
+ * A search samples the hidden cards from this set, so it never looks at
+ * another player's hand even when it is given the server's Game.
+ */
+public final class InformationSet {
+
+    /** Every card in the deck. */
+    private static final long ALL = (1L << Card.COUNT) - 1;
+
+    /** The seat to move. */
+    final int seat;
+
+    /** Hand bitset of the seat's own cards. */
+    final long hand;
+
+    /** Cards held by each seat. */
+    final int[] counts;
+
+    /** The top card of the discard pile (an 8 shows the suit chosen for it). */
+    final Card top;
+
+    /** Cards left to draw. */
+    final int deckSize;
+
+    /** Hand bitset of the cards that may be in other hands or the deck. */
+    final long unseen;
+
+    /** True if the seat has played an 8 and must name its suit. */
+    final boolean awaitingSuit;
+
+    /**
+     * Captures a seat's view of a game.
+     * Cards known to have left play narrow down what the others may hold;
+     * if they do not leave enough cards to go round, they are ignored.
+     * An 8 on top may only stand for the suit named after the real 8, so it
+     * is not ruled out of the other hands; pass the real 8 in played instead.
+     *
+     * @param game     the game; only the seat's own hand, the top card and card counts are read
+     * @param seat     the seat to move
+     * @param played   Hand bitset of cards known to be out of play (played before the top card), or 0
+     * @param deckSize cards left to draw
+     */
+    public InformationSet(Game game, int seat, long played, int deckSize) {
+        this.seat = seat;
+        this.hand = game.getPlayers().get(seat).getCards().getMask();
+        this.top = game.getTopCard();
+        this.awaitingSuit = game.isAwaitingSuit();
+        this.counts = new int[game.getPlayers().size()];
+
+        int hidden = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = i == seat ? Long.bitCount(hand) : game.getPlayers().get(i).getCardCount();
+            if (i != seat) hidden += counts[i];
+        }
+
+        long outside = ALL & ~hand;
+        if (top.getRankCode() != Card.EIGHT) outside &= ~Hand.bit(top);
+        long unseen = outside & ~played;
+        if (Long.bitCount(unseen) < hidden + deckSize) unseen = outside;
+        this.unseen = unseen;
+        this.deckSize = Math.max(0, Math.min(deckSize, Long.bitCount(unseen) - hidden));
+    }
+
+    /**
+     * Gets the seat to move.
+     *
+     * @return seat index
+     */
+    public int getSeat() {
+        return seat;
+    }
+
+    /**
+     * Gets the number of cards left to draw.
+     *
+     * @return deck size
+     */
+    public int getDeckSize() {
+        return deckSize;
+    }
+
+    /**
+     * Gets the number of cards that may be hidden in other hands or the deck.
+     *
+     * @return unseen card count
+     */
+    public int getUnseenCount() {
+        return Long.bitCount(unseen);
+    }
+}
@@ -0,0 +1,652 @@
+package sim;
+
+import model.Card;
+import model.Deck;
+import model.Game;
+import model.Hand;
+import model.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * IsmctsStrategy picks moves by information-set Monte Carlo tree search
+ * (single-observer ISMCTS). Every iteration samples one way the hidden cards
+ * could lie from the seat's InformationSet, walks the tree with UCB1 over the
+ * moves that are legal in that sample (counting how often each was
+ * available), adds one new move, plays the game out with a rollout strategy
+ * and credits the winner along the path.
+ * <p>
+ * A search runs one independent tree per thread of its fork/join pool, each
+ * on its own reusable Game and random stream, until the per-move time budget
+ * is spent; the root visit counts are then summed and the most visited move
+ * wins. Strength therefore grows with both cores and budget.
+ * <p>
+ * Playing an 8 is searched together with the suit it names, so when
+ * choosePlay() returns an 8, chooseSuit() answers with that suit without a
+ * second search and a turn costs one budget. One instance may be shared by
+ * any number of seats and threads; it keeps counters and, per thread, the
+ * suit of the last 8 it chose.
+ */
+public class IsmctsStrategy implements Strategy {
+
+    /** Exploration constant of the UCB1 selection rule. */
+    private static final double EXPLORATION = 0.7;
+
+    /** Action: draw (only offered when nothing can be played). */
+    private static final int DRAW = -1;
+
+    /** First action of an 8 played with a suit: 8S + ordinal * 4 + suit. */
+    private static final int EIGHT = 64;
+
+    /** First action of a suit named for an 8 already played: SUIT + suit. */
+    private static final int SUIT = 1024;
+
+    /** Moves after which a rollout is scored as blocked. */
+    private static final int MAX_ROLLOUT_TURNS = 1000;
+
+    /** Pool the search trees run on, one per thread. */
+    private final ForkJoinPool pool;
+
+    /** Thinking time per move. */
+    private final long budgetNanos;
+
+    /** Strategy every seat follows in rollouts. */
+    private final Strategy rollout;
+
+    /** Iterations (one rollout each) across all searches. */
+    private final LongAdder rollouts = new LongAdder();
+
+    /** Wall-clock time of all searches. */
+    private final LongAdder searchNanos = new LongAdder();
+
+    /** The 8 each thread's last choosePlay() returned, with the suit searched for it. */
+    private final ThreadLocal<ChosenEight> chosenEight = ThreadLocal.withInitial(ChosenEight::new);
+
+    /**
+     * Creates a search with greedy rollouts.
+     *
+     * @param pool        pool to run one tree per thread on
+     * @param budgetNanos thinking time per move
+     */
+    public IsmctsStrategy(ForkJoinPool pool, long budgetNanos) {
+        this(pool, budgetNanos, BasicStrategy.GREEDY);
+    }
+
+    /**
+     * Creates a search.
+     *
+     * @param pool        pool to run one tree per thread on
+     * @param budgetNanos thinking time per move
+     * @param rollout     strategy all seats follow in rollouts
+     */
+    public IsmctsStrategy(ForkJoinPool pool, long budgetNanos, Strategy rollout) {
+        this.pool = pool;
+        this.budgetNanos = budgetNanos;
+        this.rollout = rollout;
+    }
+
+    /**
+     * The outcome of one search.
+     */
+    public static final class Decision {
+
+        /** Card to play, or null to draw. */
+        private final Card card;
+
+        /** Suit code to name, or -1 if none is needed. */
+        private final int suit;
+
+        /** Iterations the search ran. */
+        private final long rollouts;
+
+        /**
+         * Creates a decision.
+         *
+         * @param card     card to play, or null to draw
+         * @param suit     suit code to name, or -1
+         * @param rollouts iterations the search ran
+         */
+        Decision(Card card, int suit, long rollouts) {
+            this.card = card;
+            this.suit = suit;
+            this.rollouts = rollouts;
+        }
+
+        /**
+         * Gets the card to play.
+         *
+         * @return the card, or null to draw
+         */
+        public Card getCard() {
+            return card;
+        }
+
+        /**
+         * Gets the suit to name for an 8.
+         *
+         * @return suit code, an index into {@link Card#SUITS}, or -1 if none
+         */
+        public int getSuit() {
+            return suit;
+        }
+
+        /**
+         * Gets the number of iterations behind this decision.
+         *
+         * @return rollouts
+         */
+        public long getRollouts() {
+            return rollouts;
+        }
+    }
+
+    /**
+     * Searches a move for the seat to move, without blocking the caller.
+     *
+     * @param info what the seat knows
+     * @return completes with the chosen move once the budget is spent
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CompletableFuture<Decision> decide(InformationSet info) {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        SplittableRandom root = new SplittableRandom();
+        CompletableFuture<Node>[] trees = new CompletableFuture[pool.getParallelism()];
+        for (int i = 0; i < trees.length; i++) {
+            SplittableRandom random = root.split();
+            trees[i] = CompletableFuture.supplyAsync(() -> new Worker(info, random).search(deadline), pool);
+        }
+        return CompletableFuture.allOf(trees).thenApply(done -> {
+            searchNanos.add(System.nanoTime() - start);
+            Node[] roots = new Node[trees.length];
+            for (int i = 0; i < roots.length; i++) {
+                roots[i] = trees[i].join();
+            }
+            return merge(roots);
+        });
+    }
+
+    /**
+     * Searches a move for the synchronous Strategy calls. A caller running on
+     * the search pool itself searches one tree in place instead of waiting
+     * for trees queued behind it on the same pool; any other caller waits for
+     * {@link #decide}.
+     *
+     * @param info what the seat knows
+     * @return the chosen move
+     */
+    private Decision search(InformationSet info) {
+        Thread thread = Thread.currentThread();
+        if (!(thread instanceof ForkJoinWorkerThread) || ((ForkJoinWorkerThread) thread).getPool() != pool) {
+            return decide(info).join();
+        }
+        long start = System.nanoTime();
+        Node root = new Worker(info, new SplittableRandom()).search(start + budgetNanos);
+        searchNanos.add(System.nanoTime() - start);
+        return merge(new Node[] {root});
+    }
+
+    /**
+     * Sums the root statistics of every tree and picks the most visited move.
+     *
+     * @param roots the roots of the finished trees
+     * @return the decision
+     */
+    private static Decision merge(Node[] roots) {
+        Map<Integer, Integer> visits = new HashMap<>();
+        long total = 0;
+        for (Node root : roots) {
+            total += root.visits;
+            for (int i = 0; i < root.childCount; i++) {
+                visits.merge(root.children[i].action, root.children[i].visits, Integer::sum);
+            }
+        }
+        int best = DRAW;
+        int bestVisits = -1;
+        for (Map.Entry<Integer, Integer> e : visits.entrySet()) {
+            if (e.getValue() > bestVisits) {
+                best = e.getKey();
+                bestVisits = e.getValue();
+            }
+        }
+        if (best >= SUIT) return new Decision(null, best - SUIT, total);
+        if (best >= EIGHT) return new Decision(Card.byOrdinal((best - EIGHT) >> 2), (best - EIGHT) & 3, total);
+        if (best >= 0) return new Decision(Card.byOrdinal(best), -1, total);
+        return new Decision(null, -1, total);
+    }
+
+    @Override
+    public Card choosePlay(Game game, int seat, long playable, SplittableRandom random) {
+        Decision decision = search(new InformationSet(game, seat, 0, game.getDeck().size()));
+        Card card = decision.getCard();
+        if (card == null || (playable & Hand.bit(card)) == 0) card = Hand.first(playable);
+        chosenEight.get().set(game, seat, card, card == decision.getCard() ? decision.getSuit() : -1);
+        return card;
+    }
+
+    @Override
+    public int chooseSuit(Game game, int seat, SplittableRandom random) {
+        int suit = chosenEight.get().take(game, seat);
+        if (suit < 0) suit = search(new InformationSet(game, seat, 0, game.getDeck().size())).getSuit();
+        return suit >= 0 ? suit : game.getTopCard().getSuitCode();
+    }
+
+    /**
+     * Gets the number of rollouts run by all searches so far.
+     *
+     * @return rollout count
+     */
+    public long getRollouts() {
+        return rollouts.sum();
+    }
+
+    /**
+     * Gets the rollout rate over all searches so far.
+     *
+     * @return rollouts per second of search time
+     */
+    public double getRolloutsPerSecond() {
+        long nanos = searchNanos.sum();
+        return nanos == 0 ? 0 : rollouts.sum() / (nanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return "ISMCTS(" + budgetNanos / 1_000_000 + " ms x " + pool.getParallelism() + ")";
+    }
+
+    /**
+     * The card one thread's last choosePlay() returned and the suit searched
+     * with it, if it was an 8.
+     */
+    private static final class ChosenEight {
+
+        /** Game the card was chosen in (null once taken). */
+        private Game game;
+
+        /** Seat that was to play it. */
+        private int seat;
+
+        /** The card. */
+        private Card card;
+
+        /** Suit code searched with it, or -1. */
+        private int suit;
+
+        /**
+         * Records a chosen card.
+         *
+         * @param game the game
+         * @param seat the seat to play it
+         * @param card the card
+         * @param suit suit code searched with it, or -1
+         */
+        void set(Game game, int seat, Card card, int suit) {
+            this.game = suit >= 0 ? game : null;
+            this.seat = seat;
+            this.card = card;
+            this.suit = suit;
+        }
+
+        /**
+         * Takes the suit searched with the 8 just played by this seat.
+         *
+         * @param game the game
+         * @param seat the seat naming a suit
+         * @return suit code, or -1 if the last choice was for another move
+         */
+        int take(Game game, int seat) {
+            boolean same = this.game == game && this.seat == seat && game.getTopCard() == card;
+            this.game = null; // Holds no game once used
+            return same ? suit : -1;
+        }
+    }
+
+    /**
+     * One node of a search tree: a move, the seat that made it, and how that
+     * seat fared after it.
+     */
+    private static final class Node {
+
+        /** The move leading here. */
+        final int action;
+
+        /** The seat that made the move. */
+        final int player;
+
+        /** The node before the move (null at the root). */
+        final Node parent;
+
+        /** Moves tried from here. */
+        Node[] children = new Node[4];
+
+        /** Number of children in use. */
+        int childCount;
+
+        /** Iterations through this node. */
+        int visits;
+
+        /** Iterations in which this move was legal when its parent was selected from. */
+        int available;
+
+        /** Wins (shares of blocked games) of the seat that made the move. */
+        double reward;
+
+        /**
+         * Creates a node.
+         *
+         * @param action the move leading here
+         * @param player the seat that made it
+         * @param parent the node before it
+         */
+        Node(int action, int player, Node parent) {
+            this.action = action;
+            this.player = player;
+            this.parent = parent;
+        }
+
+        /**
+         * Finds the child for a move.
+         *
+         * @param action the move
+         * @return the child, or null if the move has not been tried
+         */
+        Node child(int action) {
+            for (int i = 0; i < childCount; i++) {
+                if (children[i].action == action) return children[i];
+            }
+            return null;
+        }
+
+        /**
+         * Adds a child for a newly tried move.
+         *
+         * @param action the move
+         * @param player the seat making it
+         * @return the new child
+         */
+        Node add(int action, int player) {
+            if (childCount == children.length) {
+                Node[] grown = new Node[childCount * 2];
+                System.arraycopy(children, 0, grown, 0, childCount);
+                children = grown;
+            }
+            Node child = new Node(action, player, this);
+            child.available = 1;
+            children[childCount++] = child;
+            return child;
+        }
+    }
+
+    /**
+     * Builds and searches one tree on one thread, reusing one Game for every
+     * sampled deal.
+     */
+    private final class Worker {
+
+        /** What the searching seat knows. */
+        private final InformationSet info;
+
+        /** This tree's random stream (sampling, selection and rollouts). */
+        private final SplittableRandom random;
+
+        /** Game every sample is loaded into. */
+        private final Game game;
+
+        /** The game's draw pile. */
+        private final Deck deck;
+
+        /** Unseen card ordinals, shuffled for each sample. */
+        private final byte[] hidden;
+
+        /** Legal moves at the current node. */
+        private final int[] actions = new int[Card.COUNT * 4];
+
+        /** Reward of each seat for the last playout. */
+        private final double[] reward;
+
+        /** Scratch list for Game.draw. */
+        private final List<Card> drawn = new ArrayList<>(Card.COUNT);
+
+        /**
+         * Sets up a worker.
+         *
+         * @param info   what the searching seat knows
+         * @param random this tree's random stream
+         */
+        Worker(InformationSet info, SplittableRandom random) {
+            this.info = info;
+            this.random = random;
+            this.deck = new Deck(random.split());
+            List<Player> players = new ArrayList<>(info.counts.length);
+            for (int i = 0; i < info.counts.length; i++) players.add(new Player("Seat" + i));
+            this.game = new Game(players, deck, info.top);
+            this.reward = new double[info.counts.length];
+
+            this.hidden = new byte[Long.bitCount(info.unseen)];
+            int n = 0;
+            for (long bits = info.unseen; bits != 0; bits &= bits - 1) {
+                hidden[n++] = (byte) Long.numberOfTrailingZeros(bits);
+            }
+        }
+
+        /**
+         * Runs iterations until the deadline (at least one).
+         *
+         * @param deadline System.nanoTime() to stop at
+         * @return the root of the tree
+         */
+        Node search(long deadline) {
+            Node root = new Node(DRAW, -1, null);
+            long iterations = 0;
+            do {
+                iterate(root);
+                iterations++;
+            } while (System.nanoTime() < deadline);
+            rollouts.add(iterations);
+            return root;
+        }
+
+        /**
+         * Runs one iteration: sample, select, expand, roll out, back up.
+         *
+         * @param root the root of the tree
+         */
+        private void iterate(Node root) {
+            determinize();
+            int seats = info.counts.length;
+            int passes = 0;
+            Node node = root;
+
+            while (game.getWinner() < 0 && passes < seats) {
+                int player = game.getCurrentTurnIndex();
+                int n = legalActions(player);
+
+                int untried = 0;
+                for (int i = 0; i < n; i++) {
+                    Node child = node.child(actions[i]);
+                    if (child == null) {
+                        actions[untried++] = actions[i];
+                    } else {
+                        child.available++;
+                    }
+                }
+                if (untried > 0) {
+                    int action = actions[random.nextInt(untried)];
+                    node = node.add(action, player);
+                    passes = apply(player, action, passes);
+                    break;
+                }
+
+                Node best = null;
+                double bestScore = Double.NEGATIVE_INFINITY;
+                for (int i = 0; i < n; i++) {
+                    Node child = node.child(actions[i]);
+                    double score = child.reward / child.visits
+                            + EXPLORATION * Math.sqrt(Math.log(child.available) / child.visits);
+                    if (score > bestScore) {
+                        best = child;
+                        bestScore = score;
+                    }
+                }
+                node = best;
+                passes = apply(player, best.action, passes);
+            }
+
+            playOut(passes);
+            root.visits++;
+            for (Node n = node; n != root; n = n.parent) {
+                n.visits++;
+                n.reward += reward[n.player];
+            }
+        }
+
+        /**
+         * Loads one sample of the hidden cards into the game: the other hands
+         * get their known counts, the deck its size, from the unseen cards.
+         */
+        private void determinize() {
+            int needed = info.deckSize;
+            for (int i = 0; i < info.counts.length; i++) {
+                if (i != info.seat) needed += info.counts[i];
+            }
+            needed = Math.min(needed, hidden.length);
+            for (int i = 0; i < needed; i++) {
+                int j = i + random.nextInt(hidden.length - i);
+                byte tmp = hidden[i];
+                hidden[i] = hidden[j];
+                hidden[j] = tmp;
+            }
+
+            int next = 0;
+            for (int i = 0; i < info.counts.length; i++) {
+                Player p = game.getPlayers().get(i);
+                p.clearHand();
+                if (i == info.seat) {
+                    p.addCards(info.hand);
+                    continue;
+                }
+                long mask = 0;
+                for (int c = 0; c < info.counts[i] && next < needed; c++) {
+                    mask |= 1L << hidden[next++];
+                }
+                p.addCards(mask);
+            }
+            long pile = 0;
+            while (next < needed) pile |= 1L << hidden[next++];
+            deck.restack(pile);
+
+            game.setTopCard(info.top);
+            game.setCurrentTurnIndex(info.seat);
+            game.setAwaitingSuit(info.awaitingSuit);
+            game.setWinner(-1);
+        }
+
+        /**
+         * Lists the moves the seat to move has in the current sample.
+         *
+         * @param player the seat to move
+         * @return number of moves written to {@link #actions}
+         */
+        private int legalActions(int player) {
+            if (game.isAwaitingSuit()) {
+                for (int s = 0; s < Card.SUITS.length(); s++) actions[s] = SUIT + s;
+                return Card.SUITS.length();
+            }
+            Hand hand = game.getPlayers().get(player).getCards();
+            long playable = hand.playable(game.getTopCard());
+            if (playable == 0) {
+                actions[0] = DRAW;
+                return 1;
+            }
+            boolean lastCard = hand.size() == 1;
+            int n = 0;
+            for (long bits = playable; bits != 0; bits &= bits - 1) {
+                int ordinal = Long.numberOfTrailingZeros(bits);
+                if (Card.byOrdinal(ordinal).getRankCode() == Card.EIGHT && !lastCard) {
+                    for (int s = 0; s < Card.SUITS.length(); s++) actions[n++] = EIGHT + ordinal * 4 + s;
+                } else {
+                    actions[n++] = ordinal;
+                }
+            }
+            return n;
+        }
+
+        /**
+         * Applies a move to the sample.
+         *
+         * @param player the seat moving
+         * @param action the move
+         * @param passes turns passed in a row so far
+         * @return turns passed in a row after the move
+         */
+        private int apply(int player, int action, int passes) {
+            if (action == DRAW) {
+                drawn.clear();
+                game.draw(player, drawn);
+                return game.getCurrentTurnIndex() != player ? passes + 1 : passes;
+            }
+            if (action >= SUIT) {
+                game.chooseSuit(player, action - SUIT);
+            } else if (action >= EIGHT) {
+                game.play(player, Card.byOrdinal((action - EIGHT) >> 2));
+                if (game.isAwaitingSuit()) game.chooseSuit(player, (action - EIGHT) & 3);
+            } else {
+                game.play(player, Card.byOrdinal(action));
+            }
+            return 0;
+        }
+
+        /**
+         * Plays the sample to the end with the rollout strategy and scores it:
+         * 1 for the winner, or a share for each seat holding the fewest cards
+         * if every seat had to pass in a row.
+         *
+         * @param passes turns passed in a row so far
+         */
+        private void playOut(int passes) {
+            int seats = info.counts.length;
+            for (int turns = 0; game.getWinner() < 0 && passes < seats && turns < MAX_ROLLOUT_TURNS; turns++) {
+                int seat = game.getCurrentTurnIndex();
+                long playable = game.getPlayers().get(seat).getCards().playable(game.getTopCard());
+                if (playable != 0) {
+                    game.play(seat, rollout.choosePlay(game, seat, playable, random));
+                    if (game.isAwaitingSuit()) game.chooseSuit(seat, rollout.chooseSuit(game, seat, random));
+                    passes = 0;
+                } else {
+                    drawn.clear();
+                    game.draw(seat, drawn);
+                    if (game.getCurrentTurnIndex() != seat) passes++;
+                }
+            }
+
+            Arrays.fill(reward, 0);
+            if (game.getWinner() >= 0) {
+                reward[game.getWinner()] = 1;
+                return;
+            }
+            int fewest = Integer.MAX_VALUE;
+            int tied = 0;
+            for (Player p : game.getPlayers()) {
+                int count = p.getCardCount();
+                if (count < fewest) {
+                    fewest = count;
+                    tied = 0;
+                }
+                if (count == fewest) tied++;
+            }
+            for (int i = 0; i < seats; i++) {
+                if (game.getPlayers().get(i).getCardCount() == fewest) reward[i] = 1.0 / tied;
+            }
+        }
+    }
+}
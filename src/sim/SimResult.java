@@ -0,0 +1,141 @@
+package sim;
+
+/**
+ * Totals from a batch of simulated games: wins per seat, blocked games,
+ * turns played and the wall-clock time and threads used.
+ */
+public class SimResult {
+
+    /** Games won by each seat. */
+    private final long[] wins;
+
+    /** Games that ended with every player unable to move. */
+    private long blocked;
+
+    /** Cards played across all games. */
+    private long turns;
+
+    /** Wall-clock time of the batch. */
+    private long elapsedNanos;
+
+    /** Worker threads used. */
+    private int threads;
+
+    /**
+     * Creates empty totals.
+     *
+     * @param seats number of seats per game
+     */
+    public SimResult(int seats) {
+        this.wins = new long[seats];
+    }
+
+    /**
+     * Records a game won by a seat.
+     *
+     * @param seat  the winner
+     * @param turns cards played in the game
+     */
+    void recordWin(int seat, long turns) {
+        wins[seat]++;
+        this.turns += turns;
+    }
+
+    /**
+     * Records a blocked game.
+     *
+     * @param turns cards played in the game
+     */
+    void recordBlocked(long turns) {
+        blocked++;
+        this.turns += turns;
+    }
+
+    /**
+     * Adds another batch's totals to this one.
+     *
+     * @param other partial result
+     */
+    void add(SimResult other) {
+        for (int i = 0; i < wins.length; i++) wins[i] += other.wins[i];
+        blocked += other.blocked;
+        turns += other.turns;
+    }
+
+    /**
+     * Sets how the batch was run.
+     *
+     * @param elapsedNanos wall-clock time
+     * @param threads      worker threads
+     */
+    void setTiming(long elapsedNanos, int threads) {
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+    }
+
+    /**
+     * Gets the number of games played.
+     *
+     * @return games won plus blocked games
+     */
+    public long getGames() {
+        long games = blocked;
+        for (long w : wins) games += w;
+        return games;
+    }
+
+    /**
+     * Gets the games won by a seat.
+     *
+     * @param seat seat index
+     * @return wins
+     */
+    public long getWins(int seat) {
+        return wins[seat];
+    }
+
+    /**
+     * Gets the number of blocked games.
+     *
+     * @return blocked games
+     */
+    public long getBlocked() {
+        return blocked;
+    }
+
+    /**
+     * Gets the average number of cards played per game.
+     *
+     * @return turns per game
+     */
+    public double getTurnsPerGame() {
+        return (double) turns / Math.max(1, getGames());
+    }
+
+    /**
+     * Gets the overall throughput.
+     *
+     * @return games per second
+     */
+    public double getGamesPerSecond() {
+        return getGames() / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Gets the throughput per worker thread.
+     *
+     * @return games per second per core
+     */
+    public double getGamesPerSecondPerCore() {
+        return getGamesPerSecond() / Math.max(1, threads);
+    }
+
+    /**
+     * Gets the number of worker threads used.
+     *
+     * @return threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+}
@@ -0,0 +1,120 @@
+package sim;
+
+import model.Card;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Simulator plays complete Crazy Eights games between strategies with no
+ * UI or network, using the same rules as the server (model.Game).
+ * <p>
+ * A batch is cut into fixed chunks of games. Each chunk gets its own random
+ * stream split from the batch seed and its own reusable Table, and the chunks
+ * run on a fork/join pool. Because chunking does not depend on the thread
+ * count, a seed gives the same totals on one core or many.
+ */
+public class Simulator {
+
+    /** Games per chunk; one Table is built per chunk and reused for all of them. */
+    public static final int CHUNK = 10_000;
+
+    /** Strategy for each seat. */
+    private final Strategy[] strategies;
+
+    /** Cards dealt to each player. */
+    private final int handSize;
+
+    /**
+     * Creates a simulator for a fixed seating.
+     *
+     * @param handSize   cards dealt to each player
+     * @param strategies strategy per seat, in turn order (at least two)
+     */
+    public Simulator(int handSize, Strategy... strategies) {
+        if (strategies.length < 2) {
+            throw new IllegalArgumentException("A game needs at least two seats");
+        }
+        if (handSize < 1 || handSize * strategies.length >= Card.COUNT) {
+            throw new IllegalArgumentException(strategies.length + " hands of " + handSize + " do not fit in one deck");
+        }
+        this.handSize = handSize;
+        this.strategies = strategies.clone();
+    }
+
+    /**
+     * Plays a batch of games.
+     *
+     * @param games   number of games
+     * @param seed    batch seed
+     * @param threads worker threads
+     * @return totals for the batch
+     */
+    public SimResult run(long games, long seed, int threads) {
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Callable<SimResult>> tasks = new ArrayList<>();
+        for (long first = 0; first < games; first += CHUNK) {
+            SplittableRandom random = root.split();
+            long count = Math.min(CHUNK, games - first);
+            tasks.add(() -> playChunk(count, random));
+        }
+
+        SimResult total = new SimResult(strategies.length);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try {
+            for (Future<SimResult> part : pool.invokeAll(tasks)) {
+                total.add(part.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        total.setTiming(System.nanoTime() - start, threads);
+        return total;
+    }
+
+    /**
+     * Plays a batch of games on the calling thread, chunked exactly as {@link #run}
+     * so the totals match a parallel run with the same seed.
+     *
+     * @param games number of games
+     * @param seed  batch seed
+     * @return totals for the batch
+     */
+    public SimResult runOnCallingThread(long games, long seed) {
+        SplittableRandom root = new SplittableRandom(seed);
+        SimResult total = new SimResult(strategies.length);
+        long start = System.nanoTime();
+        for (long first = 0; first < games; first += CHUNK) {
+            total.add(playChunk(Math.min(CHUNK, games - first), root.split()));
+        }
+        total.setTiming(System.nanoTime() - start, 1);
+        return total;
+    }
+
+    /**
+     * Plays one chunk of games on a fresh table.
+     *
+     * @param count  games to play
+     * @param random the chunk's random stream
+     * @return the chunk's totals
+     */
+    private SimResult playChunk(long count, SplittableRandom random) {
+        Table table = new Table(strategies, handSize, random);
+        SimResult result = new SimResult(strategies.length);
+        for (long i = 0; i < count; i++) {
+            table.playOne(result);
+        }
+        return result;
+    }
+}
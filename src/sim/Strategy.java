@@ -0,0 +1,35 @@
+package sim;
+
+import model.Card;
+import model.Game;
+
+import java.util.SplittableRandom;
+
+/**
+ * A Strategy decides moves for one seat in a headless game.
+ * It is only asked when a move is possible, and must not keep per-game
+ * state in fields: one instance is shared by every worker thread.
+ */
+public interface Strategy {
+
+    /**
+     * Picks the card to play.
+     *
+     * @param game     the game in progress (read only)
+     * @param seat     the seat to move
+     * @param playable Hand bitset of the seat's cards that may be played (never empty)
+     * @param random   the worker's random source
+     * @return one of the cards in playable
+     */
+    Card choosePlay(Game game, int seat, long playable, SplittableRandom random);
+
+    /**
+     * Picks the suit after playing an 8.
+     *
+     * @param game   the game in progress (read only)
+     * @param seat   the seat that played the 8
+     * @param random the worker's random source
+     * @return suit code, an index into {@link Card#SUITS}
+     */
+    int chooseSuit(Game game, int seat, SplittableRandom random);
+}
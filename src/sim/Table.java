@@ -0,0 +1,99 @@
+package sim;
+
+import model.Card;
+import model.Deck;
+import model.Game;
+import model.MoveResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * One worker's reusable game table. The Game, Deck, players and scratch list
+ * are created once; each round redeals the same objects, so playing a game
+ * allocates nothing in the hot loop.
+ */
+final class Table {
+
+    /** Game reused for every round. */
+    private final Game game;
+
+    /** Strategy for each seat. */
+    private final Strategy[] strategies;
+
+    /** Cards dealt to each player per round. */
+    private final int handSize;
+
+    /** Worker random source, shared by the deck and the strategies. */
+    private final SplittableRandom random;
+
+    /** Scratch list for Game.draw. */
+    private final List<Card> drawn = new ArrayList<>(Card.COUNT);
+
+    /**
+     * Sets up a table.
+     *
+     * @param strategies strategy per seat
+     * @param handSize   cards dealt to each player
+     * @param random     this worker's random source
+     */
+    Table(Strategy[] strategies, int handSize, SplittableRandom random) {
+        List<String> names = new ArrayList<>(strategies.length);
+        for (int i = 0; i < strategies.length; i++) names.add("Seat" + i);
+
+        this.strategies = strategies;
+        this.handSize = handSize;
+        this.random = random;
+        this.game = new Game(names, new Deck(random));
+    }
+
+    /**
+     * Plays one complete game and adds its outcome to the result.
+     * A game in which every player passes in a row (deck empty, nothing playable)
+     * is counted as blocked.
+     *
+     * @param result totals to update
+     */
+    void playOne(SimResult result) {
+        game.redeal(handSize);
+        int seats = strategies.length;
+        int passes = 0;
+        long turns = 0;
+
+        while (game.getWinner() < 0) {
+            int seat = game.getCurrentTurnIndex();
+            long playable = game.getPlayers().get(seat).getCards().playable(game.getTopCard());
+
+            if (playable != 0) {
+                Strategy strategy = strategies[seat];
+                check(strategy, game.play(seat, strategy.choosePlay(game, seat, playable, random)));
+                if (game.isAwaitingSuit()) {
+                    check(strategy, game.chooseSuit(seat, strategy.chooseSuit(game, seat, random)));
+                }
+                passes = 0;
+                turns++;
+            } else {
+                drawn.clear();
+                game.draw(seat, drawn);
+                if (game.getCurrentTurnIndex() != seat && ++passes >= seats) {
+                    result.recordBlocked(turns);
+                    return;
+                }
+            }
+        }
+        result.recordWin(game.getWinner(), turns);
+    }
+
+    /**
+     * Fails fast when a strategy makes an illegal move.
+     *
+     * @param strategy the strategy that moved
+     * @param result   the game's verdict
+     */
+    private static void check(Strategy strategy, MoveResult result) {
+        if (result != MoveResult.OK) {
+            throw new IllegalStateException(strategy + " made an illegal move: " + result);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package view;
+
+import javax.swing.Icon;
+import javax.swing.JComponent;
+import javax.swing.Timer;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Animator moves card sprites across a component with a fixed timestep.
+ * <p>
+ * One Swing timer drives every tween, so all animation runs on the Event
+ * Dispatch Thread and never holds up the network thread. Each tick adds the
+ * real time elapsed to an accumulator and advances the tweens by as many
+ * whole steps of 1/60 s as it holds (at most a few, so a stalled EDT skips
+ * ahead rather than replaying every missed step). A tween that moved
+ * repaints only the rectangle covering where it was and where it is. The
+ * timer runs only while tweens are in flight.
+ * <p>
+ * Tweens are pooled: starting one takes it from the pool (growing the pool
+ * only when every tween is in use) and landing puts it back, so frames do
+ * not allocate. When a tween lands, the listener is told its target and
+ * value, e.g. so the card can be shown in its hand.
+ */
+public final class Animator {
+
+    /** Steps per second of the fixed timestep. */
+    public static final int STEPS_PER_SECOND = 60;
+
+    /** Length of one step. */
+    private static final long STEP_NANOS = TimeUnit.SECONDS.toNanos(1) / STEPS_PER_SECOND;
+
+    /** Most steps taken in one tick. */
+    private static final int MAX_STEPS_PER_TICK = 4;
+
+    /** Tweens pooled before the first animation. */
+    private static final int INITIAL_POOL = 64;
+
+    /**
+     * Told when a tween lands.
+     */
+    public interface Listener {
+
+        /**
+         * A tween reached its destination (EDT).
+         *
+         * @param target target given when the tween started
+         * @param value  value given when the tween started
+         */
+        void landed(int target, int value);
+    }
+
+    /** Component the sprites are drawn over. */
+    private final JComponent host;
+
+    /** Told when tweens land. */
+    private final Listener listener;
+
+    /** Fires the ticks. */
+    private final Timer timer;
+
+    /** Tweens in flight, in the order they started (drawn in that order). */
+    private Tween[] active = new Tween[INITIAL_POOL];
+
+    /** Number of tweens in flight. */
+    private int activeCount;
+
+    /** Idle tweens. */
+    private Tween[] pool = new Tween[INITIAL_POOL];
+
+    /** Number of idle tweens. */
+    private int poolCount;
+
+    /** Time of the last tick, and time not yet turned into steps. */
+    private long lastTick, accumulated;
+
+    /**
+     * Creates an animator drawing over a component.
+     *
+     * @param host     the component; it must call {@link #paint} from its paintComponent
+     * @param listener told when tweens land
+     */
+    public Animator(JComponent host, Listener listener) {
+        this.host = host;
+        this.listener = listener;
+        for (; poolCount < INITIAL_POOL; poolCount++) pool[poolCount] = new Tween();
+        timer = new Timer(1000 / STEPS_PER_SECOND, e -> tick());
+        timer.setCoalesce(true);
+    }
+
+    /**
+     * Starts moving a sprite (EDT).
+     *
+     * @param sprite the sprite drawn
+     * @param fromX  start position
+     * @param fromY  start position
+     * @param toX    destination
+     * @param toY    destination
+     * @param delay  steps to wait before it appears and sets off
+     * @param steps  steps the flight takes
+     * @param target passed to the listener on landing
+     * @param value  passed to the listener on landing
+     */
+    public void start(Icon sprite, int fromX, int fromY, int toX, int toY, int delay, int steps, int target, int value) {
+        Tween t = poolCount > 0 ? pool[--poolCount] : new Tween();
+        t.sprite = sprite;
+        t.fromX = fromX;
+        t.fromY = fromY;
+        t.toX = toX;
+        t.toY = toY;
+        t.x = fromX;
+        t.y = fromY;
+        t.delay = delay;
+        t.step = 0;
+        t.steps = Math.max(1, steps);
+        t.target = target;
+        t.value = value;
+        if (activeCount == active.length) active = Arrays.copyOf(active, activeCount * 2);
+        active[activeCount++] = t;
+        if (delay == 0) host.repaint(t.x, t.y, sprite.getIconWidth(), sprite.getIconHeight());
+
+        if (!timer.isRunning()) {
+            lastTick = System.nanoTime();
+            accumulated = 0;
+            timer.start();
+        }
+    }
+
+    /**
+     * Handles a timer tick: turns the time elapsed into fixed steps (EDT).
+     */
+    private void tick() {
+        long now = System.nanoTime();
+        accumulated += now - lastTick;
+        lastTick = now;
+        int steps = (int) Math.min(MAX_STEPS_PER_TICK, accumulated / STEP_NANOS);
+        accumulated = steps == MAX_STEPS_PER_TICK ? 0 : accumulated - steps * STEP_NANOS;
+        if (steps > 0) advance(steps);
+    }
+
+    /**
+     * Advances every tween by a number of steps, repaints what moved and
+     * lands the tweens that arrived (EDT).
+     *
+     * @param steps steps to advance
+     */
+    public void advance(int steps) {
+        int kept = 0;
+        for (int i = 0; i < activeCount; i++) {
+            Tween t = active[i];
+            if (t.advance(steps)) {
+                active[kept++] = t; // Kept in starting order
+            } else {
+                landed(t);
+            }
+        }
+        Arrays.fill(active, kept, activeCount, null);
+        activeCount = kept;
+        if (activeCount == 0) timer.stop();
+    }
+
+    /**
+     * Returns a tween that arrived to the pool and tells the listener.
+     *
+     * @param t the tween
+     */
+    private void landed(Tween t) {
+        host.repaint(t.x, t.y, t.sprite.getIconWidth(), t.sprite.getIconHeight());
+        int target = t.target, value = t.value;
+        t.sprite = null;
+        if (poolCount == pool.length) pool = Arrays.copyOf(pool, poolCount * 2);
+        pool[poolCount++] = t;
+        listener.landed(target, value);
+    }
+
+    /**
+     * Draws the sprites in flight that meet the clip, in starting order.
+     *
+     * @param g    graphics of the host
+     * @param clip region being repainted
+     */
+    public void paint(Graphics g, Rectangle clip) {
+        for (int i = 0; i < activeCount; i++) {
+            Tween t = active[i];
+            if (t.delay > 0) continue;
+            int w = t.sprite.getIconWidth(), h = t.sprite.getIconHeight();
+            if (t.x < clip.x + clip.width && t.x + w > clip.x && t.y < clip.y + clip.height && t.y + h > clip.y) {
+                t.sprite.paintIcon(host, g, t.x, t.y);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of tweens started and not landed yet, waiting ones included.
+     *
+     * @return tweens in flight
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Lands every tween at once, e.g. before the table is laid out anew (EDT).
+     */
+    public void finishAll() {
+        if (activeCount > 0) advance(Integer.MAX_VALUE / 2);
+    }
+
+    /**
+     * One sprite in flight.
+     */
+    private final class Tween {
+
+        /** Sprite drawn. */
+        Icon sprite;
+
+        /** Start, destination and current position. */
+        int fromX, fromY, toX, toY, x, y;
+
+        /** Steps left to wait, steps taken and steps the flight takes. */
+        int delay, step, steps;
+
+        /** Passed to the listener on landing. */
+        int target, value;
+
+        /**
+         * Moves the sprite on, repainting its old and new place.
+         *
+         * @param n steps to advance
+         * @return true while still in flight, false once arrived
+         */
+        boolean advance(int n) {
+            if (delay > 0) {
+                int waited = Math.min(delay, n);
+                delay -= waited;
+                n -= waited;
+                if (n == 0 && delay > 0) return true;
+            }
+            step = Math.min(steps, step + n);
+            if (step == steps) return false;
+
+            double u = 1 - (double) step / steps;
+            double eased = 1 - u * u; // Eases out: fast off the mark, slowing into place
+            int nx = fromX + (int) Math.round((toX - fromX) * eased);
+            int ny = fromY + (int) Math.round((toY - fromY) * eased);
+            int w = sprite.getIconWidth(), h = sprite.getIconHeight();
+            if (n == 0 || nx != x || ny != y) {
+                int left = Math.min(x, nx), top = Math.min(y, ny);
+                host.repaint(left, top, Math.max(x, nx) + w - left, Math.max(y, ny) + h - top);
+                x = nx;
+                y = ny;
+            }
+            return true;
+        }
+    }
+}
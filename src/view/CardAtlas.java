@@ -0,0 +1,211 @@
+package view;
+
+import model.Card;
+
+import javax.swing.Icon;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * CardAtlas packs every card image into one sprite sheet, decoded once per
+ * process, and draws sprites as sub-image blits from it.
+ * <p>
+ * Only the upright images are read: the 52 faces, the back and the narrow
+ * back strip. The other variants are made at load time, under the names of
+ * the asset files they replace: "l" + card is the left edge of the upright
+ * face (a region of the same pixels), and "Fback"/"Flback" are the back and
+ * its strip turned a quarter clockwise for the side seats.
+ * <p>
+ * Faces sit in rows by suit and columns by rank; the last row holds the backs.
+ */
+public final class CardAtlas {
+
+    /** Directory of the card images. */
+    private static final String DIR = "Assets/cards/";
+
+    /** Size of an upright card. */
+    public static final int CARD_WIDTH = 71, CARD_HEIGHT = 96;
+
+    /** Width of the visible edge of an overlapped card. */
+    public static final int STRIP_WIDTH = 14;
+
+    /** Sprite name of the card back. */
+    public static final String BACK = "back";
+
+    /** Sprite name of the edge of a card back. */
+    public static final String BACK_STRIP = "lback";
+
+    /** Sprite name of a card back lying sideways. */
+    public static final String SIDE_BACK = "Fback";
+
+    /** Sprite name of the edge of a card back lying sideways. */
+    public static final String SIDE_BACK_STRIP = "Flback";
+
+    /** The one atlas of this process. */
+    private static CardAtlas instance;
+
+    /** The sprite sheet. */
+    private final BufferedImage sheet;
+
+    /** Sprite regions keyed by name. */
+    private final Map<String, Sprite> sprites = new HashMap<>();
+
+    /** Sprites of the upright faces, indexed by card ordinal. */
+    private final Sprite[] faces = new Sprite[Card.COUNT];
+
+    /** Sprites of the left edges of the faces, indexed by card ordinal. */
+    private final Sprite[] strips = new Sprite[Card.COUNT];
+
+    /**
+     * Loads and packs the card images.
+     */
+    private CardAtlas() {
+        int ranks = Card.RANKS.length();
+        int suits = Card.SUITS.length();
+        sheet = ImageCache.compatible(ranks * CARD_WIDTH, (suits + 1) * CARD_HEIGHT, Transparency.TRANSLUCENT);
+        Graphics2D g = sheet.createGraphics();
+
+        for (int ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+            Card card = Card.byOrdinal(ordinal);
+            int x = card.getRankCode() * CARD_WIDTH;
+            int y = card.getSuitCode() * CARD_HEIGHT;
+            g.drawImage(ImageCache.read(card.getImagePath()), x, y, null);
+            faces[ordinal] = add(card.toString(), x, y, CARD_WIDTH, CARD_HEIGHT);
+            strips[ordinal] = add("l" + card, x, y, STRIP_WIDTH, CARD_HEIGHT);
+        }
+
+        int y = suits * CARD_HEIGHT;
+        BufferedImage back = ImageCache.read(DIR + BACK + ".png");
+        BufferedImage backStrip = ImageCache.read(DIR + BACK_STRIP + ".png");
+        g.drawImage(back, 0, y, null);
+        add(BACK, 0, y, CARD_WIDTH, CARD_HEIGHT);
+        int x = CARD_WIDTH;
+        g.drawImage(backStrip, x, y, null);
+        add(BACK_STRIP, x, y, STRIP_WIDTH, CARD_HEIGHT);
+        x += STRIP_WIDTH;
+        drawTurned(g, back, x, y);
+        add(SIDE_BACK, x, y, CARD_HEIGHT, CARD_WIDTH);
+        drawTurned(g, backStrip, x, y + CARD_WIDTH);
+        add(SIDE_BACK_STRIP, x, y + CARD_WIDTH, CARD_HEIGHT, STRIP_WIDTH);
+        g.dispose();
+    }
+
+    /**
+     * Gets the atlas, packing it on first use.
+     *
+     * @return the atlas
+     */
+    public static synchronized CardAtlas get() {
+        if (instance == null) instance = new CardAtlas();
+        return instance;
+    }
+
+    /**
+     * Draws an image turned a quarter clockwise, its top-left corner at (x, y).
+     *
+     * @param g     graphics of the sheet
+     * @param image the upright image
+     * @param x     left edge of the turned image
+     * @param y     top edge of the turned image
+     */
+    private static void drawTurned(Graphics2D g, BufferedImage image, int x, int y) {
+        AffineTransform saved = g.getTransform();
+        g.translate(x + image.getHeight(), y);
+        g.rotate(Math.PI / 2);
+        g.drawImage(image, 0, 0, null);
+        g.setTransform(saved);
+    }
+
+    /**
+     * Registers a sprite.
+     *
+     * @param name   sprite name
+     * @param x      left edge in the sheet
+     * @param y      top edge in the sheet
+     * @param width  width
+     * @param height height
+     * @return the sprite
+     */
+    private Sprite add(String name, int x, int y, int width, int height) {
+        Sprite sprite = new Sprite(x, y, width, height);
+        sprites.put(name, sprite);
+        return sprite;
+    }
+
+    /**
+     * Gets a sprite by the name of the asset file it replaces, e.g. "Qh",
+     * "lQh", "back" or "Flback". The sprite is an Icon, so labels and
+     * buttons can show it directly.
+     *
+     * @param name sprite name (asset file name without directory and ".png")
+     * @return the sprite, or null if there is none by that name
+     */
+    public Icon getIcon(String name) {
+        return sprites.get(name);
+    }
+
+    /**
+     * Gets the sprite of a card's face.
+     *
+     * @param card  the card
+     * @param strip true for only the left edge, as shown under the next card
+     * @return the sprite
+     */
+    public Icon getFace(Card card, boolean strip) {
+        return strip ? strips[card.getOrdinal()] : faces[card.getOrdinal()];
+    }
+
+    /**
+     * Gets the sprite sheet itself.
+     *
+     * @return the sheet
+     */
+    public BufferedImage getSheet() {
+        return sheet;
+    }
+
+    /**
+     * One region of the sheet, drawn by copying it out.
+     */
+    private final class Sprite implements Icon {
+
+        /** Region in the sheet. */
+        final int x, y, width, height;
+
+        /**
+         * Creates a sprite.
+         *
+         * @param x      left edge in the sheet
+         * @param y      top edge in the sheet
+         * @param width  width
+         * @param height height
+         */
+        Sprite(int x, int y, int width, int height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public void paintIcon(Component c, Graphics g, int dx, int dy) {
+            g.drawImage(sheet, dx, dy, dx + width, dy + height, x, y, x + width, y + height, null);
+        }
+
+        @Override
+        public int getIconWidth() {
+            return width;
+        }
+
+        @Override
+        public int getIconHeight() {
+            return height;
+        }
+    }
+}
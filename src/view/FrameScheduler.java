@@ -0,0 +1,133 @@
+package view;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * FrameScheduler coalesces updates posted from any thread into at most one
+ * render per frame on the Event Dispatch Thread.
+ * <p>
+ * Posting a snapshot only replaces the newest one and, if no frame is
+ * pending, asks the EDT for one; a burst of messages therefore costs one
+ * render of the last snapshot rather than one per message. Frames are at
+ * least a frame interval apart: an update arriving sooner than that after
+ * the last render waits on a Swing timer for the rest of the interval.
+ * <p>
+ * Snapshots must not change once posted, since the EDT reads them while
+ * the poster carries on.
+ *
+ * @param <T> type of the snapshots rendered
+ */
+public final class FrameScheduler<T> {
+
+    /** Default frames per second. */
+    public static final int DEFAULT_FPS = 60;
+
+    /** Newest snapshot not rendered yet, or null. */
+    private final AtomicReference<T> latest = new AtomicReference<>();
+
+    /** True from a post that asked for a frame until that frame starts. */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /** Renders a snapshot (EDT). */
+    private final Consumer<T> renderer;
+
+    /** Shortest time between two renders. */
+    private final long frameNanos;
+
+    /** Fires a delayed frame (EDT). */
+    private final Timer timer;
+
+    /** When the last render started (EDT). */
+    private long lastFrame;
+
+    /** Snapshots posted and frames rendered, for tools that measure coalescing. */
+    private final AtomicLong posted = new AtomicLong(), rendered = new AtomicLong();
+
+    /**
+     * Creates a scheduler rendering at most {@link #DEFAULT_FPS} frames a second.
+     *
+     * @param renderer renders a snapshot, called on the EDT
+     */
+    public FrameScheduler(Consumer<T> renderer) {
+        this(renderer, DEFAULT_FPS);
+    }
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param renderer renders a snapshot, called on the EDT
+     * @param fps      most renders per second
+     */
+    public FrameScheduler(Consumer<T> renderer, int fps) {
+        if (fps <= 0) throw new IllegalArgumentException("fps must be positive");
+        this.renderer = renderer;
+        this.frameNanos = TimeUnit.SECONDS.toNanos(1) / fps;
+        this.lastFrame = System.nanoTime() - frameNanos;
+        this.timer = new Timer(0, e -> frame());
+        timer.setRepeats(false);
+    }
+
+    /**
+     * Posts a new snapshot to render, replacing any not rendered yet.
+     * Safe to call from any thread.
+     *
+     * @param snapshot the snapshot; must not change after this call
+     */
+    public void post(T snapshot) {
+        posted.incrementAndGet();
+        latest.set(snapshot);
+        if (scheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::schedule);
+        }
+    }
+
+    /**
+     * Renders now if a frame interval has passed since the last render, or
+     * sets the timer for the rest of the interval (EDT).
+     */
+    private void schedule() {
+        long wait = lastFrame + frameNanos - System.nanoTime();
+        if (wait <= 0) {
+            frame();
+        } else {
+            timer.setInitialDelay((int) TimeUnit.NANOSECONDS.toMillis(wait + 999_999)); // Rounded up
+            timer.restart();
+        }
+    }
+
+    /**
+     * Renders the newest snapshot (EDT).
+     */
+    private void frame() {
+        scheduled.set(false); // Posts from now on ask for another frame
+        T snapshot = latest.getAndSet(null);
+        if (snapshot == null) return;
+        lastFrame = System.nanoTime();
+        rendered.incrementAndGet();
+        renderer.accept(snapshot);
+    }
+
+    /**
+     * Gets the number of snapshots posted.
+     *
+     * @return snapshots posted so far
+     */
+    public long getPosted() {
+        return posted.get();
+    }
+
+    /**
+     * Gets the number of frames rendered.
+     *
+     * @return renders so far
+     */
+    public long getRendered() {
+        return rendered.get();
+    }
+}
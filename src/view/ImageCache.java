@@ -0,0 +1,142 @@
+package view;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ImageCache decodes each image asset once and keeps it, together with any
+ * scaled copies asked for, in a small least-recently-used cache. Images are
+ * converted to the screen's pixel format on load, so drawing them is a plain
+ * copy rather than a conversion on every repaint.
+ */
+public final class ImageCache {
+
+    /** Images kept before the least recently used is dropped. */
+    private static final int MAX_ENTRIES = 16;
+
+    /** Decoded and scaled images keyed by path (and size for scaled copies). */
+    private static final Map<String, BufferedImage> CACHE = new LinkedHashMap<>(MAX_ENTRIES, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private ImageCache() {
+    }
+
+    /**
+     * Gets an image asset, decoding it on first use.
+     *
+     * @param path classpath-relative path, e.g. "Assets/Background.png"
+     * @return the image, or a 1x1 transparent image if the asset is missing
+     */
+    public static synchronized BufferedImage get(String path) {
+        BufferedImage image = CACHE.get(path);
+        if (image == null) {
+            image = read(path);
+            CACHE.put(path, image);
+        }
+        return image;
+    }
+
+    /**
+     * Gets an image asset scaled to a size. Only the most recently used
+     * sizes are kept, so a resized window does not pile up copies.
+     *
+     * @param path   classpath-relative path
+     * @param width  width in pixels
+     * @param height height in pixels
+     * @return the scaled image
+     */
+    public static synchronized BufferedImage scaled(String path, int width, int height) {
+        String key = path + '@' + width + 'x' + height;
+        BufferedImage image = CACHE.get(key);
+        if (image == null) {
+            BufferedImage source = get(path);
+            image = compatible(Math.max(1, width), Math.max(1, height), source.getTransparency());
+            Graphics2D g = image.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, image.getWidth(), image.getHeight(), null);
+            g.dispose();
+            CACHE.put(key, image);
+        }
+        return image;
+    }
+
+    /**
+     * Decodes an image from the classpath into a screen-compatible image.
+     * An image without a single see-through pixel is stored opaque, so
+     * drawing it copies pixels instead of blending them.
+     *
+     * @param path classpath-relative path
+     * @return the image, or a 1x1 transparent image if missing or unreadable
+     */
+    static BufferedImage read(String path) {
+        URL url = ImageCache.class.getClassLoader().getResource(path);
+        try {
+            BufferedImage decoded = url != null ? ImageIO.read(url) : null;
+            if (decoded != null) {
+                BufferedImage image = compatible(decoded.getWidth(), decoded.getHeight(),
+                        isOpaque(decoded) ? Transparency.OPAQUE : Transparency.TRANSLUCENT);
+                Graphics2D g = image.createGraphics();
+                g.drawImage(decoded, 0, 0, null);
+                g.dispose();
+                return image;
+            }
+        } catch (IOException e) {
+            System.err.println("Couldn't read file: " + path + " (" + e.getMessage() + ")");
+            return compatible(1, 1, Transparency.TRANSLUCENT);
+        }
+        System.err.println("Couldn't find file: " + path);
+        return compatible(1, 1, Transparency.TRANSLUCENT);
+    }
+
+    /**
+     * Checks whether every pixel of an image is fully opaque.
+     *
+     * @param image the image
+     * @return true if nothing shows through
+     */
+    private static boolean isOpaque(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) return true;
+        int[] row = new int[image.getWidth()];
+        for (int y = 0; y < image.getHeight(); y++) {
+            image.getRGB(0, y, row.length, 1, row, 0, row.length);
+            for (int argb : row) {
+                if (argb >>> 24 != 0xFF) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates an empty image in the screen's pixel format (premultiplied
+     * ARGB, or RGB if opaque, when there is no screen).
+     *
+     * @param width        width in pixels
+     * @param height       height in pixels
+     * @param transparency {@link Transparency#OPAQUE} or {@link Transparency#TRANSLUCENT}
+     * @return the new image
+     */
+    static BufferedImage compatible(int width, int height, int transparency) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleImage(width, height, transparency);
+        }
+        return new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+}
@@ -36,9 +36,7 @@ public class StartPage extends JFrame {
         setLayout(new BorderLayout());
 
         // Splash screen
-        ImageIcon splashIcon = new ImageIcon(getClass().getResource("/Assets/StartPage.jpg"));
-        Image splashImg = splashIcon.getImage().getScaledInstance(getWidth(), getHeight(), Image.SCALE_SMOOTH);
-        JLabel splashLabel = new JLabel(new ImageIcon(splashImg));
+        JLabel splashLabel = new JLabel(new ImageIcon(ImageCache.scaled("Assets/StartPage.jpg", getWidth(), getHeight())));
         splashLabel.setSize(getSize());
         add(splashLabel, BorderLayout.CENTER);
         setVisible(true);
@@ -84,7 +82,7 @@ public class StartPage extends JFrame {
 
         // Connect client and set message listener
         client = new Client(dialog.getHostAddress(), port);
-        client.connect(name, message -> {
+        client.connect(name, dialog.getRoomCode(), message -> {
             // Initialize game on first START message
             if (message.startsWith("START#") && controller == null) {
                 game = new Game();
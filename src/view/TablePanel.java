@@ -0,0 +1,663 @@
+package view;
+
+import controller.MenuSystem;
+import model.Card;
+import model.Game;
+import model.Hand;
+import model.Player;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * TablePanel paints the whole card table itself: the background, both
+ * piles, every hand and the players' names, blitted from the CardAtlas with
+ * Java2D. There is one component whatever the number of cards, and clicks
+ * on your cards and on the draw pile are hit-tested here rather than by a
+ * button per card. The draw button is the only child component.
+ * <p>
+ * Seats are placed around the table relative to you: you at the bottom,
+ * then the other players right, top and left. With more than four players
+ * (up to eight) the sides share their length out. A hand that does not fit
+ * its side is squeezed by overlapping the cards more.
+ * <p>
+ * Only what changed is repainted: each update compares the game with what
+ * is on screen seat by seat and repaints the regions of the seats and piles
+ * that differ, and painting skips cards outside the clip.
+ * <p>
+ * Cards that change place fly there with the Animator: a played card from
+ * its hand to the discard pile, drawn cards from the draw pile to their
+ * hands, and a whole deal one card per seat in turn. A card in flight is not
+ * shown at its destination until it lands, and the discard pile keeps its
+ * old top card until the play lands on it.
+ */
+final class TablePanel extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Most players the table has room for. */
+    static final int MAX_SEATS = 8;
+
+    /** Width and height of an upright card. */
+    private static final int CW = CardAtlas.CARD_WIDTH, CH = CardAtlas.CARD_HEIGHT;
+
+    /** Width of a card edge showing under the next card. */
+    private static final int STRIP = CardAtlas.STRIP_WIDTH;
+
+    /** Step between cards in your hand and in a top row of backs (edge plus a small gap). */
+    private static final int ROW_STEP = 17;
+
+    /** Distance of the seats from the edge of the table. */
+    private static final int MARGIN = 10;
+
+    /** Gap between a hand and its name. */
+    private static final int LABEL_GAP = 4;
+
+    /** Gap between the draw and discard piles. */
+    private static final int PILE_GAP = 20;
+
+    /** Steps a card takes to fly to its place. */
+    private static final int FLIGHT_STEPS = 18;
+
+    /** Steps between two cards of a deal setting off. */
+    private static final int DEAL_STAGGER = 1;
+
+    /** Animator target of a card flying to the discard pile (seats are 0 and up). */
+    private static final int DISCARD = -1;
+
+    /** Sides of the table a seat can sit on. */
+    private enum Side { BOTTOM, RIGHT, TOP, LEFT }
+
+    /** Seats in use (you first), at most MAX_SEATS. */
+    private final Seat[] seats = new Seat[MAX_SEATS];
+
+    /** Number of seats in use. */
+    private int seatCount;
+
+    /** Card on the discard pile, or null before the game starts. */
+    private Card top;
+
+    /** Card shown on the discard pile: the top card, or the one under a play still in flight. */
+    private Card shownTop;
+
+    /** Plays flying to the discard pile. */
+    private int playsInFlight;
+
+    /** True to fly cards to their places, false to show them there at once. */
+    private boolean animated = true;
+
+    /** True when the last update gained cards before the table had a size to fly them to. */
+    private boolean dealOnLayout;
+
+    /** Moves cards between the piles and the hands. */
+    private final Animator animator = new Animator(this, this::landed);
+
+    /** Where the piles are drawn. */
+    private final Rectangle drawPile = new Rectangle(), discardPile = new Rectangle();
+
+    /** The draw button under the piles. */
+    private final JButton drawButton;
+
+    /** Font and colour of the names. */
+    private final Font labelFont = UIManager.getFont("Label.font");
+
+    /** Text rendering hints of the desktop, or null if there are none (headless). */
+    private final Map<?, ?> textHints = (Map<?, ?>) Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
+
+    /** Card sprites. */
+    private final CardAtlas atlas = CardAtlas.get();
+
+    /** Called with the card clicked in your hand. */
+    private final Consumer<Card> cardClick;
+
+    /** Called when the draw pile or draw button is clicked. */
+    private final Runnable drawClick;
+
+    /** Size the seats were last laid out for. */
+    private int laidOutWidth = -1, laidOutHeight = -1;
+
+    /**
+     * Creates the table.
+     *
+     * @param cardClick called with the card clicked in your hand
+     * @param drawClick called when the draw pile or the draw button is clicked
+     */
+    TablePanel(Consumer<Card> cardClick, Runnable drawClick) {
+        this.cardClick = cardClick;
+        this.drawClick = drawClick;
+        for (int i = 0; i < seats.length; i++) seats[i] = new Seat();
+
+        setLayout(null);
+        setOpaque(true);
+        drawButton = new JButton(MenuSystem.getMessages().getString("label.draw_card")); // Localized "Draw Card"
+        drawButton.addActionListener(e -> drawClick.run());
+        add(drawButton);
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                click(e.getX(), e.getY());
+            }
+        });
+    }
+
+    /**
+     * Shows a game, repainting only the seats and piles that changed.
+     *
+     * @param game the game model
+     * @param you  name of the player viewing the screen
+     */
+    void show(Game game, String you) {
+        List<Player> players = game.getPlayers();
+        int yourIndex = game.getPlayerIndex(you);
+        int count = yourIndex < 0 ? 0 : Math.min(players.size(), MAX_SEATS);
+        Card oldTop = top;
+        top = game.getTopCard();
+
+        boolean relayout = count != seatCount;
+        for (int s = 0; s < count; s++) {
+            Player p = players.get((yourIndex + s) % players.size());
+            relayout |= seats[s].update(p, s == 0);
+        }
+        for (int s = count; s < seatCount; s++) seats[s].update(null, false);
+        seatCount = count;
+
+        if (relayout || getWidth() != laidOutWidth || getHeight() != laidOutHeight) {
+            layoutTable(); // Repaints every seat whose place or size changed
+        }
+
+        boolean sized = getWidth() > 0 && getHeight() > 0;
+        boolean played = top != oldTop && top != null && oldTop != null && animated && sized && play();
+        if (!played && top != oldTop && playsInFlight == 0) {
+            shownTop = top;
+            repaint(discardPile);
+        }
+        dealOnLayout = animated && !sized; // The first game is shown before the table is laid out
+        if (animated && sized) deal();
+    }
+
+    /**
+     * Flies the card just played from the hand it left to the discard pile.
+     *
+     * @return true if a hand lost one card and the play was started
+     */
+    private boolean play() {
+        for (int s = 0; s < seatCount; s++) {
+            Seat seat = seats[s];
+            if (seat.lost != 1) continue; // Hands emptied by a new deal do not fly
+            Card card = seat.lostCard != null ? seat.lostCard : top;
+            animator.start(atlas.getFace(card, false), seat.lostX, seat.lostY, discardPile.x, discardPile.y,
+                    0, FLIGHT_STEPS, DISCARD, card.getOrdinal());
+            playsInFlight++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Flies the cards the hands gained from the draw pile to their places,
+     * one card per seat in turn as in a deal.
+     */
+    private void deal() {
+        int gainers = 0;
+        for (int s = 0; s < seatCount; s++) {
+            if (seats[s].gained > 0) gainers++;
+        }
+        for (int s = 0, k = 0; s < seatCount; s++) {
+            Seat seat = seats[s];
+            if (seat.gained == 0) continue;
+            Icon back = seat.side == Side.LEFT || seat.side == Side.RIGHT
+                    ? atlas.getIcon(CardAtlas.SIDE_BACK) : atlas.getIcon(CardAtlas.BACK);
+            long bits = seat.gainedCards;
+            for (int j = 0; j < seat.gained; j++) {
+                int delay = (j * gainers + k) * DEAL_STAGGER;
+                if (seat.own) {
+                    long bit = Long.lowestOneBit(bits);
+                    bits &= bits - 1;
+                    int i = Long.bitCount(seat.hand & (bit - 1));
+                    Card card = Hand.first(bit);
+                    animator.start(atlas.getFace(card, false), drawPile.x, drawPile.y, seat.slotX(i), seat.slotY(i),
+                            delay, FLIGHT_STEPS, s, card.getOrdinal());
+                    seat.incoming |= bit;
+                } else {
+                    int i = seat.count - seat.gained + j;
+                    animator.start(back, drawPile.x, drawPile.y, seat.slotX(i), seat.slotY(i),
+                            delay, FLIGHT_STEPS, s, i);
+                    seat.pending++;
+                }
+            }
+            k++;
+        }
+    }
+
+    /**
+     * Shows a card that landed in its place (Animator listener).
+     *
+     * @param target the seat the card flew to, or DISCARD
+     * @param value  the card's ordinal, or its slot in a hand of backs
+     */
+    private void landed(int target, int value) {
+        if (target == DISCARD) {
+            if (--playsInFlight == 0 && shownTop != top) shownTop = top;
+            repaint(discardPile);
+            return;
+        }
+        Seat seat = seats[target];
+        if (seat.own) {
+            long bit = 1L << value;
+            seat.incoming &= ~bit;
+            if ((seat.hand & bit) != 0) seat.repaintSlot(Long.bitCount(seat.hand & (bit - 1)));
+        } else if (seat.pending > 0) {
+            seat.pending--;
+            seat.repaintSlot(seat.count - seat.pending - 1);
+        }
+    }
+
+    /**
+     * Turns flying cards to their places on and off. Turning them off lands
+     * every card in flight.
+     *
+     * @param animated true to animate, false to show cards in place at once
+     */
+    void setAnimated(boolean animated) {
+        this.animated = animated;
+        if (!animated) animator.finishAll();
+    }
+
+    /**
+     * Gets the animator flying the cards.
+     *
+     * @return the animator
+     */
+    Animator getAnimator() {
+        return animator;
+    }
+
+    @Override
+    public void doLayout() {
+        layoutTable();
+        if (dealOnLayout && getWidth() > 0 && getHeight() > 0) {
+            dealOnLayout = false;
+            deal();
+        }
+    }
+
+    /**
+     * Places the seats, the piles and the draw button for the current size
+     * and seat count, and repaints the regions that moved.
+     */
+    private void layoutTable() {
+        int w = getWidth(), h = getHeight();
+        laidOutWidth = w;
+        laidOutHeight = h;
+        FontMetrics fm = getFontMetrics(labelFont);
+        int labelHeight = fm.getHeight();
+
+        // Sides: the others go right, top, left in turn order
+        int others = Math.max(0, seatCount - 1);
+        int right, topCount, left;
+        if (others <= 3) {
+            right = others >= 1 ? 1 : 0;
+            topCount = others >= 2 ? 1 : 0;
+            left = others >= 3 ? 1 : 0;
+        } else {
+            right = left = others / 3 + (others % 3 == 2 ? 1 : 0);
+            topCount = others - 2 * right;
+        }
+
+        int sideTop = MARGIN + CH + LABEL_GAP + labelHeight + MARGIN;
+        int sideBottom = h - MARGIN - CH - LABEL_GAP - labelHeight - MARGIN;
+        int topLeft = MARGIN + CH + MARGIN;
+        int topRight = w - MARGIN - CH - MARGIN;
+
+        int s = 0;
+        if (seatCount > 0) seats[s++].place(Side.BOTTOM, MARGIN, w - MARGIN, h - MARGIN - CH, fm);
+        for (int i = 0; i < right; i++) {
+            int from = sideBottom - (sideBottom - sideTop) * (i + 1) / right;
+            int to = sideBottom - (sideBottom - sideTop) * i / right;
+            seats[s++].place(Side.RIGHT, from, to, w - CH, fm);
+        }
+        for (int i = 0; i < topCount; i++) {
+            int from = topRight - (topRight - topLeft) * (i + 1) / topCount;
+            int to = topRight - (topRight - topLeft) * i / topCount;
+            seats[s++].place(Side.TOP, from, to, MARGIN, fm);
+        }
+        for (int i = 0; i < left; i++) {
+            int from = sideTop + (sideBottom - sideTop) * i / left;
+            int to = sideTop + (sideBottom - sideTop) * (i + 1) / left;
+            seats[s++].place(Side.LEFT, from, to, 0, fm);
+        }
+
+        Dimension button = drawButton.getPreferredSize();
+        int cx = w / 2, cy = h / 2;
+        int pilesTop = cy - (CH + MARGIN + button.height) / 2;
+        moveTo(drawPile, cx - PILE_GAP / 2 - CW, pilesTop);
+        moveTo(discardPile, cx + PILE_GAP / 2, pilesTop);
+        drawButton.setBounds(cx - button.width / 2, pilesTop + CH + MARGIN, button.width, button.height);
+    }
+
+    /**
+     * Moves a pile, repainting its old and new place if it moved.
+     *
+     * @param pile the pile's bounds
+     * @param x    new left edge
+     * @param y    new top edge
+     */
+    private void moveTo(Rectangle pile, int x, int y) {
+        if (pile.x == x && pile.y == y && pile.width == CW) return;
+        repaint(pile);
+        pile.setBounds(x, y, CW, CH);
+        repaint(pile);
+    }
+
+    /**
+     * Routes a click to the card under it, or to the draw pile.
+     *
+     * @param x click position
+     * @param y click position
+     */
+    private void click(int x, int y) {
+        if (drawPile.contains(x, y)) {
+            drawClick.run();
+            return;
+        }
+        if (seatCount == 0) return;
+        Card card = seats[0].cardAt(x, y);
+        if (card != null) cardClick.accept(card);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g;
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+        g.drawImage(ImageCache.scaled("Assets/Background.png", getWidth(), getHeight()), 0, 0, null);
+
+        if (drawPile.intersects(clip)) atlas.getIcon(CardAtlas.BACK).paintIcon(this, g, drawPile.x, drawPile.y);
+        if (shownTop != null && discardPile.intersects(clip)) {
+            atlas.getFace(shownTop, false).paintIcon(this, g, discardPile.x, discardPile.y);
+        }
+
+        for (int s = 0; s < seatCount; s++) {
+            if (seats[s].bounds.intersects(clip)) seats[s].paint(g2, clip);
+        }
+        animator.paint(g, clip);
+    }
+
+    /**
+     * One seat at the table: what it shows and where.
+     */
+    private final class Seat {
+
+        /** Name and score, as shown. */
+        private String label;
+
+        /** Cards held. */
+        private int count;
+
+        /** Your cards (Hand bitset), or 0 for the backs of another player's hand. */
+        private long hand;
+
+        /** True for your own seat, shown face up. */
+        private boolean own;
+
+        /** Backs still flying to this hand, not shown yet. */
+        private int pending;
+
+        /** Your cards (Hand bitset) still flying to your hand, not shown yet. */
+        private long incoming;
+
+        /** Cards gained and lost by the last update. */
+        private int gained, lost;
+
+        /** Your cards gained by the last update (Hand bitset). */
+        private long gainedCards;
+
+        /** Your card lost by the last update, or null (another player's, or several). */
+        private Card lostCard;
+
+        /** Where a card lost by the last update was shown. */
+        private int lostX, lostY;
+
+        /** Side of the table. */
+        private Side side;
+
+        /** Span of the side given to this seat, and the seat's distance from the edge. */
+        private int from, to, edge;
+
+        /** Position of the first card, step to the next, and label position. */
+        private int x, y, step, labelX, labelY;
+
+        /** Region covering the cards and the name. */
+        final Rectangle bounds = new Rectangle();
+
+        /** Font metrics the seat was placed with. */
+        private FontMetrics fm;
+
+        /**
+         * Takes a player's state, repainting the seat if it changed.
+         *
+         * @param p   the player, or null to empty the seat
+         * @param own true for your own seat
+         * @return true if the seat must be placed again (its size may have changed)
+         */
+        boolean update(Player p, boolean own) {
+            String newLabel = p != null ? p.getName() + " | Score: " + p.getScore() : null;
+            int newCount = p != null ? p.getCardCount() : 0;
+            long newHand = p != null && own ? p.getCards().getMask() : 0;
+            gained = lost = 0;
+            gainedCards = 0;
+            lostCard = null;
+            if (newCount == count && newHand == hand && own == this.own && Objects.equals(newLabel, label)) {
+                return false;
+            }
+            boolean resized = newCount != count || !Objects.equals(newLabel, label);
+            if (own == this.own && side != null) {
+                // What moved, and where a lost card was, before the seat is placed again
+                if (own) {
+                    long left = hand & ~newHand;
+                    gainedCards = newHand & ~hand;
+                    gained = Long.bitCount(gainedCards);
+                    lost = Long.bitCount(left);
+                    if (lost == 1) {
+                        int i = Long.bitCount(hand & (left - 1));
+                        lostCard = Hand.first(left);
+                        lostX = slotX(i);
+                        lostY = slotY(i);
+                    }
+                } else {
+                    gained = Math.max(0, newCount - count);
+                    lost = Math.max(0, count - newCount);
+                    lostX = slotX(count - 1);
+                    lostY = slotY(count - 1);
+                }
+            } else if (p != null && side == null) {
+                gainedCards = newHand; // First game shown: everything is dealt
+                gained = own ? Long.bitCount(newHand) : newCount;
+            }
+            pending = Math.min(pending, newCount);
+            incoming &= newHand;
+            label = newLabel;
+            count = newCount;
+            hand = newHand;
+            this.own = own;
+            if (side == null) return true;
+            if (resized) {
+                place(side, from, to, edge, fm);
+            } else {
+                repaint(bounds);
+            }
+            return false;
+        }
+
+        /**
+         * Places the seat on a side of the table and works out where its
+         * cards and name go, squeezing the cards to fit the span.
+         *
+         * @param side the side of the table
+         * @param from start of the span along the side
+         * @param to   end of the span along the side
+         * @param edge distance from the table edge across the side (x for side seats, y for others)
+         * @param fm   metrics of the name font
+         */
+        void place(Side side, int from, int to, int edge, FontMetrics fm) {
+            this.side = side;
+            this.from = from;
+            this.to = to;
+            this.edge = edge;
+            this.fm = fm;
+            Rectangle old = new Rectangle(bounds);
+
+            int span = to - from;
+            int textWidth = label != null ? fm.stringWidth(label) : 0;
+            int n = count;
+            if (side == Side.LEFT || side == Side.RIGHT) {
+                // A column of backs lying sideways under the name
+                step = n > 1 ? Math.min(STRIP, Math.max(1, (span - fm.getHeight() - MARGIN - CW) / (n - 1))) : 0;
+                int length = n > 0 ? CW + (n - 1) * step : 0;
+                x = edge;
+                labelX = side == Side.LEFT ? edge : edge + CH - textWidth;
+                labelY = from;
+                y = from + fm.getHeight();
+                int left = Math.min(x, labelX);
+                bounds.setBounds(left, from, Math.max(x + CH, labelX + textWidth) - left, fm.getHeight() + length);
+            } else {
+                step = n > 1 ? Math.min(ROW_STEP, Math.max(1, (span - CW) / (n - 1))) : 0;
+                int length = n > 0 ? CW + (n - 1) * step : 0;
+                x = from + (span - length) / 2;
+                labelX = from + (span - textWidth) / 2;
+                y = edge;
+                labelY = side == Side.BOTTOM ? y - LABEL_GAP - fm.getHeight() : y + CH + LABEL_GAP;
+                int left = Math.min(x, labelX);
+                int right = Math.max(x + length, labelX + textWidth);
+                int top = Math.min(y, labelY);
+                bounds.setBounds(left, top, right - left, Math.max(y + CH, labelY + fm.getHeight()) - top);
+            }
+
+            if (!old.equals(bounds)) repaint(old);
+            repaint(bounds);
+        }
+
+        /**
+         * Paints the seat's name and the cards that meet the clip.
+         *
+         * @param g    graphics to paint on
+         * @param clip region being repainted
+         */
+        void paint(Graphics2D g, Rectangle clip) {
+            if (label != null) {
+                if (textHints != null) g.addRenderingHints(textHints);
+                g.setFont(labelFont);
+                g.setColor(Color.BLUE);
+                g.drawString(label, labelX, labelY + fm.getAscent());
+            }
+            int shown = count - pending; // Backs still in flight are left out
+            if (shown <= 0) return;
+
+            if (side == Side.LEFT || side == Side.RIGHT) {
+                Icon full = atlas.getIcon(CardAtlas.SIDE_BACK);
+                Icon strip = atlas.getIcon(CardAtlas.SIDE_BACK_STRIP);
+                // The first card is whole and the others show their edges below it
+                for (int i = shown - 1; i >= 1; i--) {
+                    int cy = y + CW + i * step - STRIP;
+                    if (cy < clip.y + clip.height && cy + STRIP > clip.y) strip.paintIcon(TablePanel.this, g, x, cy);
+                }
+                full.paintIcon(TablePanel.this, g, x, y);
+                return;
+            }
+
+            if (own) {
+                int i = 0;
+                int last = Long.bitCount(hand) - 1;
+                for (long bits = hand; bits != 0; bits &= bits - 1, i++) {
+                    int cx = x + i * step;
+                    if (cx > clip.x + clip.width) break;
+                    if ((incoming & Long.lowestOneBit(bits)) != 0) continue; // Still in flight
+                    boolean isLast = i == last;
+                    if (cx + (isLast ? CW : STRIP) < clip.x) continue;
+                    atlas.getFace(Card.byOrdinal(Long.numberOfTrailingZeros(bits)), !isLast).paintIcon(TablePanel.this, g, cx, y);
+                }
+            } else {
+                Icon strip = atlas.getIcon(CardAtlas.BACK_STRIP);
+                for (int i = shown - 1; i >= 1; i--) {
+                    int cx = x + CW + i * step - STRIP;
+                    if (cx < clip.x + clip.width && cx + STRIP > clip.x) strip.paintIcon(TablePanel.this, g, cx, y);
+                }
+                atlas.getIcon(CardAtlas.BACK).paintIcon(TablePanel.this, g, x, y);
+            }
+        }
+
+        /**
+         * Gets the left edge of a whole card at a place in the hand, lined up
+         * so that its far edge is where the card's visible edge is.
+         *
+         * @param i index of the card in the hand
+         * @return left edge
+         */
+        int slotX(int i) {
+            return side == Side.LEFT || side == Side.RIGHT ? x : x + Math.max(0, i) * step;
+        }
+
+        /**
+         * Gets the top edge of a whole card at a place in the hand.
+         *
+         * @param i index of the card in the hand
+         * @return top edge
+         */
+        int slotY(int i) {
+            return side == Side.LEFT || side == Side.RIGHT ? y + Math.max(0, i) * step : y;
+        }
+
+        /**
+         * Repaints the place of one card in the hand.
+         *
+         * @param i index of the card in the hand
+         */
+        void repaintSlot(int i) {
+            boolean sideways = side == Side.LEFT || side == Side.RIGHT;
+            repaint(slotX(i), slotY(i), sideways ? CH : CW, sideways ? CW : CH);
+        }
+
+        /**
+         * Finds your card at a point: the card whose visible part is under it.
+         * Cards still flying to the hand are not drawn there, so they cannot be hit.
+         *
+         * @param px point
+         * @param py point
+         * @return the card, or null if the point is not on one
+         */
+        Card cardAt(int px, int py) {
+            if (!own || hand == 0 || py < y || py >= y + CH || px < x) return null;
+            int last = Long.bitCount(hand) - 1;
+            int i;
+            if (px >= x + last * step) {
+                if (px >= x + last * step + CW) return null;
+                i = last; // The last card shows whole
+            } else {
+                i = (px - x) / step;
+                if (px - x - i * step >= Math.min(step, STRIP)) return null; // Gap between two edges
+            }
+            long bit = nth(hand, i);
+            return (incoming & bit) != 0 ? null : Hand.first(bit); // A card still in flight is not there yet
+        }
+    }
+
+    /**
+     * Picks the i-th lowest card of a Hand bitset.
+     *
+     * @param bits the Hand bitset
+     * @param i    index of the card, from 0
+     * @return a bitset holding only that card
+     */
+    private static long nth(long bits, int i) {
+        for (int k = 0; k < i; k++) bits &= bits - 1;
+        return Long.lowestOneBit(bits);
+    }
+}